@@ -1,5 +1,7 @@
 package io.mosip.esignet.services;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.nimbusds.jose.JWSAlgorithm;
 import com.nimbusds.jose.jwk.JWKSet;
 import com.nimbusds.jose.jwk.RSAKey;
@@ -13,6 +15,8 @@ import com.nimbusds.jwt.proc.ConfigurableJWTProcessor;
 import com.nimbusds.jwt.proc.DefaultJWTClaimsVerifier;
 import com.nimbusds.jwt.proc.DefaultJWTProcessor;
 import com.nimbusds.jwt.proc.JWTClaimsSetVerifier;
+import com.nimbusds.jwt.proc.JWTProcessor;
+import io.micrometer.core.instrument.Metrics;
 import io.mosip.esignet.api.dto.AuthChallenge;
 import io.mosip.esignet.api.dto.BindingAuthResult;
 import io.mosip.esignet.api.exception.KycAuthException;
@@ -20,11 +24,14 @@ import io.mosip.esignet.api.spi.KeyBindingValidator;
 import io.mosip.esignet.entity.PublicKeyRegistry;
 import io.mosip.esignet.repository.PublicKeyRegistryRepository;
 import io.mosip.esignet.core.constants.ErrorConstants;
+import io.mosip.esignet.core.dto.KeyBindingUpdatedEvent;
 import io.mosip.kernel.keymanagerservice.util.KeymanagerUtil;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 import org.springframework.util.CollectionUtils;
 
@@ -32,6 +39,7 @@ import java.security.cert.X509Certificate;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import static io.mosip.esignet.core.constants.ErrorConstants.*;
@@ -41,6 +49,10 @@ import static io.mosip.esignet.core.constants.ErrorConstants.*;
 @Slf4j
 public class BindingValidatorServiceImpl implements KeyBindingValidator {
 
+    private static final String CACHE_KEY_SEPARATOR = "|";
+
+    private static final String VERIFIER_CACHE_METRIC = "esignet.binding.verifier.cache";
+
     @Autowired
     private KeyBindingHelperService keyBindingHelperService;
 
@@ -53,6 +65,16 @@ public class BindingValidatorServiceImpl implements KeyBindingValidator {
     @Value("${mosip.esignet.binding.audience-id}")
     private String bindingAudienceId;
 
+    @Value("${mosip.esignet.binding.verifier-cache.max-size:1000}")
+    private int verifierCacheMaxSize;
+
+    @Value("${mosip.esignet.binding.verifier-cache.expire-seconds:600}")
+    private long verifierCacheExpireSeconds;
+
+    private Cache<String, CachedBinding> verifierCache;
+
+    private record CachedBinding(JWTProcessor<?> jwtProcessor, String psuToken, String certificate, long expireAt) {}
+
     private static Set<String> REQUIRED_WLA_CLAIMS;
 
     static {
@@ -64,6 +86,27 @@ public class BindingValidatorServiceImpl implements KeyBindingValidator {
         REQUIRED_WLA_CLAIMS.add("iat");
     }
 
+    /**
+     * WLA token processors are cached with the individual id hash and the auth factor as key. Registry is still looked
+     * up on every validation so that a key re-bound on any node is not accepted, cached processor is used only if the
+     * registry entry carries the cached certificate. Entry is not used after the key binding or the bound certificate
+     * expires, entries of the individual are evicted on key binding.
+     */
+    @PostConstruct
+    public void init() {
+        verifierCache = CacheBuilder.newBuilder()
+                .maximumSize(verifierCacheMaxSize)
+                .expireAfterWrite(verifierCacheExpireSeconds, TimeUnit.SECONDS)
+                .build();
+    }
+
+    @EventListener
+    public void onKeyBindingUpdated(KeyBindingUpdatedEvent event) {
+        String keyPrefix = event.getIdHash() + CACHE_KEY_SEPARATOR;
+        verifierCache.asMap().entrySet().removeIf(entry -> entry.getKey().startsWith(keyPrefix) ||
+                Objects.equals(entry.getValue().psuToken(), event.getPsuToken()));
+    }
+
     @Override
     public BindingAuthResult validateBindingAuth(String transactionId, String individualId, List<AuthChallenge> challengeList) throws KycAuthException {
         String individualIdHash = keyBindingHelperService.getIndividualIdHash(individualId);
@@ -81,7 +124,7 @@ public class BindingValidatorServiceImpl implements KeyBindingValidator {
             throw new KycAuthException(ErrorConstants.UNBOUND_AUTH_FACTOR);
 
         boolean result = challengeList.stream()
-                .allMatch(authChallenge -> validateChallenge(individualId, authChallenge,
+                .allMatch(authChallenge -> validateChallenge(individualId, individualIdHash, authChallenge,
                         publicKeyRegistryEntries.stream().filter( e -> e.getAuthFactor().equals(authChallenge.getAuthFactorType())).findFirst()));
 
         if(result) {
@@ -91,13 +134,15 @@ public class BindingValidatorServiceImpl implements KeyBindingValidator {
         throw new KycAuthException(ErrorConstants.INVALID_CHALLENGE);
     }
 
-    private boolean validateChallenge(String individualId, AuthChallenge authChallenge, Optional<PublicKeyRegistry> publicKeyRegistry) {
+    private boolean validateChallenge(String individualId, String individualIdHash, AuthChallenge authChallenge,
+                                      Optional<PublicKeyRegistry> publicKeyRegistry) {
         if(publicKeyRegistry.isEmpty())
             return false;
 
         try {
             return switch (authChallenge.getAuthFactorType()) {
-                case "WLA"  -> validateWLAToken(individualId, authChallenge.getChallenge(), authChallenge.getFormat(), publicKeyRegistry.get());
+                case "WLA"  -> validateWLAToken(individualId, individualIdHash, authChallenge.getChallenge(),
+                        authChallenge.getFormat(), publicKeyRegistry.get());
                 default -> false;
             };
         } catch (Exception e) {
@@ -106,26 +151,17 @@ public class BindingValidatorServiceImpl implements KeyBindingValidator {
         return false;
     }
 
-    private boolean validateWLAToken(String individualId, String wlaToken, String format, PublicKeyRegistry publicKeyRegistry) throws KycAuthException {
+    private boolean validateWLAToken(String individualId, String individualIdHash, String wlaToken, String format,
+                                     PublicKeyRegistry publicKeyRegistry) throws KycAuthException {
         switch (format) {
             case "jwt" :
                 try {
-                    X509Certificate x509Certificate = (X509Certificate) keymanagerUtil.convertToCertificate(publicKeyRegistry.getCertificate());
-                    JWSKeySelector keySelector = new JWSVerificationKeySelector(JWSAlgorithm.RS256,
-                            new ImmutableJWKSet(new JWKSet(RSAKey.parse(x509Certificate))));
+                    JWTProcessor<?> jwtProcessor = getJWTProcessor(individualId, individualIdHash, publicKeyRegistry);
 
                     JWT jwt = JWTParser.parse(wlaToken);
                     if(!jwt.getHeader().toJSONObject().containsKey("x5t#S256"))
                         throw new KycAuthException(SHA256_THUMBPRINT_HEADER_MISSING);
 
-                    JWTClaimsSetVerifier claimsSetVerifier = new DefaultJWTClaimsVerifier(new JWTClaimsSet.Builder()
-                            .audience(bindingAudienceId)
-                            .subject(individualId)
-                            .build(), REQUIRED_WLA_CLAIMS);
-
-                    ConfigurableJWTProcessor jwtProcessor = new DefaultJWTProcessor();
-                    jwtProcessor.setJWSKeySelector(keySelector);
-                    jwtProcessor.setJWTClaimsSetVerifier(claimsSetVerifier);
                     jwtProcessor.process(jwt, null); //If invalid throws exception
                     return true;
                 } catch (KycAuthException e) {
@@ -137,4 +173,36 @@ public class BindingValidatorServiceImpl implements KeyBindingValidator {
            default: throw new KycAuthException(UNKNOWN_WLA_FORMAT);
         }
     }
+
+    private JWTProcessor<?> getJWTProcessor(String individualId, String individualIdHash, PublicKeyRegistry publicKeyRegistry)
+            throws Exception {
+        String key = individualIdHash + CACHE_KEY_SEPARATOR + publicKeyRegistry.getAuthFactor();
+        CachedBinding cachedBinding = verifierCache.getIfPresent(key);
+        if(cachedBinding != null && cachedBinding.expireAt() > System.currentTimeMillis() &&
+                cachedBinding.certificate().equals(publicKeyRegistry.getCertificate())) {
+            Metrics.counter(VERIFIER_CACHE_METRIC, "result", "hit").increment();
+            return cachedBinding.jwtProcessor();
+        }
+        Metrics.counter(VERIFIER_CACHE_METRIC, "result", "miss").increment();
+
+        X509Certificate x509Certificate = (X509Certificate) keymanagerUtil.convertToCertificate(publicKeyRegistry.getCertificate());
+        JWSKeySelector keySelector = new JWSVerificationKeySelector(JWSAlgorithm.RS256,
+                new ImmutableJWKSet(new JWKSet(RSAKey.parse(x509Certificate))));
+
+        JWTClaimsSetVerifier claimsSetVerifier = new DefaultJWTClaimsVerifier(new JWTClaimsSet.Builder()
+                .audience(bindingAudienceId)
+                .subject(individualId)
+                .build(), REQUIRED_WLA_CLAIMS);
+
+        ConfigurableJWTProcessor jwtProcessor = new DefaultJWTProcessor();
+        jwtProcessor.setJWSKeySelector(keySelector);
+        jwtProcessor.setJWTClaimsSetVerifier(claimsSetVerifier);
+
+        //processor is not used after the key binding or the bound certificate expires
+        long expireAt = Math.min(x509Certificate.getNotAfter().getTime(),
+                publicKeyRegistry.getExpiredtimes().toInstant(ZoneOffset.UTC).toEpochMilli());
+        verifierCache.put(key, new CachedBinding(jwtProcessor, publicKeyRegistry.getPsuToken(),
+                publicKeyRegistry.getCertificate(), expireAt));
+        return jwtProcessor;
+    }
 }
@@ -4,11 +4,13 @@ import io.mosip.esignet.entity.PublicKeyRegistry;
 import io.mosip.esignet.repository.PublicKeyRegistryRepository;
 import io.mosip.esignet.core.exception.EsignetException;
 import io.mosip.esignet.core.constants.ErrorConstants;
+import io.mosip.esignet.core.dto.KeyBindingUpdatedEvent;
 import io.mosip.esignet.core.util.IdentityProviderUtil;
 import io.mosip.kernel.keymanagerservice.util.KeymanagerUtil;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 
 import java.security.MessageDigest;
@@ -33,6 +35,9 @@ public class KeyBindingHelperService {
     @Autowired
     private KeymanagerUtil keymanagerUtil;
 
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
+
     @Value("${mosip.esignet.binding.salt-length}")
     private int saltLength;
 
@@ -76,6 +81,8 @@ public class KeyBindingHelperService {
         publicKeyRegistry.setCreatedtimes(LocalDateTime.now(ZoneId.of("UTC")));
         publicKeyRegistry = publicKeyRegistryRepository.save(publicKeyRegistry);
         log.info("Saved PublicKeyRegistry details successfully");
+        applicationEventPublisher.publishEvent(new KeyBindingUpdatedEvent(getIndividualIdHash(individualId),
+                partnerSpecificUserToken, authFactor));
         return publicKeyRegistry;
     }
 
@@ -11,6 +11,7 @@ import io.mosip.esignet.repository.PublicKeyRegistryRepository;
 import io.mosip.esignet.api.dto.AuthChallenge;
 import io.mosip.esignet.core.exception.EsignetException;
 import io.mosip.esignet.core.constants.ErrorConstants;
+import io.mosip.esignet.core.dto.KeyBindingUpdatedEvent;
 import io.mosip.esignet.core.util.IdentityProviderUtil;
 import io.mosip.esignet.services.BindingValidatorServiceImpl;
 import io.mosip.esignet.services.KeyBindingHelperService;
@@ -25,6 +26,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 
@@ -68,6 +70,9 @@ public class BindingValidatorServiceImplTest {
     @BeforeEach
     public void setUp() {
         ReflectionTestUtils.setField(bindingValidatorServiceImpl, "bindingAudienceId", audienceId);
+        ReflectionTestUtils.setField(bindingValidatorServiceImpl, "verifierCacheMaxSize", 10);
+        ReflectionTestUtils.setField(bindingValidatorServiceImpl, "verifierCacheExpireSeconds", 60L);
+        bindingValidatorServiceImpl.init();
 
         keyBindingHelperService = mock(KeyBindingHelperService.class);
         ReflectionTestUtils.setField(keyBindingHelperService, "saltLength", 10);
@@ -102,6 +107,94 @@ public class BindingValidatorServiceImplTest {
         Assertions.assertEquals(bindingAuthResult.getTransactionId(), transactionId);
     }
 
+    @Test
+    public void validateBinding_withCachedBinding_thenCertificateNotParsedAgain() throws Exception {
+        String individualId = "8267411571";
+        X509Certificate certificate = getCertificate(clientJWK);
+        PublicKeyRegistry publicKeyRegistry = new PublicKeyRegistry("id-hash", "WLA", "test-psu-token", clientJWK.toJSONString(),
+                LocalDateTime.now().plusDays(4), "test-binding-id", "test-public-key-hash", "thumbprint",
+                getPemData(certificate), LocalDateTime.now());
+        when(publicKeyRegistryRepository.findByIdHashAndAuthFactorInAndExpiredtimesGreaterThan(anyString(), any(), any()))
+                .thenReturn(Arrays.asList(publicKeyRegistry));
+        when(keymanagerUtil.convertToCertificate(anyString())).thenReturn(certificate);
+
+        for(int i=0; i<3; i++) {
+            AuthChallenge authChallenge = new AuthChallenge();
+            authChallenge.setAuthFactorType("WLA");
+            authChallenge.setFormat("jwt");
+            authChallenge.setChallenge(signJwt(individualId, certificate, true));
+            BindingAuthResult bindingAuthResult = bindingValidatorServiceImpl.validateBindingAuth("txn-" + i, individualId, Arrays.asList(authChallenge));
+            Assertions.assertEquals("txn-" + i, bindingAuthResult.getTransactionId());
+        }
+        Mockito.verify(publicKeyRegistryRepository, Mockito.times(3))
+                .findByIdHashAndAuthFactorInAndExpiredtimesGreaterThan(anyString(), any(), any());
+        Mockito.verify(keymanagerUtil, Mockito.times(1)).convertToCertificate(anyString());
+    }
+
+    @Test
+    public void validateBinding_afterKeyBindingUpdated_thenCertificateParsedAgain() throws Exception {
+        String individualId = "8267411571";
+        X509Certificate certificate = getCertificate(clientJWK);
+        PublicKeyRegistry publicKeyRegistry = new PublicKeyRegistry("id-hash", "WLA", "test-psu-token", clientJWK.toJSONString(),
+                LocalDateTime.now().plusDays(4), "test-binding-id", "test-public-key-hash", "thumbprint",
+                getPemData(certificate), LocalDateTime.now());
+        when(publicKeyRegistryRepository.findByIdHashAndAuthFactorInAndExpiredtimesGreaterThan(anyString(), any(), any()))
+                .thenReturn(Arrays.asList(publicKeyRegistry));
+        when(keymanagerUtil.convertToCertificate(anyString())).thenReturn(certificate);
+
+        AuthChallenge authChallenge = new AuthChallenge();
+        authChallenge.setAuthFactorType("WLA");
+        authChallenge.setFormat("jwt");
+        authChallenge.setChallenge(signJwt(individualId, certificate, true));
+        bindingValidatorServiceImpl.validateBindingAuth("txn-1", individualId, Arrays.asList(authChallenge));
+
+        bindingValidatorServiceImpl.onKeyBindingUpdated(new KeyBindingUpdatedEvent("other-id-hash", "test-psu-token", "WLA"));
+        bindingValidatorServiceImpl.validateBindingAuth("txn-2", individualId, Arrays.asList(authChallenge));
+
+        bindingValidatorServiceImpl.onKeyBindingUpdated(new KeyBindingUpdatedEvent("id-hash", "other-psu-token", "WLA"));
+        bindingValidatorServiceImpl.validateBindingAuth("txn-3", individualId, Arrays.asList(authChallenge));
+
+        Mockito.verify(keymanagerUtil, Mockito.times(3)).convertToCertificate(anyString());
+    }
+
+    @Test
+    public void validateBinding_withRegistryEntryChangedBehindCache_thenOldKeyRejected() throws Exception {
+        String individualId = "8267411571";
+        X509Certificate certificate = getCertificate(clientJWK);
+        JWK reboundJWK = generateJWK_RSA();
+        X509Certificate reboundCertificate = getCertificate(reboundJWK);
+        PublicKeyRegistry publicKeyRegistry = new PublicKeyRegistry("id-hash", "WLA", "test-psu-token", clientJWK.toJSONString(),
+                LocalDateTime.now().plusDays(4), "test-binding-id", "test-public-key-hash", "thumbprint",
+                getPemData(certificate), LocalDateTime.now());
+        PublicKeyRegistry reboundPublicKeyRegistry = new PublicKeyRegistry("id-hash", "WLA", "test-psu-token", reboundJWK.toJSONString(),
+                LocalDateTime.now().plusDays(4), "test-binding-id", "test-public-key-hash", "thumbprint",
+                getPemData(reboundCertificate), LocalDateTime.now());
+        when(publicKeyRegistryRepository.findByIdHashAndAuthFactorInAndExpiredtimesGreaterThan(anyString(), any(), any()))
+                .thenReturn(Arrays.asList(publicKeyRegistry), Arrays.asList(reboundPublicKeyRegistry));
+        when(keymanagerUtil.convertToCertificate(publicKeyRegistry.getCertificate())).thenReturn(certificate);
+        when(keymanagerUtil.convertToCertificate(reboundPublicKeyRegistry.getCertificate())).thenReturn(reboundCertificate);
+
+        AuthChallenge authChallenge = new AuthChallenge();
+        authChallenge.setAuthFactorType("WLA");
+        authChallenge.setFormat("jwt");
+        authChallenge.setChallenge(signJwt(individualId, certificate, true));
+        bindingValidatorServiceImpl.validateBindingAuth("txn-1", individualId, Arrays.asList(authChallenge));
+
+        //key re-bound in another node, no KeyBindingUpdatedEvent in this node
+        try {
+            bindingValidatorServiceImpl.validateBindingAuth("txn-2", individualId, Arrays.asList(authChallenge));
+            Assertions.fail();
+        } catch (KycAuthException e) {
+            Assertions.assertEquals(ErrorConstants.INVALID_CHALLENGE, e.getErrorCode());
+        }
+
+        authChallenge.setChallenge(signJwt(individualId, reboundCertificate, true, reboundJWK));
+        BindingAuthResult bindingAuthResult = bindingValidatorServiceImpl.validateBindingAuth("txn-3", individualId, Arrays.asList(authChallenge));
+        Assertions.assertEquals("txn-3", bindingAuthResult.getTransactionId());
+        Mockito.verify(keymanagerUtil, Mockito.times(1)).convertToCertificate(publicKeyRegistry.getCertificate());
+        Mockito.verify(keymanagerUtil, Mockito.times(1)).convertToCertificate(reboundPublicKeyRegistry.getCertificate());
+    }
+
     @Test
     public void validateBinding_withInvalidSha256Thumbprint_thenFail() throws Exception {
         String transactionId = "909422113";
@@ -241,6 +334,10 @@ public class BindingValidatorServiceImplTest {
     }
 
     private String signJwt(String individualId, X509Certificate certificate, boolean addSha256Thumbprint) throws Exception {
+        return signJwt(individualId, certificate, addSha256Thumbprint, clientJWK);
+    }
+
+    private String signJwt(String individualId, X509Certificate certificate, boolean addSha256Thumbprint, JWK signingJWK) throws Exception {
         JSONObject payload = new JSONObject();
         payload.put("iss", "test-app");
         payload.put("aud", audienceId);
@@ -255,7 +352,7 @@ public class BindingValidatorServiceImplTest {
         }
         jwSign.setPayload(payload.toJSONString());
         jwSign.setAlgorithmHeaderValue("RS256");
-        jwSign.setKey(clientJWK.toRSAKey().toPrivateKey());
+        jwSign.setKey(signingJWK.toRSAKey().toPrivateKey());
         jwSign.setDoKeyValidation(false);
         return jwSign.getCompactSerialization();
     }
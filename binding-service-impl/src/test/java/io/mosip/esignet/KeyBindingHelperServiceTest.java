@@ -3,6 +3,7 @@ package io.mosip.esignet;
 import com.nimbusds.jose.jwk.JWK;
 import com.nimbusds.jose.jwk.KeyUse;
 import com.nimbusds.jose.jwk.RSAKey;
+import io.mosip.esignet.core.dto.KeyBindingUpdatedEvent;
 import io.mosip.esignet.core.exception.EsignetException;
 import io.mosip.esignet.entity.PublicKeyRegistry;
 import io.mosip.esignet.repository.PublicKeyRegistryRepository;
@@ -17,6 +18,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import javax.security.auth.x500.X500Principal;
@@ -64,6 +66,9 @@ public class KeyBindingHelperServiceTest {
     @Mock
     private PublicKeyRegistryRepository publicKeyRegistryRepository;
 
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
     @BeforeEach
     public void setUp() {
         ReflectionTestUtils.setField(keyBindingHelperService, "saltLength", 10);
@@ -90,6 +95,8 @@ public class KeyBindingHelperServiceTest {
         publicKeyRegistry = keyBindingHelperService.storeKeyBindingDetailsInRegistry("individualId", "psut", "publicKey",
                 certificateString, "WLA");
         Assertions.assertNotNull(publicKeyRegistry);
+        Mockito.verify(applicationEventPublisher).publishEvent(new KeyBindingUpdatedEvent(
+                keyBindingHelperService.getIndividualIdHash("individualId"), "psut", "WLA"));
     }
 
     @Test
@@ -29,6 +29,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -54,6 +55,9 @@ public class ClientManagementServiceImpl implements ClientManagementService {
 
     @Autowired
     IdentityProviderUtil identityProviderUtil;
+
+    @Autowired
+    ApplicationEventPublisher applicationEventPublisher;
     
     @Value("${mosip.esignet.audit.claim-name:preferred_username}")
     private String claimName;
@@ -185,6 +189,7 @@ public class ClientManagementServiceImpl implements ClientManagementService {
 
         clientDetail = clientDetailRepository.save(clientDetail);
 
+        applicationEventPublisher.publishEvent(new ClientDetailEvictedEvent(clientId));
         auditWrapper.logAudit(AuditHelper.getClaimValue(SecurityContextHolder.getContext(), claimName),
         		Action.OIDC_CLIENT_UPDATE, ActionStatus.SUCCESS, AuditHelper.buildAuditDto(clientId), null);
 
@@ -250,6 +255,7 @@ public class ClientManagementServiceImpl implements ClientManagementService {
     public ClientDetailResponse updateOAuthClient(String clientId, ClientDetailUpdateRequestV2 clientDetailUpdateRequestV2) throws EsignetException {
         ClientDetail clientDetail = buildOAuthClient(clientId, clientDetailUpdateRequestV2);
         clientDetail = clientDetailRepository.save(clientDetail);
+        applicationEventPublisher.publishEvent(new ClientDetailEvictedEvent(clientId));
         auditWrapper.logAudit(AuditHelper.getClaimValue(SecurityContextHolder.getContext(), claimName),
                 Action.OAUTH_CLIENT_UPDATE, ActionStatus.SUCCESS, AuditHelper.buildAuditDto(clientId), null);
 
@@ -276,6 +282,7 @@ public class ClientManagementServiceImpl implements ClientManagementService {
     public ClientDetailResponseV2 updateClient(String clientId, ClientDetailUpdateRequestV3 clientDetailUpdateRequestV3) throws EsignetException {
         ClientDetail clientDetail = buildClient(clientId, clientDetailUpdateRequestV3);
         clientDetail = clientDetailRepository.save(clientDetail);
+        applicationEventPublisher.publishEvent(new ClientDetailEvictedEvent(clientId));
         auditWrapper.logAudit(AuditHelper.getClaimValue(SecurityContextHolder.getContext(), claimName),
                 Action.OAUTH_CLIENT_UPDATE, ActionStatus.SUCCESS, AuditHelper.buildAuditDto(clientId), null);
 
@@ -421,6 +428,7 @@ public class ClientManagementServiceImpl implements ClientManagementService {
         ClientDetail clientDetail = buildClient(clientId, patchRequest);
         clientDetail = clientDetailRepository.save(clientDetail);
 
+        applicationEventPublisher.publishEvent(new ClientDetailEvictedEvent(clientId));
         auditWrapper.logAudit(AuditHelper.getClaimValue(SecurityContextHolder.getContext(), claimName),
                 Action.OAUTH_CLIENT_PATCH, ActionStatus.SUCCESS, AuditHelper.buildAuditDto(clientId), null);
 
@@ -27,6 +27,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.security.KeyPair;
 import java.security.KeyPairGenerator;
@@ -56,6 +57,9 @@ public class ClientManagementServiceTest {
     @Mock
     IdentityProviderUtil identityProviderUtil;
 
+    @Mock
+    ApplicationEventPublisher applicationEventPublisher;
+
     Map<String, Object> PUBLIC_KEY;
     Map<String, Object> ENC_PUBLIC_KEY;
 
@@ -220,6 +224,7 @@ public class ClientManagementServiceTest {
         Assertions.assertNotNull(clientDetailResponse);
         Assertions.assertTrue(clientDetailResponse.getClientId().equals("client_id_v1"));
         Assertions.assertTrue(clientDetailResponse.getStatus().equals("inactive"));
+        Mockito.verify(applicationEventPublisher).publishEvent(new ClientDetailEvictedEvent("client_id_v1"));
     }
 
     @Test
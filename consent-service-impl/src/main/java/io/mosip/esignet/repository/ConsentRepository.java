@@ -7,6 +7,9 @@ package io.mosip.esignet.repository;
 
 import io.mosip.esignet.entity.ConsentDetail;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.Optional;
 
@@ -16,4 +19,19 @@ public interface ConsentRepository extends JpaRepository<ConsentDetail, String>
       Optional<ConsentDetail> findByClientIdAndPsuToken(String clientId, String psuToken);
       void deleteByClientIdAndPsuToken(String clientId, String psuToken);
 
+      /**
+       * Replaces the consent of the (client_id, psu_token) pair in place, id of the existing consent is retained.
+       * @return number of updated consents, 0 if no consent exists for the pair
+       */
+      @Modifying(flushAutomatically = true, clearAutomatically = true)
+      @Query("UPDATE consent_detail c SET c.claims = :#{#consent.claims}, " +
+              "c.authorizationScopes = :#{#consent.authorizationScopes}, c.createdtimes = :#{#consent.createdtimes}, " +
+              "c.expiredtimes = :#{#consent.expiredtimes}, c.signature = :#{#consent.signature}, c.hash = :#{#consent.hash}, " +
+              "c.acceptedClaims = :#{#consent.acceptedClaims}, c.permittedScopes = :#{#consent.permittedScopes} " +
+              "WHERE c.clientId = :#{#consent.clientId} AND c.psuToken = :#{#consent.psuToken}")
+      int updateByClientIdAndPsuToken(@Param("consent") ConsentDetail consent);
+
+      @Query("SELECT c.id FROM consent_detail c WHERE c.clientId = :clientId AND c.psuToken = :psuToken")
+      Optional<String> findIdByClientIdAndPsuToken(@Param("clientId") String clientId, @Param("psuToken") String psuToken);
+
 }
@@ -0,0 +1,317 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.Metrics;
+import io.mosip.esignet.entity.ConsentHistory;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes the consent history rows off the consent request thread. Rows are queued after the consent transaction
+ * commits and inserted with JDBC batch inserts by a single writer thread, a batch is flushed once it reaches the batch
+ * size or the flush interval elapses. If the queue stays full for the enqueue timeout or the writer is stopped, the row
+ * is inserted on the caller thread. Queued rows are flushed on shutdown.
+ *
+ * Rows failing to insert are appended to the spill file as json lines instead of being dropped. Spill file is replayed
+ * by a separate replay thread on start and every replay interval, so a large spill file does not hold up the batch
+ * flushes. Rows failing again are spilled again, rows already present in the table (replay interrupted after the
+ * insert) are skipped. Spill file path must be configured, start fails if its directory is not writable and failed
+ * rows are only logged if the path is not configured.
+ *
+ * Rows are written at most once: queued rows are lost if the instance is killed before they are flushed.
+ */
+@Slf4j
+@Component
+public class ConsentHistoryWriter {
+
+    private static final String INSERT_CONSENT_HISTORY = "INSERT INTO consent_history (id, client_id, psu_token, claims, " +
+            "authorization_scopes, cr_dtimes, expire_dtimes, signature, hash, accepted_claims, permitted_scopes) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Value("${mosip.esignet.consent.history.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${mosip.esignet.consent.history.batch-size:100}")
+    private int batchSize;
+
+    @Value("${mosip.esignet.consent.history.flush-interval-ms:500}")
+    private long flushIntervalMs;
+
+    @Value("${mosip.esignet.consent.history.enqueue-timeout-ms:50}")
+    private long enqueueTimeoutMs;
+
+    @Value("${mosip.esignet.consent.history.spill-file:}")
+    private String spillFile;
+
+    @Value("${mosip.esignet.consent.history.spill-replay-interval-ms:60000}")
+    private long spillReplayIntervalMs;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private BlockingQueue<ConsentHistory> queue;
+    private TransactionTemplate transactionTemplate;
+    private Thread writerThread;
+    private ScheduledExecutorService replayExecutor;
+    private volatile boolean running;
+    private final Object spillLock = new Object();
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    @PostConstruct
+    public void init() {
+        validateSpillFile();
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        Metrics.gauge("esignet.consent.history.queued", queue, BlockingQueue::size);
+        running = true;
+        writerThread = new Thread(this::run, "consent-history-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        if(!spillFile.isBlank()) {
+            replayExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "consent-history-replay");
+                thread.setDaemon(true);
+                return thread;
+            });
+            replayExecutor.scheduleWithFixedDelay(this::replaySpilled, 0, spillReplayIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        if(replayExecutor != null) {
+            replayExecutor.shutdown();
+            replayExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+        writerThread.interrupt();
+        writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        List<ConsentHistory> pending = new ArrayList<>();
+        queue.drainTo(pending);
+        for(int i = 0; i < pending.size(); i += batchSize) {
+            flush(pending.subList(i, Math.min(i + batchSize, pending.size())));
+        }
+    }
+
+    /**
+     * Queues the consent history row, the row is queued only after the current transaction commits, it is dropped if the
+     * transaction rolls back.
+     */
+    public void write(ConsentHistory consentHistory) {
+        if(TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(consentHistory);
+                }
+            });
+            return;
+        }
+        enqueue(consentHistory);
+    }
+
+    private void enqueue(ConsentHistory consentHistory) {
+        try {
+            if(running && queue.offer(consentHistory, enqueueTimeoutMs, TimeUnit.MILLISECONDS))
+                return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.warn("Consent history queue is full or the writer is stopped, writing consent history synchronously");
+        flush(List.of(consentHistory));
+    }
+
+    private void run() {
+        List<ConsentHistory> batch = new ArrayList<>(batchSize);
+        while(running) {
+            try {
+                ConsentHistory consentHistory = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if(consentHistory == null)
+                    continue;
+
+                batch.add(consentHistory);
+                queue.drainTo(batch, batchSize - batch.size());
+                long flushAt = System.currentTimeMillis() + flushIntervalMs;
+                long waitMs;
+                while(batch.size() < batchSize && (waitMs = flushAt - System.currentTimeMillis()) > 0) {
+                    consentHistory = queue.poll(waitMs, TimeUnit.MILLISECONDS);
+                    if(consentHistory == null)
+                        break;
+                    batch.add(consentHistory);
+                    queue.drainTo(batch, batchSize - batch.size());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            if(!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<ConsentHistory> batch) {
+        try {
+            insert(batch);
+        } catch (Exception e) {
+            if(batch.size() == 1) {
+                if(e instanceof DuplicateKeyException) {
+                    log.debug("Consent history id: {} is already written", batch.get(0).getId());
+                    return;
+                }
+                log.error("Failed to write consent history id: {} client: {}, spilling to file", batch.get(0).getId(),
+                        batch.get(0).getClientId(), e);
+                spill(batch.get(0));
+                return;
+            }
+            log.error("Failed to write consent history batch of size {}, writing individually", batch.size(), e);
+            for(ConsentHistory consentHistory : batch) {
+                flush(List.of(consentHistory));
+            }
+        }
+    }
+
+    private void validateSpillFile() {
+        if(spillFile.isBlank()) {
+            log.error("Consent history spill file is not configured (mosip.esignet.consent.history.spill-file), " +
+                    "consent history rows failing to insert will be lost");
+            return;
+        }
+        Path directory = Path.of(spillFile).toAbsolutePath().getParent();
+        try {
+            Files.createDirectories(directory);
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to create consent history spill directory: " + directory, e);
+        }
+        if(!Files.isWritable(directory))
+            throw new IllegalStateException("Consent history spill directory is not writable: " + directory);
+    }
+
+    private void spill(ConsentHistory consentHistory) {
+        if(spillFile.isBlank()) {
+            log.error("Lost consent history id: {} client: {}, spill file is not configured", consentHistory.getId(),
+                    consentHistory.getClientId());
+            Metrics.counter("esignet.consent.history.lost").increment();
+            return;
+        }
+        try {
+            String line = objectMapper.writeValueAsString(consentHistory) + System.lineSeparator();
+            synchronized (spillLock) {
+                Files.writeString(Path.of(spillFile), line, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                        StandardOpenOption.APPEND, StandardOpenOption.SYNC);
+            }
+            Metrics.counter("esignet.consent.history.spilled").increment();
+        } catch (Exception e) {
+            log.error("Failed to spill consent history id: {} client: {}", consentHistory.getId(),
+                    consentHistory.getClientId(), e);
+        }
+    }
+
+    /**
+     * Spill file is renamed before the replay so that the rows failing during the replay are spilled to a new file.
+     * File left by an interrupted replay is replayed first.
+     */
+    void replaySpilled() {
+        if(spillFile.isBlank())
+            return;
+        Path replayFile = Path.of(spillFile + ".replay");
+        try {
+            synchronized (spillLock) {
+                if(Files.notExists(replayFile)) {
+                    if(Files.notExists(Path.of(spillFile)))
+                        return;
+                    Files.move(Path.of(spillFile), replayFile, StandardCopyOption.ATOMIC_MOVE);
+                }
+            }
+            int count = 0;
+            List<ConsentHistory> batch = new ArrayList<>(batchSize);
+            try(BufferedReader reader = Files.newBufferedReader(replayFile, StandardCharsets.UTF_8)) {
+                String line;
+                while((line = reader.readLine()) != null) {
+                    if(line.isBlank())
+                        continue;
+                    try {
+                        batch.add(objectMapper.readValue(line, ConsentHistory.class));
+                    } catch (JsonProcessingException e) {
+                        log.error("Skipping unreadable spilled consent history row: {}", line, e);
+                        continue;
+                    }
+                    count++;
+                    if(batch.size() == batchSize) {
+                        flush(batch);
+                        batch.clear();
+                    }
+                }
+            }
+            if(!batch.isEmpty())
+                flush(batch);
+            Files.delete(replayFile);
+            log.info("Replayed {} spilled consent history rows", count);
+        } catch (Exception e) {
+            log.error("Failed to replay spilled consent history rows", e);
+        }
+    }
+
+    private void insert(List<ConsentHistory> batch) {
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(INSERT_CONSENT_HISTORY, batch, batch.size(), (ps, consentHistory) -> {
+                    ps.setString(1, consentHistory.getId());
+                    ps.setString(2, consentHistory.getClientId());
+                    ps.setString(3, consentHistory.getPsuToken());
+                    ps.setString(4, consentHistory.getClaims());
+                    ps.setString(5, consentHistory.getAuthorizationScopes());
+                    ps.setTimestamp(6, toTimestamp(consentHistory.getCreatedtimes()));
+                    ps.setTimestamp(7, toTimestamp(consentHistory.getExpiredtimes()));
+                    ps.setString(8, consentHistory.getSignature());
+                    ps.setString(9, consentHistory.getHash());
+                    ps.setString(10, consentHistory.getAcceptedClaims());
+                    ps.setString(11, consentHistory.getPermittedScopes());
+                }));
+    }
+
+    private Timestamp toTimestamp(LocalDateTime dateTime) {
+        return dateTime == null ? null : Timestamp.valueOf(dateTime);
+    }
+}
@@ -9,6 +9,7 @@ package io.mosip.esignet.services;
 import io.mosip.esignet.api.spi.AuditPlugin;
 import io.mosip.esignet.api.util.Action;
 import io.mosip.esignet.api.util.ActionStatus;
+import io.mosip.esignet.core.constants.Constants;
 import io.mosip.esignet.core.dto.ConsentDetail;
 import io.mosip.esignet.core.dto.UserConsent;
 import io.mosip.esignet.core.dto.UserConsentRequest;
@@ -16,13 +17,16 @@ import io.mosip.esignet.core.spi.ConsentService;
 import io.mosip.esignet.core.util.AuditHelper;
 import io.mosip.esignet.entity.ConsentHistory;
 import io.mosip.esignet.mapper.ConsentMapper;
-import io.mosip.esignet.repository.ConsentHistoryRepository;
 import io.mosip.esignet.repository.ConsentRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import jakarta.transaction.Transactional;
 import java.time.LocalDateTime;
@@ -38,7 +42,7 @@ public class ConsentServiceImpl implements ConsentService {
     private  ConsentRepository consentRepository;
 
     @Autowired
-    private ConsentHistoryRepository consentHistoryRepository;
+    private ConsentHistoryWriter consentHistoryWriter;
 
     @Autowired
     private AuditPlugin auditWrapper;
@@ -49,7 +53,12 @@ public class ConsentServiceImpl implements ConsentService {
     @Autowired
     private ConsentMapper consentMapper;
 
+    @Autowired
+    private CacheManager cacheManager;
+
     @Override
+    @Cacheable(value = Constants.USER_CONSENT_CACHE, key = "#userConsentRequest.getClientId() + ':' + #userConsentRequest.getPsuToken()",
+            unless = "#result == null")
     public Optional<ConsentDetail> getUserConsent(UserConsentRequest userConsentRequest) {
 
         Optional<io.mosip.esignet.entity.ConsentDetail> consentOptional = consentRepository.
@@ -69,27 +78,30 @@ public class ConsentServiceImpl implements ConsentService {
     @Override
     @Transactional
     public ConsentDetail saveUserConsent(UserConsent userConsent) {
-        Optional<io.mosip.esignet.entity.ConsentDetail> clientDetailOptional =
-                consentRepository.findByClientIdAndPsuToken(userConsent.getClientId(), userConsent.getPsuToken());
-        if(clientDetailOptional.isPresent()) {
-            consentRepository.deleteByClientIdAndPsuToken(userConsent.getClientId(), userConsent.getPsuToken());
-            consentRepository.flush();
-        }
         LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
         //convert ConsentRequest to Entity
         ConsentHistory consentHistory = consentMapper.toConsentHistoryEntity(userConsent);
         consentHistory.setId(UUID.randomUUID().toString());
         consentHistory.setCreatedtimes(now);
-        consentHistoryRepository.save(consentHistory);
+        consentHistoryWriter.write(consentHistory);
 
         io.mosip.esignet.entity.ConsentDetail consentDetail = consentMapper.toEntity(userConsent);
-        consentDetail.setId(UUID.randomUUID().toString());
         consentDetail.setCreatedtimes(now);
+        //existing consent is replaced in place, inserted only if there is no consent for the client and psu token
+        if(consentRepository.updateByClientIdAndPsuToken(consentDetail) == 0) {
+            consentDetail.setId(UUID.randomUUID().toString());
+            consentDetail = consentRepository.save(consentDetail);
+        } else {
+            //update retains the id of the existing consent
+            consentDetail.setId(consentRepository.findIdByClientIdAndPsuToken(userConsent.getClientId(),
+                    userConsent.getPsuToken()).orElse(null));
+        }
 
-        ConsentDetail consentDetailDto = consentMapper.toDto(consentRepository.save(consentDetail));
+        ConsentDetail consentDetailDto = consentMapper.toDto(consentDetail);
         auditWrapper.logAudit(AuditHelper.getClaimValue(SecurityContextHolder.getContext(), claimName),
                 Action.SAVE_USER_CONSENT, ActionStatus.SUCCESS,
                 AuditHelper.buildAuditDto(userConsent.getClientId()), null);
+        evictUserConsentAfterCommit(userConsent.getClientId(), userConsent.getPsuToken());
         return consentDetailDto;
     }
 
@@ -97,5 +109,24 @@ public class ConsentServiceImpl implements ConsentService {
     @Transactional
     public void deleteUserConsent(String clientId, String psuToken) {
         consentRepository.deleteByClientIdAndPsuToken(clientId, psuToken);
+        evictUserConsentAfterCommit(clientId, psuToken);
+    }
+
+    /**
+     * Cached consent is evicted only after the transaction commits, evicting before the commit lets a concurrent read
+     * cache the consent that is being replaced till the cache TTL. Nothing is evicted if the transaction rolls back.
+     */
+    private void evictUserConsentAfterCommit(String clientId, String psuToken) {
+        String key = clientId + ':' + psuToken;
+        if(TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cacheManager.getCache(Constants.USER_CONSENT_CACHE).evict(key); //NOSONAR getCache() will not be returning null here.
+                }
+            });
+            return;
+        }
+        cacheManager.getCache(Constants.USER_CONSENT_CACHE).evict(key); //NOSONAR getCache() will not be returning null here.
     }
 }
@@ -197,4 +197,41 @@ public class ConsentDetailRepositoryTest {
         Assertions.assertFalse(consentDetailOptional.isPresent());
     }
 
+    @Test
+    public void updateConsent_withExistingConsent_thenPass() {
+        ConsentDetail consentDetail = new ConsentDetail();
+        consentDetail.setId(UUID.randomUUID().toString());
+        consentDetail.setClientId("123");
+        consentDetail.setPsuToken("abc");
+        consentDetail.setClaims("claims");
+        consentDetail.setAuthorizationScopes("authorizationScopes");
+        consentDetail.setCreatedtimes(LocalDateTime.of(2019, 12, 12, 12, 12, 12));
+        consentDetail.setSignature("signature");
+        consentDetail.setHash("hash");
+        consentRepository.saveAndFlush(consentDetail);
+
+        ConsentDetail updatedConsent = new ConsentDetail();
+        updatedConsent.setClientId("123");
+        updatedConsent.setPsuToken("abc");
+        updatedConsent.setClaims("updated-claims");
+        updatedConsent.setAuthorizationScopes("updated-authorizationScopes");
+        updatedConsent.setCreatedtimes(LocalDateTime.now());
+        updatedConsent.setSignature("updated-signature");
+        updatedConsent.setHash("updated-hash");
+        updatedConsent.setAcceptedClaims("claim");
+        updatedConsent.setPermittedScopes("scope");
+        Assertions.assertEquals(1, consentRepository.updateByClientIdAndPsuToken(updatedConsent));
+
+        Optional<ConsentDetail> result = consentRepository.findByClientIdAndPsuToken("123", "abc");
+        Assertions.assertTrue(result.isPresent());
+        Assertions.assertEquals(consentDetail.getId(), result.get().getId());
+        Assertions.assertEquals("updated-claims", result.get().getClaims());
+        Assertions.assertEquals("updated-signature", result.get().getSignature());
+        Assertions.assertEquals("scope", result.get().getPermittedScopes());
+        Assertions.assertEquals(Optional.of(consentDetail.getId()), consentRepository.findIdByClientIdAndPsuToken("123", "abc"));
+
+        updatedConsent.setPsuToken("abcd");
+        Assertions.assertEquals(0, consentRepository.updateByClientIdAndPsuToken(updatedConsent));
+    }
+
 }
@@ -0,0 +1,233 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet;
+
+import io.mosip.esignet.entity.ConsentHistory;
+import io.mosip.esignet.services.ConsentHistoryWriter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+
+public class ConsentHistoryWriterTest {
+
+    private ConsentHistoryWriter consentHistoryWriter;
+    private JdbcTemplate jdbcTemplate;
+    private PlatformTransactionManager transactionManager;
+    private List<Integer> batchSizes;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    public void setUp() {
+        jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+        transactionManager = Mockito.mock(PlatformTransactionManager.class);
+        batchSizes = new CopyOnWriteArrayList<>();
+        Mockito.when(jdbcTemplate.batchUpdate(anyString(), any(Collection.class), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class))).thenAnswer(invocation -> {
+                    batchSizes.add(invocation.getArgument(1, Collection.class).size());
+                    return new int[0][0];
+                });
+
+        consentHistoryWriter = new ConsentHistoryWriter();
+        ReflectionTestUtils.setField(consentHistoryWriter, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(consentHistoryWriter, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(consentHistoryWriter, "queueCapacity", 100);
+        ReflectionTestUtils.setField(consentHistoryWriter, "batchSize", 5);
+        ReflectionTestUtils.setField(consentHistoryWriter, "flushIntervalMs", 100L);
+        ReflectionTestUtils.setField(consentHistoryWriter, "enqueueTimeoutMs", 10L);
+        ReflectionTestUtils.setField(consentHistoryWriter, "spillFile", tempDir.resolve("consent-history.spill").toString());
+        ReflectionTestUtils.setField(consentHistoryWriter, "spillReplayIntervalMs", 60000L);
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        if(ReflectionTestUtils.getField(consentHistoryWriter, "writerThread") != null)
+            consentHistoryWriter.shutdown();
+    }
+
+    @Test
+    public void write_withBatchSizeRows_thenBatchInserted() {
+        ReflectionTestUtils.setField(consentHistoryWriter, "flushIntervalMs", 5000L);
+        consentHistoryWriter.init();
+        for(int i=0; i<5; i++) {
+            consentHistoryWriter.write(getConsentHistory());
+        }
+        Mockito.verify(jdbcTemplate, Mockito.timeout(2000)).batchUpdate(anyString(), any(Collection.class), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        Assertions.assertEquals(List.of(5), batchSizes);
+    }
+
+    @Test
+    public void write_withPartialBatch_thenFlushedAfterInterval() {
+        ReflectionTestUtils.setField(consentHistoryWriter, "flushIntervalMs", 500L);
+        consentHistoryWriter.init();
+        consentHistoryWriter.write(getConsentHistory());
+        consentHistoryWriter.write(getConsentHistory());
+        Mockito.verify(jdbcTemplate, Mockito.timeout(2000)).batchUpdate(anyString(), any(Collection.class), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        Assertions.assertEquals(List.of(2), batchSizes);
+    }
+
+    @Test
+    public void write_withFullQueue_thenWrittenSynchronously() {
+        ArrayBlockingQueue<ConsentHistory> queue = new ArrayBlockingQueue<>(1);
+        queue.add(getConsentHistory());
+        ReflectionTestUtils.setField(consentHistoryWriter, "queue", queue);
+        ReflectionTestUtils.setField(consentHistoryWriter, "transactionTemplate", new TransactionTemplate(transactionManager));
+        ReflectionTestUtils.setField(consentHistoryWriter, "running", true);
+
+        consentHistoryWriter.write(getConsentHistory());
+        Assertions.assertEquals(List.of(1), batchSizes);
+        Assertions.assertEquals(1, queue.size());
+    }
+
+    @Test
+    public void write_afterShutdown_thenWrittenSynchronously() throws InterruptedException {
+        consentHistoryWriter.init();
+        consentHistoryWriter.shutdown();
+        consentHistoryWriter.write(getConsentHistory());
+        Assertions.assertEquals(List.of(1), batchSizes);
+    }
+
+    @Test
+    public void shutdown_withFailedBatch_thenRowsWrittenIndividually() throws InterruptedException {
+        Mockito.doAnswer(invocation -> {
+            int size = invocation.getArgument(1, Collection.class).size();
+            batchSizes.add(size);
+            if(size > 1)
+                throw new RuntimeException("batch failed");
+            return new int[0][0];
+        }).when(jdbcTemplate).batchUpdate(anyString(), any(Collection.class), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        ArrayBlockingQueue<ConsentHistory> queue = new ArrayBlockingQueue<>(10);
+        for(int i=0; i<3; i++) {
+            queue.add(getConsentHistory());
+        }
+        ReflectionTestUtils.setField(consentHistoryWriter, "queue", queue);
+        ReflectionTestUtils.setField(consentHistoryWriter, "transactionTemplate", new TransactionTemplate(transactionManager));
+        ReflectionTestUtils.setField(consentHistoryWriter, "writerThread", new Thread(() -> {}));
+
+        consentHistoryWriter.shutdown();
+        Assertions.assertEquals(List.of(3, 1, 1, 1), batchSizes);
+        Assertions.assertTrue(queue.isEmpty());
+        ReflectionTestUtils.setField(consentHistoryWriter, "writerThread", null);
+    }
+
+    @Test
+    public void write_withFailedInsert_thenSpilledAndReplayed() throws Exception {
+        Mockito.doThrow(new RecoverableDataAccessException("connection failure")).when(jdbcTemplate).batchUpdate(anyString(),
+                any(Collection.class), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+        ReflectionTestUtils.setField(consentHistoryWriter, "queue", new ArrayBlockingQueue<>(1));
+        ReflectionTestUtils.setField(consentHistoryWriter, "transactionTemplate", new TransactionTemplate(transactionManager));
+        ConsentHistory consentHistory = getConsentHistory();
+
+        consentHistoryWriter.write(consentHistory);
+        Path spillFile = tempDir.resolve("consent-history.spill");
+        Assertions.assertEquals(1, Files.readAllLines(spillFile).size());
+        Assertions.assertTrue(Files.readString(spillFile).contains(consentHistory.getId()));
+
+        List<String> replayedIds = new CopyOnWriteArrayList<>();
+        Mockito.doAnswer(invocation -> {
+            invocation.getArgument(1, Collection.class).forEach(row -> replayedIds.add(((ConsentHistory) row).getId()));
+            return new int[0][0];
+        }).when(jdbcTemplate).batchUpdate(anyString(), any(Collection.class), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        consentHistoryWriter.replaySpilled();
+        Assertions.assertEquals(List.of(consentHistory.getId()), replayedIds);
+        Assertions.assertFalse(Files.exists(spillFile));
+        Assertions.assertFalse(Files.exists(tempDir.resolve("consent-history.spill.replay")));
+    }
+
+    @Test
+    public void replaySpilled_withAlreadyWrittenRow_thenSkipped() throws Exception {
+        Mockito.doThrow(new DuplicateKeyException("duplicate id")).when(jdbcTemplate).batchUpdate(anyString(),
+                any(Collection.class), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+        ReflectionTestUtils.setField(consentHistoryWriter, "transactionTemplate", new TransactionTemplate(transactionManager));
+        //left by an interrupted replay
+        Files.writeString(tempDir.resolve("consent-history.spill.replay"), "{\"id\":\"id-1\",\"clientId\":\"123\"," +
+                "\"psuToken\":\"abc\",\"claims\":\"claims\",\"authorizationScopes\":\"scopes\"," +
+                "\"createdtimes\":[2024,1,1,10,0,0]}" + System.lineSeparator());
+
+        consentHistoryWriter.replaySpilled();
+        Assertions.assertFalse(Files.exists(tempDir.resolve("consent-history.spill.replay")));
+        Assertions.assertFalse(Files.exists(tempDir.resolve("consent-history.spill")));
+    }
+
+    @Test
+    public void init_withSpilledRows_thenReplayedByReplayThread() throws Exception {
+        Path spillFile = tempDir.resolve("consent-history.spill");
+        Files.writeString(spillFile, "{\"id\":\"id-1\",\"clientId\":\"123\",\"psuToken\":\"abc\"," +
+                "\"claims\":\"claims\",\"authorizationScopes\":\"scopes\"}" + System.lineSeparator());
+        ReflectionTestUtils.setField(consentHistoryWriter, "flushIntervalMs", 5000L);
+        consentHistoryWriter.init();
+
+        Mockito.verify(jdbcTemplate, Mockito.timeout(2000)).batchUpdate(anyString(), any(Collection.class), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        Assertions.assertEquals(List.of(1), batchSizes);
+        for(int i = 0; i < 100 && Files.exists(spillFile); i++) {
+            Thread.sleep(20);
+        }
+        Assertions.assertFalse(Files.exists(spillFile));
+    }
+
+    @Test
+    public void init_withUnwritableSpillDirectory_thenFail() throws Exception {
+        Path notDirectory = Files.createFile(tempDir.resolve("not-a-directory"));
+        ReflectionTestUtils.setField(consentHistoryWriter, "spillFile", notDirectory.resolve("consent-history.spill").toString());
+
+        Assertions.assertThrows(IllegalStateException.class, () -> consentHistoryWriter.init());
+    }
+
+    @Test
+    public void write_withFailedInsertAndNoSpillFile_thenNotSpilled() throws Exception {
+        Mockito.doThrow(new RecoverableDataAccessException("connection failure")).when(jdbcTemplate).batchUpdate(anyString(),
+                any(Collection.class), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+        ReflectionTestUtils.setField(consentHistoryWriter, "spillFile", "");
+        ReflectionTestUtils.setField(consentHistoryWriter, "queue", new ArrayBlockingQueue<>(1));
+        ReflectionTestUtils.setField(consentHistoryWriter, "transactionTemplate", new TransactionTemplate(transactionManager));
+
+        consentHistoryWriter.write(getConsentHistory());
+        consentHistoryWriter.replaySpilled();
+        try(var files = Files.list(tempDir)) {
+            Assertions.assertEquals(0, files.count());
+        }
+    }
+
+    private ConsentHistory getConsentHistory() {
+        ConsentHistory consentHistory = new ConsentHistory();
+        consentHistory.setId(UUID.randomUUID().toString());
+        consentHistory.setClientId("123");
+        consentHistory.setPsuToken("abc");
+        consentHistory.setClaims("claims");
+        consentHistory.setAuthorizationScopes("authorizationScopes");
+        consentHistory.setCreatedtimes(LocalDateTime.now());
+        return consentHistory;
+    }
+}
@@ -8,14 +8,15 @@ package io.mosip.esignet;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.mosip.esignet.api.dto.claim.Claims;
 import io.mosip.esignet.api.spi.AuditPlugin;
+import io.mosip.esignet.core.constants.Constants;
 import io.mosip.esignet.core.dto.UserConsent;
 import io.mosip.esignet.core.dto.UserConsentRequest;
 import io.mosip.esignet.core.exception.EsignetException;
 import io.mosip.esignet.entity.ConsentDetail;
 import io.mosip.esignet.entity.ConsentHistory;
 import io.mosip.esignet.mapper.ConsentMapperImpl;
-import io.mosip.esignet.repository.ConsentHistoryRepository;
 import io.mosip.esignet.repository.ConsentRepository;
+import io.mosip.esignet.services.ConsentHistoryWriter;
 import io.mosip.esignet.services.ConsentServiceImpl;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.Assertions;
@@ -26,13 +27,16 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
 import java.util.*;
 
 import static io.mosip.esignet.core.constants.ErrorConstants.INVALID_CLAIM;
-import static org.mockito.Mockito.doNothing;
 
 @Slf4j
 @ExtendWith(MockitoExtension.class)
@@ -43,11 +47,17 @@ public class ConsentServiceImplTest {
     ConsentRepository consentRepository;
 
     @Mock
-    ConsentHistoryRepository consentHistoryRepository;
+    ConsentHistoryWriter consentHistoryWriter;
 
     @Mock
     AuditPlugin auditWrapper;
 
+    @Mock
+    CacheManager cacheManager;
+
+    @Mock
+    Cache cache;
+
     @InjectMocks
     ConsentServiceImpl consentService;
 
@@ -160,12 +170,15 @@ public class ConsentServiceImplTest {
         consentDetail.setPsuToken("psuValue");
         consentDetail.setExpiredtimes(LocalDateTime.now());
 
+        Mockito.when(consentRepository.updateByClientIdAndPsuToken(Mockito.any())).thenReturn(0);
         Mockito.when(consentRepository.save(Mockito.any())).thenReturn(consentDetail);
-        Mockito.when(consentHistoryRepository.save(Mockito.any())).thenReturn(new ConsentHistory());
-        Mockito.when(consentRepository.findByClientIdAndPsuToken(Mockito.any(), Mockito.any())).thenReturn(Optional.empty());
+        Mockito.when(cacheManager.getCache(Constants.USER_CONSENT_CACHE)).thenReturn(cache);
         io.mosip.esignet.core.dto.ConsentDetail userConsentDtoDetail = consentService.saveUserConsent(userConsent);
         Assertions.assertNotNull(userConsentDtoDetail);
         Assertions.assertEquals("1234", userConsentDtoDetail.getClientId());
+        Assertions.assertEquals(consentDetail.getId(), userConsentDtoDetail.getId());
+        Mockito.verify(consentHistoryWriter).write(Mockito.any(ConsentHistory.class));
+        Mockito.verify(cache).evict("1234:psuValue");
 
     }
 
@@ -202,21 +215,17 @@ public class ConsentServiceImplTest {
         userConsent.setExpiredtimes(LocalDateTime.now());
         userConsent.setSignature("signature");
 
-        ConsentDetail consentDetail = new ConsentDetail();
-        consentDetail.setId(UUID.randomUUID().toString());
-        consentDetail.setClientId("1234");
-        consentDetail.setClaims("{\"userinfo\":{\"given_name\":[{\"essential\":true}],\"phone_number\":null,\"email\":[{\"essential\":true}],\"picture\":[{\"essential\":false}],\"gender\":[{\"essential\":false}]},\"id_token\":{}}");
-        consentDetail.setCreatedtimes(LocalDateTime.now());
-        consentDetail.setPsuToken("psuValue");
-        consentDetail.setExpiredtimes(LocalDateTime.now());
-
-        Mockito.when(consentRepository.save(Mockito.any())).thenReturn(consentDetail);
-        Mockito.when(consentHistoryRepository.save(Mockito.any())).thenReturn(new ConsentHistory());
-        Mockito.when(consentRepository.findByClientIdAndPsuToken(Mockito.any(), Mockito.any())).thenReturn(Optional.of(consentDetail));
-        doNothing().when(consentRepository).deleteByClientIdAndPsuToken(Mockito.any(), Mockito.any());
+        Mockito.when(consentRepository.updateByClientIdAndPsuToken(Mockito.any())).thenReturn(1);
+        Mockito.when(consentRepository.findIdByClientIdAndPsuToken("1234", "psuValue")).thenReturn(Optional.of("existing-consent-id"));
+        Mockito.when(cacheManager.getCache(Constants.USER_CONSENT_CACHE)).thenReturn(cache);
         io.mosip.esignet.core.dto.ConsentDetail userConsentDtoDetail = consentService.saveUserConsent(userConsent);
         Assertions.assertNotNull(userConsentDtoDetail);
+        Assertions.assertEquals("existing-consent-id", userConsentDtoDetail.getId());
         Assertions.assertEquals("1234", userConsentDtoDetail.getClientId());
+        Mockito.verify(consentHistoryWriter).write(Mockito.any(ConsentHistory.class));
+        Assertions.assertEquals("psuValue", userConsentDtoDetail.getPsuToken());
+        Mockito.verify(consentRepository, Mockito.never()).save(Mockito.any());
+        Mockito.verify(consentRepository, Mockito.never()).deleteByClientIdAndPsuToken(Mockito.any(), Mockito.any());
 
     }
 
@@ -224,8 +233,25 @@ public class ConsentServiceImplTest {
     public void deleteConsentByClientIdAndPsuToken_thenPass() {
         String clientId = "test-client-id";
         String psuToken = "test-psu-token";
+        Mockito.when(cacheManager.getCache(Constants.USER_CONSENT_CACHE)).thenReturn(cache);
         consentService.deleteUserConsent(clientId, psuToken);
         Mockito.verify(consentRepository).deleteByClientIdAndPsuToken(clientId, psuToken);
+        Mockito.verify(cache).evict("test-client-id:test-psu-token");
+    }
+
+    @Test
+    public void deleteConsent_withActiveTransaction_thenEvictedOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            consentService.deleteUserConsent("test-client-id", "test-psu-token");
+            Mockito.verifyNoInteractions(cacheManager);
+
+            Mockito.when(cacheManager.getCache(Constants.USER_CONSENT_CACHE)).thenReturn(cache);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            Mockito.verify(cache).evict("test-client-id:test-psu-token");
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
     }
 
 
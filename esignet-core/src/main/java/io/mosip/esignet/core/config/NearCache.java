@@ -0,0 +1,191 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.core.config;
+
+import com.google.common.cache.CacheBuilder;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.BiConsumer;
+
+/**
+ * In-process L1 cache in front of a shared (redis) cache. Reads are served locally when present, all writes and
+ * evictions go to the shared cache first, then the local entry is dropped and the change is published so that the
+ * other nodes drop their local copy as well.
+ *
+ * Values are kept locally in the serialized form and deserialized on every read, callers modifying the returned value
+ * do not change the locally cached value. Every local invalidation bumps the version of the key stripe, a value read from
+ * the shared cache is not kept locally if an invalidation of its stripe happened during the read.
+ */
+public class NearCache implements Cache {
+
+    private static final int VERSION_STRIPES = 64;
+
+    private final Cache delegate;
+    private final com.google.common.cache.Cache<String, ByteBuffer> localCache;
+    private final BiConsumer<String, String> invalidationPublisher;
+    private final SerializationPair<Object> valueSerializationPair;
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+
+    public NearCache(Cache delegate, int expireInSeconds, int maxSize, BiConsumer<String, String> invalidationPublisher) {
+        this(delegate, expireInSeconds, maxSize, invalidationPublisher, SerializationPair.fromSerializer(RedisSerializer.java()));
+    }
+
+    public NearCache(Cache delegate, int expireInSeconds, int maxSize, BiConsumer<String, String> invalidationPublisher,
+                     SerializationPair<Object> valueSerializationPair) {
+        this.delegate = delegate;
+        this.invalidationPublisher = invalidationPublisher;
+        this.valueSerializationPair = valueSerializationPair;
+        this.localCache = CacheBuilder.newBuilder()
+                .expireAfterWrite(expireInSeconds, TimeUnit.SECONDS)
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = String.valueOf(key);
+        Object value = getLocal(localKey);
+        if(value != null)
+            return new SimpleValueWrapper(value);
+
+        long version = versions.get(stripe(localKey));
+        ValueWrapper valueWrapper = delegate.get(key);
+        if(valueWrapper != null && valueWrapper.get() != null) {
+            putLocal(localKey, valueWrapper.get(), version);
+        }
+        return valueWrapper;
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper valueWrapper = get(key);
+        Object value = valueWrapper != null ? valueWrapper.get() : null;
+        if(value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String localKey = String.valueOf(key);
+        Object localValue = getLocal(localKey);
+        if(localValue != null)
+            return (T) localValue;
+
+        long version = versions.get(stripe(localKey));
+        T value = delegate.get(key, valueLoader);
+        if(value != null) {
+            putLocal(localKey, value, version);
+        }
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value);
+        invalidate(key);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existingValue = delegate.putIfAbsent(key, value);
+        invalidate(key);
+        return existingValue;
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+        invalidate(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean evicted = delegate.evictIfPresent(key);
+        invalidate(key);
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+        clearLocal();
+        invalidationPublisher.accept(getName(), null);
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean invalidated = delegate.invalidate();
+        clearLocal();
+        invalidationPublisher.accept(getName(), null);
+        return invalidated;
+    }
+
+    public Cache getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Drops the local entry and notifies the other nodes, to be used when the shared cache entry is changed
+     * without going through this cache.
+     */
+    public void invalidate(Object key) {
+        evictLocal(String.valueOf(key));
+        invalidationPublisher.accept(getName(), String.valueOf(key));
+    }
+
+    public void evictLocal(String key) {
+        versions.incrementAndGet(stripe(key));
+        localCache.invalidate(key);
+    }
+
+    public void clearLocal() {
+        for(int i = 0; i < VERSION_STRIPES; i++) {
+            versions.incrementAndGet(i);
+        }
+        localCache.invalidateAll();
+    }
+
+    private Object getLocal(String key) {
+        ByteBuffer value = localCache.getIfPresent(key);
+        return value == null ? null : valueSerializationPair.read(value.duplicate());
+    }
+
+    /**
+     * Keeps the value read from the shared cache only if no invalidation of the key stripe happened since the read
+     * started. Version is checked again after the put, as an invalidation can run between the check and the put.
+     */
+    private void putLocal(String key, Object value, long version) {
+        int stripe = stripe(key);
+        if(versions.get(stripe) != version)
+            return;
+        localCache.put(key, valueSerializationPair.write(value).asReadOnlyBuffer());
+        if(versions.get(stripe) != version)
+            localCache.invalidate(key);
+    }
+
+    private int stripe(String key) {
+        return (key.hashCode() & Integer.MAX_VALUE) % VERSION_STRIPES;
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.core.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.RedisCacheManagerBuilderCustomizer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Replaces the auto-configured redis cache manager with {@link NearCacheManager} when near-cache is enabled.
+ * Redis cache manager is built the same way spring boot does it, so that the TTL per cache configured in
+ * {@link RedisCacheConfig} still applies.
+ */
+@ConditionalOnExpression("'${spring.cache.type}' == 'redis' && ${mosip.esignet.cache.near-cache.enabled:false}")
+@Configuration
+public class NearCacheConfig {
+
+    @Value("${mosip.esignet.cache.names}")
+    private List<String> cacheNames;
+
+    @Value("${mosip.esignet.cache.near-cache.names:preauth,authenticated,authcodegenerated,userinfo,clientdetails}")
+    private List<String> nearCacheNames;
+
+    @Value("${mosip.esignet.cache.near-cache.expire-in-seconds:5}")
+    private int expireInSeconds;
+
+    @Value("${mosip.esignet.cache.near-cache.size:1000}")
+    private int maxSize;
+
+    @Value("${mosip.esignet.cache.near-cache.invalidation-channel:${mosip.esignet.cache.keyprefix}:near-cache-invalidation}")
+    private String invalidationChannel;
+
+    @Bean
+    public CacheManager cacheManager(RedisConnectionFactory redisConnectionFactory,
+                                     ObjectProvider<RedisCacheManagerBuilderCustomizer> customizers,
+                                     StringRedisTemplate stringRedisTemplate,
+                                     RedisMessageListenerContainer redisMessageListenerContainer) {
+        RedisCacheManager.RedisCacheManagerBuilder builder = RedisCacheManager.builder(redisConnectionFactory)
+                .cacheDefaults(RedisCacheConfiguration.defaultCacheConfig())
+                .initialCacheNames(new LinkedHashSet<>(cacheNames));
+        customizers.orderedStream().forEach(customizer -> customizer.customize(builder));
+        RedisCacheManager redisCacheManager = builder.build();
+        redisCacheManager.initializeCaches();
+
+        NearCacheManager nearCacheManager = new NearCacheManager(redisCacheManager, new HashSet<>(nearCacheNames),
+                expireInSeconds, maxSize, stringRedisTemplate, invalidationChannel);
+        redisMessageListenerContainer.addMessageListener(nearCacheManager, new ChannelTopic(invalidationChannel));
+        return nearCacheManager;
+    }
+}
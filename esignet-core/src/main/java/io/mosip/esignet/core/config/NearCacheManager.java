@@ -0,0 +1,97 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.core.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Wraps the configured near-cache names of the delegate cache manager with {@link NearCache}.
+ * Invalidations are exchanged between the nodes over redis pub/sub, message format is nodeId|cacheName|key,
+ * an empty key denotes clear of the whole cache. Messages published by this node are ignored.
+ */
+@Slf4j
+public class NearCacheManager implements CacheManager, MessageListener {
+
+    private static final String SEPARATOR = "|";
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ConcurrentMap<String, NearCache> nearCaches = new ConcurrentHashMap<>();
+
+    private final CacheManager delegate;
+    private final Set<String> nearCacheNames;
+    private final int expireInSeconds;
+    private final int maxSize;
+    private final StringRedisTemplate redisTemplate;
+    private final String invalidationChannel;
+
+    public NearCacheManager(CacheManager delegate, Set<String> nearCacheNames, int expireInSeconds, int maxSize,
+                            StringRedisTemplate redisTemplate, String invalidationChannel) {
+        this.delegate = delegate;
+        this.nearCacheNames = nearCacheNames;
+        this.expireInSeconds = expireInSeconds;
+        this.maxSize = maxSize;
+        this.redisTemplate = redisTemplate;
+        this.invalidationChannel = invalidationChannel;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache cache = delegate.getCache(name);
+        if(cache == null || !nearCacheNames.contains(name))
+            return cache;
+        //local values are kept in the same serialized form as in redis
+        SerializationPair<Object> valueSerializationPair = cache instanceof RedisCache redisCache ?
+                redisCache.getCacheConfiguration().getValueSerializationPair() :
+                SerializationPair.fromSerializer(RedisSerializer.java());
+        return nearCaches.computeIfAbsent(name, cacheName -> new NearCache(cache, expireInSeconds, maxSize,
+                this::publishInvalidation, valueSerializationPair));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 3);
+        if(parts.length != 3 || nodeId.equals(parts[0]))
+            return;
+
+        NearCache nearCache = nearCaches.get(parts[1]);
+        if(nearCache == null)
+            return;
+
+        if(parts[2].isEmpty())
+            nearCache.clearLocal();
+        else
+            nearCache.evictLocal(parts[2]);
+    }
+
+    private void publishInvalidation(String cacheName, String key) {
+        try {
+            redisTemplate.convertAndSend(invalidationChannel, String.join(SEPARATOR, nodeId, cacheName,
+                    key == null ? "" : key));
+        } catch (Exception e) {
+            log.error("Failed to publish near-cache invalidation for cache: {}", cacheName, e);
+        }
+    }
+}
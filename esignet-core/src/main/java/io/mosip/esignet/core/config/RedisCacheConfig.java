@@ -1,14 +1,19 @@
 package io.mosip.esignet.core.config;
 
+import io.mosip.esignet.core.util.CacheValueSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.cache.RedisCacheManagerBuilderCustomizer;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
 
 import java.time.Duration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @ConditionalOnProperty(value = "spring.cache.type", havingValue = "redis")
@@ -21,18 +26,35 @@ public class RedisCacheConfig {
     @Value("${mosip.esignet.cache.keyprefix}")
     private String keyPrefix;
 
+    @Value("${mosip.esignet.cache.serializer.write-format:jdk}")
+    private String serializerWriteFormat;
+
+    @Value("${mosip.esignet.cache.serializer.jdk-only-caches:halted}")
+    private List<String> jdkOnlyCacheNames;
+
     @Bean
     public RedisCacheManagerBuilderCustomizer redisCacheManagerBuilderCustomizer() {
+        RedisSerializationContext.SerializationPair<Object> valueSerializationPair = RedisSerializationContext
+                .SerializationPair.fromSerializer(new CacheValueSerializer(serializerWriteFormat));
         return (builder) -> {
             Map<String, RedisCacheConfiguration> configurationMap = new HashMap<>();
             cacheNamesWithTTLMap.forEach((cacheName, ttl) -> {
-                configurationMap.put(cacheName, RedisCacheConfiguration
+                RedisCacheConfiguration cacheConfiguration = RedisCacheConfiguration
                                 .defaultCacheConfig()
                                 .disableCachingNullValues()
                                 .prefixCacheNameWith(keyPrefix+":")
-                                .entryTtl(Duration.ofSeconds(ttl)));
+                                .entryTtl(Duration.ofSeconds(ttl));
+                configurationMap.put(cacheName, jdkOnlyCacheNames.contains(cacheName) ? cacheConfiguration :
+                        cacheConfiguration.serializeValuesWith(valueSerializationPair));
             });
             builder.withInitialCacheConfigurations(configurationMap);
         };
     }
+
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory redisConnectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        return container;
+    }
 }
@@ -62,6 +62,12 @@ public class Constants {
 
     public static final String PAR_REQUEST_URI_PREFIX = "urn:ietf:params:oauth:request_uri:";
     public static final String JTI_CACHE = "jti";
+    public static final String DPOP_NONCE_CACHE = "dpopnonce";
+    public static final String TRANSACTION_HEADER_CACHE = "txnheader";
+    public static final String USER_CONSENT_CACHE = "userconsent";
+
+    // request attribute holding the credentials parsed by DPoP validation filter
+    public static final String PARSED_CREDENTIAL_CONTEXT = "esignet.parsed_credential_context";
 
     public static final String REQUIRE_PAR= "require_pushed_authorization_requests";
     public static final String REQUIRE_PKCE= "require_pkce";
@@ -0,0 +1,19 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.core.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Published when the client detail is evicted from the client detail cache on client create / update.
+ */
+@Data
+@AllArgsConstructor
+public class ClientDetailEvictedEvent {
+
+    private String clientId;
+}
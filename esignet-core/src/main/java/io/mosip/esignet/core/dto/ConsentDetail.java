@@ -8,12 +8,18 @@ package io.mosip.esignet.core.dto;
 import io.mosip.esignet.api.dto.claim.Claims;
 import lombok.Data;
 
+import java.io.Serial;
+import java.io.Serializable;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
 @Data
-public class ConsentDetail {
+public class ConsentDetail implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
     private String id;
     private String clientId;
     private String psuToken;
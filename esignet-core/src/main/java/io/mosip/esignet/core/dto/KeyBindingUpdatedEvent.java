@@ -0,0 +1,22 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.core.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Published when a key binding is stored or updated in the public key registry. Bindings of the same auth factor
+ * under the partner specific user token are also updated, so caches should also evict the entries of the token.
+ */
+@Data
+@AllArgsConstructor
+public class KeyBindingUpdatedEvent {
+
+    private String idHash;
+    private String psuToken;
+    private String authFactor;
+}
@@ -60,6 +60,7 @@ public class OIDCTransaction implements Serializable {
 
     String oauthDetailsHash;
     ConsentAction consentAction;
+    String consentHash;
 
     //signup redirect secret
     String serverNonce;
@@ -80,8 +81,6 @@ public class OIDCTransaction implements Serializable {
     int consentExpireMinutes;
 
     String dpopJkt;
-    String dpopServerNonce;
-    Long dpopServerNonceTTL;
 
     //Feature flags
     boolean requirePushedAuthorizationRequests;
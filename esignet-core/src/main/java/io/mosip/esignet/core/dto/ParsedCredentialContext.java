@@ -0,0 +1,31 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.core.dto;
+
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import lombok.Data;
+
+/**
+ * Credentials parsed once per request by the DPoP validation filter, stored as request attribute
+ * {@link io.mosip.esignet.core.constants.Constants#PARSED_CREDENTIAL_CONTEXT} to be reused by the services.
+ */
+@Data
+public class ParsedCredentialContext {
+
+    private String accessToken;
+    private SignedJWT accessTokenJwt;
+
+    /** Base64url encoded SHA-256 of the access token, same as the DPoP 'ath' claim */
+    private String accessTokenSha256;
+
+    /** Base64url encoded left most 128 bits of SHA-256 of the access token, same as OIDC 'at_hash' */
+    private String accessTokenAtHash;
+
+    private SignedJWT dpopProof;
+    private JWTClaimsSet dpopClaims;
+    private String jwkThumbprint;
+}
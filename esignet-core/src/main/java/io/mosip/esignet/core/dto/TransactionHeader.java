@@ -0,0 +1,31 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.core.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * Fields of the OIDCTransaction required to validate the oauth-details headers, cached with the transaction id as
+ * key alongside the transaction. State is the name of the cache holding the transaction.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionHeader implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private String oauthDetailsHash;
+    private String individualIdHash;
+    private String state;
+    private String clientId;
+}
@@ -5,6 +5,8 @@
  */
 package io.mosip.esignet.core.spi;
 
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
 import io.mosip.esignet.core.dto.OIDCTransaction;
 import io.mosip.esignet.core.exception.EsignetException;
 import io.mosip.esignet.core.exception.NotAuthenticatedException;
@@ -119,6 +121,12 @@ public interface TokenService {
      */
      void verifyAccessToken(String clientId, String subject, String accessToken) throws NotAuthenticatedException;
 
+    /**
+     * Same as {@link #verifyAccessToken(String, String, String)} with an already parsed access token
+     * @throws NotAuthenticatedException
+     */
+     void verifyAccessToken(String clientId, String subject, SignedJWT accessToken) throws NotAuthenticatedException;
+
     /**
      * Verifies id token signature and also the claims with expected values
      * if any one verification fails then throws NotAuthenticatedException
@@ -148,15 +156,25 @@ public interface TokenService {
      String getIDToken(String subject, String audience, int validitySeconds, OIDCTransaction transaction, String nonce);
 
     /**
-     * Validate dpop nonce claim
+     * Validate dpop nonce claim against the server nonces issued for the cached transaction
      * @param dpopHeader
-     * @param transaction
+     * @param cacheKey
+     * @param cacheName
+     * @return
+     */
+    boolean isValidDpopServerNonce(String dpopHeader, String cacheKey, String cacheName);
+
+    /**
+     * Validate dpop nonce claim with already parsed dpop proof claims
+     * @param dpopClaims
+     * @param cacheKey
+     * @param cacheName
      * @return
      */
-    boolean isValidDpopServerNonce(String dpopHeader, OIDCTransaction transaction);
+    boolean isValidDpopServerNonce(JWTClaimsSet dpopClaims, String cacheKey, String cacheName);
 
     /**
-     * Generate new nonce and store in transaction and throw exception with nonce
+     * Generate new nonce for the cached transaction, store it and throw exception with nonce
      * @param cacheKey
      * @param cacheName
      */
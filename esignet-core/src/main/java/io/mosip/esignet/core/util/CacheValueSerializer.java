@@ -0,0 +1,180 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.core.util;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import io.mosip.esignet.core.dto.ApiRateLimit;
+import io.mosip.esignet.core.dto.ClientDetail;
+import io.mosip.esignet.core.dto.LinkTransactionMetadata;
+import io.mosip.esignet.core.dto.OIDCTransaction;
+import io.mosip.esignet.core.dto.PushedAuthorizationRequest;
+import io.mosip.esignet.core.dto.TransactionHeader;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Versioned cache value serializer, values of the registered types are written as
+ * [magic byte][format version][type id (2 bytes)][CBOR encoded fields].
+ *
+ * Values of any other type are written with JDK serialization. Values written with JDK serialization are always
+ * readable, irrespective of the configured write format. This allows to first roll out all the nodes with
+ * 'jdk' write format and then switch to 'cbor' write format without breaking the cached transactions.
+ *
+ * Note: Type ids are persisted with the cached values, registered type id MUST never be changed or reused.
+ */
+public class CacheValueSerializer implements RedisSerializer<Object> {
+
+    public static final String FORMAT_JDK = "jdk";
+    public static final String FORMAT_CBOR = "cbor";
+
+    private static final byte MAGIC = 0x45;
+    private static final byte FORMAT_VERSION = 1;
+    private static final int HEADER_LENGTH = 4;
+
+    private static final Map<Short, Class<?>> TYPES = new HashMap<>();
+    private static final Map<Class<?>, Short> TYPE_IDS = new HashMap<>();
+
+    static {
+        register((short) 1, OIDCTransaction.class);
+        register((short) 2, LinkTransactionMetadata.class);
+        register((short) 3, ApiRateLimit.class);
+        register((short) 4, PushedAuthorizationRequest.class);
+        register((short) 5, ClientDetail.class);
+        register((short) 6, String.class);
+        register((short) 7, Boolean.class);
+        register((short) 8, TransactionHeader.class);
+    }
+
+    private final RedisSerializer<Object> jdkSerializer = RedisSerializer.java();
+    private final ObjectMapper objectMapper;
+    private final boolean writeCbor;
+
+    public CacheValueSerializer(String writeFormat) {
+        this.writeCbor = FORMAT_CBOR.equalsIgnoreCase(writeFormat);
+        SimpleModule module = new SimpleModule();
+        module.addSerializer(LinkCodeQueue.class, new LinkCodeQueueSerializer());
+        module.addDeserializer(LinkCodeQueue.class, new LinkCodeQueueDeserializer());
+        this.objectMapper = CBORMapper.builder()
+                .visibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE)
+                .visibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY)
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .addMixIn(LinkTransactionMetadata.class, LinkTransactionMetadataMixIn.class)
+                .addModule(module)
+                .build();
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if(value == null)
+            return new byte[0];
+
+        Short typeId = TYPE_IDS.get(value.getClass());
+        if(!writeCbor || typeId == null)
+            return jdkSerializer.serialize(value);
+
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(value);
+            return ByteBuffer.allocate(HEADER_LENGTH + body.length)
+                    .put(MAGIC)
+                    .put(FORMAT_VERSION)
+                    .putShort(typeId)
+                    .put(body)
+                    .array();
+        } catch (IOException e) {
+            throw new SerializationException("Failed to serialize cache value of type " + value.getClass().getName(), e);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if(bytes == null || bytes.length == 0)
+            return null;
+
+        if(bytes[0] != MAGIC)
+            return jdkSerializer.deserialize(bytes);
+
+        if(bytes.length < HEADER_LENGTH || bytes[1] != FORMAT_VERSION)
+            throw new SerializationException("Unsupported cache value format version");
+
+        short typeId = ByteBuffer.wrap(bytes, 2, 2).getShort();
+        Class<?> type = TYPES.get(typeId);
+        if(type == null)
+            throw new SerializationException("Unknown cache value type id: " + typeId);
+
+        try {
+            return objectMapper.readValue(bytes, HEADER_LENGTH, bytes.length - HEADER_LENGTH, type);
+        } catch (IOException e) {
+            throw new SerializationException("Failed to deserialize cache value of type " + type.getName(), e);
+        }
+    }
+
+    private static void register(short typeId, Class<?> type) {
+        TYPES.put(typeId, type);
+        TYPE_IDS.put(type, typeId);
+    }
+
+    private abstract static class LinkTransactionMetadataMixIn {
+        @JsonCreator
+        LinkTransactionMetadataMixIn(@JsonProperty("transactionId") String transactionId,
+                                     @JsonProperty("linkedTransactionId") String linkedTransactionId) {}
+    }
+
+    private static class LinkCodeQueueSerializer extends StdSerializer<LinkCodeQueue> {
+
+        LinkCodeQueueSerializer() {
+            super(LinkCodeQueue.class);
+        }
+
+        @Override
+        public void serialize(LinkCodeQueue linkCodeQueue, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            generator.writeStartObject();
+            generator.writeNumberField("capacity", linkCodeQueue.size() + linkCodeQueue.remainingCapacity());
+            generator.writeArrayFieldStart("linkCodes");
+            for(String linkCode : linkCodeQueue) {
+                generator.writeString(linkCode);
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+    }
+
+    private static class LinkCodeQueueDeserializer extends StdDeserializer<LinkCodeQueue> {
+
+        LinkCodeQueueDeserializer() {
+            super(LinkCodeQueue.class);
+        }
+
+        @Override
+        public LinkCodeQueue deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            JsonNode node = parser.readValueAsTree();
+            LinkCodeQueue linkCodeQueue = new LinkCodeQueue(node.get("capacity").asInt());
+            node.get("linkCodes").forEach(linkCode -> linkCodeQueue.addLinkCode(linkCode.asText()));
+            return linkCodeQueue;
+        }
+    }
+}
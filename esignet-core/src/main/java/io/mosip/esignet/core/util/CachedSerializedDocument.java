@@ -0,0 +1,58 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.core.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.ResponseEntity;
+
+import java.util.function.Supplier;
+
+/**
+ * Named document rendered lazily from its source and served from memory until it is invalidated or, when a
+ * refresh interval is set, until it gets older than the refresh interval. Responses are tagged with the document name.
+ */
+public class CachedSerializedDocument {
+
+    private final String documentName;
+    private final ObjectMapper objectMapper;
+    private final Supplier<?> source;
+    private final int refreshIntervalSeconds;
+
+    private volatile SerializedDocument document;
+
+    /**
+     * @param refreshIntervalSeconds 0 or less to render the document only once (until invalidated)
+     */
+    public CachedSerializedDocument(String documentName, ObjectMapper objectMapper, Supplier<?> source,
+                                    int refreshIntervalSeconds) {
+        this.documentName = documentName;
+        this.objectMapper = objectMapper;
+        this.source = source;
+        this.refreshIntervalSeconds = refreshIntervalSeconds;
+    }
+
+    public SerializedDocument get() {
+        SerializedDocument current = document;
+        if(current != null && (refreshIntervalSeconds <= 0 || !current.isOlderThan(refreshIntervalSeconds)))
+            return current;
+
+        synchronized (this) {
+            //another thread already rendered a newer document
+            if(document != current && document != null)
+                return document;
+            document = SerializedDocument.of(objectMapper, source.get());
+            return document;
+        }
+    }
+
+    public void invalidate() {
+        document = null;
+    }
+
+    public ResponseEntity<byte[]> toResponseEntity(String ifNoneMatch, int maxAgeSeconds) {
+        return get().toResponseEntity(documentName, ifNoneMatch, maxAgeSeconds);
+    }
+}
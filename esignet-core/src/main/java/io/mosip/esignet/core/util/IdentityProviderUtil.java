@@ -140,6 +140,16 @@ public class IdentityProviderUtil {
         }
     }
 
+    public static byte[] generateHash(String algorithm, String value) throws EsignetException {
+        try {
+            MessageDigest digest = MessageDigest.getInstance(algorithm);
+            return digest.digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException ex) {
+            logger.error("Invalid algorithm : {}", algorithm, ex);
+            throw new EsignetException(ErrorConstants.INVALID_ALGORITHM);
+        }
+    }
+
     public static String generateB64EncodedHash(String algorithm, byte[] bytes) throws EsignetException {
         try {
             MessageDigest digest = MessageDigest.getInstance(algorithm);
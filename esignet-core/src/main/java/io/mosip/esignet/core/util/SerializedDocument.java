@@ -0,0 +1,90 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.core.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Metrics;
+import io.mosip.esignet.core.constants.ErrorConstants;
+import io.mosip.esignet.core.exception.EsignetException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Immutable serialized JSON document served as is, with a strong ETag computed from the content. Responses are
+ * counted in 'esignet.wellknown.response' metric tagged with the document name and the response status.
+ */
+@Slf4j
+public class SerializedDocument {
+
+    private static final String RESPONSE_METRIC = "esignet.wellknown.response";
+
+    private final byte[] content;
+    private final String eTag;
+    private final long createdTimeMillis;
+
+    public SerializedDocument(byte[] content) {
+        this.content = content;
+        this.eTag = "\"" + IdentityProviderUtil.generateB64EncodedHash(IdentityProviderUtil.ALGO_SHA_256, content) + "\"";
+        this.createdTimeMillis = System.currentTimeMillis();
+    }
+
+    public static SerializedDocument of(ObjectMapper objectMapper, Object source) {
+        try {
+            return new SerializedDocument(objectMapper.writeValueAsBytes(source));
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialize the document", e);
+            throw new EsignetException(ErrorConstants.UNKNOWN_ERROR);
+        }
+    }
+
+    public String getETag() {
+        return eTag;
+    }
+
+    public boolean isOlderThan(int seconds) {
+        return System.currentTimeMillis() - createdTimeMillis > seconds * 1000L;
+    }
+
+    /**
+     * @param ifNoneMatch value of the If-None-Match request header, can be null
+     * @return true if any of the provided entity tags matches the document ETag (weak comparison)
+     */
+    public boolean isNotModified(String ifNoneMatch) {
+        if(ifNoneMatch == null || ifNoneMatch.isBlank())
+            return false;
+
+        for(String tag : ifNoneMatch.split(",")) {
+            tag = tag.trim();
+            if(tag.equals("*") || eTag.equals(tag.startsWith("W/") ? tag.substring(2) : tag))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return 304 without body if the document is not modified, otherwise 200 with the document as body.
+     */
+    public ResponseEntity<byte[]> toResponseEntity(String documentName, String ifNoneMatch, int maxAgeSeconds) {
+        CacheControl cacheControl = CacheControl.maxAge(maxAgeSeconds, TimeUnit.SECONDS).cachePublic();
+        if(isNotModified(ifNoneMatch)) {
+            Metrics.counter(RESPONSE_METRIC, "document", documentName, "status", "304").increment();
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(cacheControl).build();
+        }
+        Metrics.counter(RESPONSE_METRIC, "document", documentName, "status", "200").increment();
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .contentLength(content.length)
+                .eTag(eTag)
+                .cacheControl(cacheControl)
+                .body(content);
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.core;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.mosip.esignet.api.dto.claim.Claims;
+import io.mosip.esignet.api.util.ConsentAction;
+import io.mosip.esignet.core.dto.ApiRateLimit;
+import io.mosip.esignet.core.dto.LinkTransactionMetadata;
+import io.mosip.esignet.core.dto.OIDCTransaction;
+import io.mosip.esignet.core.dto.ProofKeyCodeExchange;
+import io.mosip.esignet.core.util.CacheValueSerializer;
+import io.mosip.esignet.core.util.LinkCodeQueue;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.*;
+
+@Slf4j
+public class CacheValueSerializerTest {
+
+    private final CacheValueSerializer cborSerializer = new CacheValueSerializer(CacheValueSerializer.FORMAT_CBOR);
+    private final CacheValueSerializer jdkSerializer = new CacheValueSerializer(CacheValueSerializer.FORMAT_JDK);
+
+    @Test
+    public void serialize_withOIDCTransaction_thenPass() {
+        OIDCTransaction transaction = getOIDCTransaction();
+
+        byte[] bytes = cborSerializer.serialize(transaction);
+        OIDCTransaction result = (OIDCTransaction) cborSerializer.deserialize(bytes);
+
+        Assertions.assertEquals(transaction.getTransactionId(), result.getTransactionId());
+        Assertions.assertEquals(transaction.getResolvedClaims(), result.getResolvedClaims());
+        Assertions.assertEquals(transaction.getProvidedAuthFactors(), result.getProvidedAuthFactors());
+        Assertions.assertEquals(transaction.getClaimMetadata(), result.getClaimMetadata());
+        Assertions.assertEquals(transaction.getConsentAction(), result.getConsentAction());
+        Assertions.assertEquals(transaction.getProofKeyCodeExchange().getCodeChallenge(), result.getProofKeyCodeExchange().getCodeChallenge());
+        Assertions.assertArrayEquals(transaction.getClaimsLocales(), result.getClaimsLocales());
+        Assertions.assertEquals(new ArrayList<>(transaction.getLinkCodeQueue()), new ArrayList<>(result.getLinkCodeQueue()));
+        Assertions.assertEquals(0, result.getLinkCodeQueue().remainingCapacity());
+        Assertions.assertTrue(result.isInternalAuthSuccess());
+    }
+
+    @Test
+    public void serialize_withOtherCachedTypes_thenPass() {
+        LinkTransactionMetadata linkTransactionMetadata = new LinkTransactionMetadata("txn-id", "linked-txn-id");
+        Assertions.assertEquals(linkTransactionMetadata, cborSerializer.deserialize(cborSerializer.serialize(linkTransactionMetadata)));
+
+        ApiRateLimit apiRateLimit = new ApiRateLimit();
+        apiRateLimit.increment(1);
+        apiRateLimit.increment(1);
+        Assertions.assertEquals(apiRateLimit, cborSerializer.deserialize(cborSerializer.serialize(apiRateLimit)));
+
+        Assertions.assertEquals("individual-id-hash", cborSerializer.deserialize(cborSerializer.serialize("individual-id-hash")));
+        Assertions.assertEquals(true, cborSerializer.deserialize(cborSerializer.serialize(true)));
+        Assertions.assertNull(cborSerializer.deserialize(cborSerializer.serialize(null)));
+    }
+
+    @Test
+    public void serialize_withUnregisteredType_thenJdkSerialized() {
+        HashMap<String, String> value = new HashMap<>(Map.of("key", "value"));
+        byte[] bytes = cborSerializer.serialize(value);
+        Assertions.assertArrayEquals(RedisSerializer.java().serialize(value), bytes);
+        Assertions.assertEquals(value, cborSerializer.deserialize(bytes));
+    }
+
+    @Test
+    public void deserialize_withJdkWriteFormat_thenReadableByBothFormats() {
+        OIDCTransaction transaction = getOIDCTransaction();
+        byte[] jdkBytes = jdkSerializer.serialize(transaction);
+        Assertions.assertEquals(transaction.getTransactionId(), ((OIDCTransaction) cborSerializer.deserialize(jdkBytes)).getTransactionId());
+
+        byte[] cborBytes = cborSerializer.serialize(transaction);
+        Assertions.assertEquals(transaction.getTransactionId(), ((OIDCTransaction) jdkSerializer.deserialize(cborBytes)).getTransactionId());
+    }
+
+    @Test
+    public void deserialize_withUnknownTypeId_thenFail() {
+        byte[] bytes = cborSerializer.serialize("value");
+        bytes[3] = 99;
+        Assertions.assertThrows(SerializationException.class, () -> cborSerializer.deserialize(bytes));
+    }
+
+    @Test
+    public void compare_withJdkFormat_thenSmallerPayload() {
+        OIDCTransaction transaction = getOIDCTransaction();
+        byte[] jdkBytes = jdkSerializer.serialize(transaction);
+        byte[] cborBytes = cborSerializer.serialize(transaction);
+        log.info("OIDCTransaction size in bytes, jdk: {} cbor: {}", jdkBytes.length, cborBytes.length);
+        Assertions.assertTrue(cborBytes.length < jdkBytes.length);
+    }
+
+    /**
+     * Round trip latency depends on the build machine, hence it is only logged to compare the formats and not
+     * asserted. Median of several rounds is logged to keep the numbers stable across runs.
+     */
+    @Test
+    public void compare_withJdkFormat_thenRoundTripLatencyLogged() {
+        OIDCTransaction transaction = getOIDCTransaction();
+        long jdkNanos = measureMedian(jdkSerializer, transaction);
+        long cborNanos = measureMedian(cborSerializer, transaction);
+        log.info("Median serialize + deserialize time in nanos, jdk: {} cbor: {}", jdkNanos, cborNanos);
+        Assertions.assertTrue(jdkNanos > 0 && cborNanos > 0);
+    }
+
+    private long measureMedian(CacheValueSerializer serializer, OIDCTransaction transaction) {
+        int rounds = 7, iterations = 500;
+        long[] averages = new long[rounds];
+        //warm up
+        for(int i=0; i<iterations; i++) {
+            serializer.deserialize(serializer.serialize(transaction));
+        }
+        for(int round=0; round<rounds; round++) {
+            long start = System.nanoTime();
+            for(int i=0; i<iterations; i++) {
+                OIDCTransaction result = (OIDCTransaction) serializer.deserialize(serializer.serialize(transaction));
+                Assertions.assertEquals(transaction.getTransactionId(), result.getTransactionId());
+            }
+            averages[round] = (System.nanoTime() - start) / iterations;
+        }
+        Arrays.sort(averages);
+        return averages[rounds / 2];
+    }
+
+    private OIDCTransaction getOIDCTransaction() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        OIDCTransaction transaction = new OIDCTransaction();
+        transaction.setTransactionId("a8f3c29d0e7b4f51");
+        transaction.setClientId("mock-oidc-client");
+        transaction.setRelyingPartyId("mock-relying-party-id");
+        transaction.setRedirectUri("https://health-services.com/userprofile");
+        transaction.setClaimsLocales(new String[]{"en", "fr"});
+        transaction.setEssentialClaims(List.of("name", "birthdate"));
+        transaction.setVoluntaryClaims(List.of("email", "phone_number"));
+        transaction.setRequestedAuthorizeScopes(List.of("openid", "profile"));
+        transaction.setProvidedAuthFactors(new HashSet<>(List.of(List.of("OTP"), List.of("PIN", "BIO"))));
+        transaction.setAuthTimeInSeconds(1712345678L);
+        transaction.setPartnerSpecificUserToken("7fa1e8e2-2d45-4b1e-9f0d-5b0b1c6e62a3");
+        transaction.setKycToken("kyc-token-9c1e4a");
+        transaction.setOauthDetailsHash("nAcVkR0Z8W3y4oJ8tq5ZbU4x9bY7cLw2Qk1mD0vX3a0");
+        transaction.setIndividualIdHash("Qz4mY9xH2nV7kR1tW8sP3dF6gJ0lC5bN2aE7uI4oK9s");
+        transaction.setConsentAction(ConsentAction.CAPTURE);
+        transaction.setInternalAuthSuccess(true);
+        transaction.setProofKeyCodeExchange(ProofKeyCodeExchange.getInstance("E9Melhoa2OwvFrEMTJguCHaoeK1t8URWbuGJSstw-cM", "S256"));
+
+        LinkCodeQueue linkCodeQueue = new LinkCodeQueue(2);
+        linkCodeQueue.addLinkCode("link-code-1");
+        linkCodeQueue.addLinkCode("link-code-2");
+        transaction.setLinkCodeQueue(linkCodeQueue);
+
+        Claims claims = new Claims();
+        Map<String, List<Map<String, Object>>> userinfo = new HashMap<>();
+        userinfo.put("name", List.of(Map.of("essential", true)));
+        userinfo.put("birthdate", List.of(Map.of("essential", true, "verification",
+                Map.of("trust_framework", "income-tax"))));
+        claims.setUserinfo(userinfo);
+        claims.setId_token(Map.of("acr", Map.of("essential", true, "values", List.of("mosip:idp:acr:generated-code"))));
+        transaction.setResolvedClaims(claims);
+        transaction.setClaimMetadata(Map.of("name", List.of(objectMapper.valueToTree(Map.of("trust_framework", "pwd",
+                "verification_process", "video-kyc")))));
+        return transaction;
+    }
+}
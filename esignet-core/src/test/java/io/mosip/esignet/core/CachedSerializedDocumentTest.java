@@ -0,0 +1,79 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.core;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.mosip.esignet.core.util.CachedSerializedDocument;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class CachedSerializedDocumentTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger renderCount = new AtomicInteger();
+
+    private Map<String, Object> render() {
+        return Map.of("version", renderCount.incrementAndGet());
+    }
+
+    @Test
+    public void get_withoutRefreshInterval_thenRenderedOnce() {
+        CachedSerializedDocument document = new CachedSerializedDocument("openid-configuration", objectMapper,
+                this::render, 0);
+        Assertions.assertSame(document.get(), document.get());
+        Assertions.assertEquals(1, renderCount.get());
+    }
+
+    @Test
+    public void get_afterInvalidate_thenRenderedAgain() {
+        CachedSerializedDocument document = new CachedSerializedDocument("jwks", objectMapper, this::render, 60);
+        String eTag = document.get().getETag();
+        document.invalidate();
+        Assertions.assertNotEquals(eTag, document.get().getETag());
+        Assertions.assertEquals(2, renderCount.get());
+    }
+
+    @Test
+    public void get_withExpiredRefreshInterval_thenRenderedAgain() throws InterruptedException {
+        CachedSerializedDocument document = new CachedSerializedDocument("jwks", objectMapper, this::render, 1);
+        document.get();
+        document.get();
+        Assertions.assertEquals(1, renderCount.get());
+        Thread.sleep(1100);
+        document.get();
+        Assertions.assertEquals(2, renderCount.get());
+    }
+
+    @Test
+    public void toResponseEntity_thenCountedWithDocumentName() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        Metrics.addRegistry(meterRegistry);
+        try {
+            CachedSerializedDocument document = new CachedSerializedDocument("oauth-authorization-server",
+                    objectMapper, this::render, 0);
+            ResponseEntity<byte[]> responseEntity = document.toResponseEntity(null, 60);
+            Assertions.assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+            Assertions.assertEquals("{\"version\":1}", new String(responseEntity.getBody(), StandardCharsets.UTF_8));
+            responseEntity = document.toResponseEntity(responseEntity.getHeaders().getETag(), 60);
+            Assertions.assertEquals(HttpStatus.NOT_MODIFIED, responseEntity.getStatusCode());
+
+            Assertions.assertEquals(1, meterRegistry.get("esignet.wellknown.response")
+                    .tag("document", "oauth-authorization-server").tag("status", "200").counter().count());
+            Assertions.assertEquals(1, meterRegistry.get("esignet.wellknown.response")
+                    .tag("document", "oauth-authorization-server").tag("status", "304").counter().count());
+        } finally {
+            Metrics.removeRegistry(meterRegistry);
+        }
+    }
+}
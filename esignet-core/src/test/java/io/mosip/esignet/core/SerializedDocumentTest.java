@@ -0,0 +1,82 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.core;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.mosip.esignet.core.util.SerializedDocument;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+public class SerializedDocumentTest {
+
+    private final SerializedDocument document = new SerializedDocument("{\"keys\":[]}".getBytes(StandardCharsets.UTF_8));
+
+    @Test
+    public void isNotModified_withMatchingETag_thenPass() {
+        String eTag = document.getETag();
+        Assertions.assertTrue(document.isNotModified(eTag));
+        Assertions.assertTrue(document.isNotModified("W/" + eTag));
+        Assertions.assertTrue(document.isNotModified("\"other\", " + eTag));
+        Assertions.assertTrue(document.isNotModified("*"));
+    }
+
+    @Test
+    public void isNotModified_withDifferentETag_thenFail() {
+        Assertions.assertFalse(document.isNotModified(null));
+        Assertions.assertFalse(document.isNotModified(" "));
+        Assertions.assertFalse(document.isNotModified("\"other\""));
+        Assertions.assertNotEquals(document.getETag(),
+                new SerializedDocument("{\"keys\":[{}]}".getBytes(StandardCharsets.UTF_8)).getETag());
+    }
+
+    @Test
+    public void toResponseEntity_thenPass() {
+        ResponseEntity<byte[]> responseEntity = document.toResponseEntity("jwks", null, 60);
+        Assertions.assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        Assertions.assertEquals("{\"keys\":[]}", new String(responseEntity.getBody(), StandardCharsets.UTF_8));
+        Assertions.assertEquals(document.getETag(), responseEntity.getHeaders().getETag());
+
+        responseEntity = document.toResponseEntity("jwks", document.getETag(), 60);
+        Assertions.assertEquals(HttpStatus.NOT_MODIFIED, responseEntity.getStatusCode());
+        Assertions.assertNull(responseEntity.getBody());
+        Assertions.assertEquals("max-age=60, public", responseEntity.getHeaders().getCacheControl());
+    }
+
+    @Test
+    public void of_thenPass() {
+        Map<String, Object> source = new HashMap<>();
+        source.put("issuer", "https://esignet.io");
+        SerializedDocument serializedDocument = SerializedDocument.of(new ObjectMapper(), source);
+        Assertions.assertEquals("{\"issuer\":\"https://esignet.io\"}",
+                new String(serializedDocument.toResponseEntity("openid-configuration", null, 60).getBody(),
+                        StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void toResponseEntity_thenResponsesCounted() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        Metrics.addRegistry(meterRegistry);
+        try {
+            document.toResponseEntity("jwks", null, 60);
+            document.toResponseEntity("jwks", document.getETag(), 60);
+            document.toResponseEntity("jwks", document.getETag(), 60);
+            Assertions.assertEquals(1, meterRegistry.get("esignet.wellknown.response").tag("document", "jwks")
+                    .tag("status", "200").counter().count());
+            Assertions.assertEquals(2, meterRegistry.get("esignet.wellknown.response").tag("document", "jwks")
+                    .tag("status", "304").counter().count());
+        } finally {
+            Metrics.removeRegistry(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.core.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class NearCacheTest {
+
+    private ConcurrentMapCache sharedCache;
+    private List<String> publishedKeys;
+    private NearCache nearCache;
+
+    @BeforeEach
+    void setUp() {
+        sharedCache = spy(new ConcurrentMapCache("preauth"));
+        publishedKeys = new ArrayList<>();
+        nearCache = new NearCache(sharedCache, 5, 10, (cacheName, key) -> publishedKeys.add(key));
+    }
+
+    @Test
+    void get_withLocalEntry_thenSharedCacheNotQueried() {
+        sharedCache.put("txn1", "value1");
+
+        assertEquals("value1", nearCache.get("txn1", String.class));
+        assertEquals("value1", nearCache.get("txn1", String.class));
+        verify(sharedCache, times(1)).get("txn1");
+    }
+
+    @Test
+    void get_withMissingEntry_thenNotCachedLocally() {
+        assertNull(nearCache.get("txn1", String.class));
+        sharedCache.put("txn1", "value1");
+        assertEquals("value1", nearCache.get("txn1", String.class));
+    }
+
+    @Test
+    void get_withModifiedReturnValue_thenLocalEntryNotChanged() {
+        sharedCache.put("txn1", new ArrayList<>(List.of("value1")));
+
+        List<String> value = nearCache.get("txn1", List.class);
+        value.add("value2");
+        assertEquals(List.of("value1"), nearCache.get("txn1", List.class));
+        verify(sharedCache, times(1)).get("txn1");
+    }
+
+    @Test
+    void get_withInvalidationDuringSharedRead_thenNotCachedLocally() {
+        sharedCache.put("txn1", "value1");
+        doAnswer(invocation -> {
+            Object result = invocation.callRealMethod();
+            nearCache.evictLocal("txn1");
+            return result;
+        }).when(sharedCache).get("txn1");
+
+        assertEquals("value1", nearCache.get("txn1", String.class));
+        assertEquals("value1", nearCache.get("txn1", String.class));
+        verify(sharedCache, times(2)).get("txn1");
+    }
+
+    @Test
+    void get_withValueLoader_thenSharedCacheQueriedOnce() {
+        assertEquals("value1", nearCache.get("txn1", () -> "value1"));
+        assertEquals("value1", nearCache.get("txn1", () -> "value2"));
+        verify(sharedCache, times(1)).get(eq("txn1"), any(Callable.class));
+        verify(sharedCache, never()).get("txn1");
+    }
+
+    @Test
+    void put_thenLocalEntryDroppedAndInvalidationPublished() {
+        nearCache.put("txn1", "value1");
+        assertEquals("value1", nearCache.get("txn1", String.class));
+
+        nearCache.put("txn1", "value2");
+        assertEquals("value2", nearCache.get("txn1", String.class));
+        assertEquals(List.of("txn1", "txn1"), publishedKeys);
+    }
+
+    @Test
+    void evict_thenLocalEntryDroppedAndInvalidationPublished() {
+        nearCache.put("txn1", "value1");
+        assertNotNull(nearCache.get("txn1"));
+
+        nearCache.evict("txn1");
+        assertNull(nearCache.get("txn1"));
+        assertEquals(2, publishedKeys.size());
+    }
+
+    @Test
+    void clear_thenInvalidationPublishedWithoutKey() {
+        nearCache.put("txn1", "value1");
+        nearCache.clear();
+        assertNull(nearCache.get("txn1"));
+        assertNull(publishedKeys.get(1));
+    }
+
+    @Test
+    void onMessage_fromOtherNode_thenLocalEntryDropped() {
+        Cache delegate = new ConcurrentMapCache("preauth");
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        org.springframework.cache.CacheManager cacheManager = mock(org.springframework.cache.CacheManager.class);
+        when(cacheManager.getCache("preauth")).thenReturn(delegate);
+
+        NearCacheManager nearCacheManager = new NearCacheManager(cacheManager, Set.of("preauth"), 5, 10,
+                redisTemplate, "esignet:near-cache-invalidation");
+        Cache cache = nearCacheManager.getCache("preauth");
+        assertInstanceOf(NearCache.class, cache);
+        cache.put("txn1", "value1");
+        assertEquals("value1", cache.get("txn1", String.class));
+        verify(redisTemplate).convertAndSend(eq("esignet:near-cache-invalidation"), anyString());
+
+        //Value changed by another node
+        delegate.put("txn1", "value2");
+        assertEquals("value1", cache.get("txn1", String.class));
+        nearCacheManager.onMessage(new DefaultMessage("esignet:near-cache-invalidation".getBytes(StandardCharsets.UTF_8),
+                "other-node|preauth|txn1".getBytes(StandardCharsets.UTF_8)), null);
+        assertEquals("value2", cache.get("txn1", String.class));
+    }
+}
@@ -6,6 +6,8 @@
 package io.mosip.esignet.advice;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWSHeader;
 import com.nimbusds.jose.JWSVerifier;
@@ -14,12 +16,15 @@ import com.nimbusds.jose.crypto.RSASSAVerifier;
 import com.nimbusds.jose.jwk.ECKey;
 import com.nimbusds.jose.jwk.JWK;
 import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.proc.SecurityContext;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
 import com.nimbusds.jwt.proc.BadJWTException;
 import com.nimbusds.jwt.proc.DefaultJWTClaimsVerifier;
+import io.micrometer.core.instrument.Metrics;
 import io.mosip.esignet.core.constants.Constants;
 import io.mosip.esignet.core.constants.ErrorConstants;
+import io.mosip.esignet.core.dto.ParsedCredentialContext;
 import io.mosip.esignet.core.exception.DpopNotAuthenticatedException;
 import io.mosip.esignet.core.exception.EsignetException;
 import io.mosip.esignet.core.exception.InvalidDpopHeaderException;
@@ -33,6 +38,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -56,13 +62,27 @@ public class DpopValidationFilter extends OncePerRequestFilter {
     @Value("${mosip.esignet.dpop.clock-skew:10}")
     private int maxClockSkewSeconds;
 
+    @Value("${mosip.esignet.dpop.iat-window-seconds:60}")
+    private int iatWindowSeconds;
+
     @Value("#{${mosip.esignet.discovery.key-values}}")
     private Map<String, Object> discoveryMap;
 
+    @Value("${mosip.esignet.dpop.verifier-cache.max-size:1000}")
+    private int verifierCacheMaxSize;
+
+    private Cache<String, JWSVerifier> verifierCache;
+
+    private Map<OAUTH_ENDPOINT, Map<String, DefaultJWTClaimsVerifier<SecurityContext>>> claimsVerifiers;
+
     private static final Set<String> REQUIRED_CLAIMS = Set.of("htm", "htu", "iat", "jti");
 
+    private static final List<String> HTTP_METHODS = List.of("GET", "POST");
+
     private static final String ALGO_SHA_256 = "SHA-256";
 
+    private static final String VERIFIER_CACHE_METRIC = "esignet.dpop.verifier.cache";
+
     private static final String DPOP_PREFIX = "DPoP ";
     private static final String BEARER_PREFIX = "Bearer ";
 
@@ -81,6 +101,26 @@ public class DpopValidationFilter extends OncePerRequestFilter {
         USERINFO
     }
 
+    /**
+     * Wallets use the same DPoP key across PAR, token and userinfo requests, verifiers are cached with the RFC 7638
+     * JWK thumbprint as key, least recently used entries are evicted when the cache is full.
+     */
+    @PostConstruct
+    public void init() {
+        verifierCache = CacheBuilder.newBuilder()
+                .maximumSize(verifierCacheMaxSize)
+                .build();
+
+        Map<OAUTH_ENDPOINT, Map<String, DefaultJWTClaimsVerifier<SecurityContext>>> verifiers = new EnumMap<>(OAUTH_ENDPOINT.class);
+        for(OAUTH_ENDPOINT endpoint : OAUTH_ENDPOINT.values()) {
+            String reqUri = getRequestUri(endpoint);
+            Map<String, DefaultJWTClaimsVerifier<SecurityContext>> methodVerifiers = new HashMap<>();
+            HTTP_METHODS.forEach(method -> methodVerifiers.put(method, createClaimsVerifier(method, reqUri)));
+            verifiers.put(endpoint, Map.copyOf(methodVerifiers));
+        }
+        claimsVerifiers = Collections.unmodifiableMap(verifiers);
+    }
+
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) {
         final String path = request.getRequestURI();
@@ -109,7 +149,8 @@ public class DpopValidationFilter extends OncePerRequestFilter {
                     header -> validateDpopFlow(request, header, endpoint),
                     () -> {
                         if(OAUTH_ENDPOINT.USERINFO.equals(endpoint)) {
-                            validateBearerUserinfo(request.getHeader(AUTH_HEADER));
+                            ParsedCredentialContext credentialContext = validateBearerUserinfo(request.getHeader(AUTH_HEADER));
+                            request.setAttribute(Constants.PARSED_CREDENTIAL_CONTEXT, credentialContext);
                         }
                     }
             );
@@ -141,40 +182,61 @@ public class DpopValidationFilter extends OncePerRequestFilter {
 
     private void validateDpopFlow(HttpServletRequest request, String dpopHeader, OAUTH_ENDPOINT endpoint) {
         SignedJWT jwt = parseAndValidateHeader(dpopHeader);
+        JWK jwk = jwt.getHeader().getJWK();
+        String thumbprint = computeThumbprint(jwk);
+        verifySignature(jwt, jwk, thumbprint);
         JWTClaimsSet claims = getClaims(jwt);
         verifyClaimValues(claims, request, endpoint);
         replayCheck(claims);
 
+        ParsedCredentialContext credentialContext;
         if (OAUTH_ENDPOINT.USERINFO.equals(endpoint)) {
             String authHeader = request.getHeader(AUTH_HEADER);
-            validateDpopUserinfo(authHeader, claims, jwt.getHeader().getJWK());
+            credentialContext = validateDpopUserinfo(authHeader, claims, thumbprint);
+        } else {
+            credentialContext = new ParsedCredentialContext();
         }
+        credentialContext.setJwkThumbprint(thumbprint);
+        credentialContext.setDpopProof(jwt);
+        credentialContext.setDpopClaims(claims);
+        request.setAttribute(Constants.PARSED_CREDENTIAL_CONTEXT, credentialContext);
     }
 
-    private boolean isDpopBoundAccessToken(String accessToken) {
+    private boolean isDpopBoundAccessToken(ParsedCredentialContext credentialContext) {
         try {
-            SignedJWT jwt = SignedJWT.parse(accessToken);
+            SignedJWT jwt = SignedJWT.parse(credentialContext.getAccessToken());
+            credentialContext.setAccessTokenJwt(jwt);
             Object cnf = jwt.getJWTClaimsSet().getClaim(CNF);
             return cnf != null;
         } catch (ParseException e) {
-            log.error("Failed to parse accessToken: {}", accessToken);
+            log.error("Failed to parse accessToken: {}", credentialContext.getAccessToken());
             throw new NotAuthenticatedException();
         }
     }
 
-    private void validateCnfClaim(JWK jwk, String accessToken) {
+    private void validateCnfClaim(String thumbprint, ParsedCredentialContext credentialContext) {
         try {
-            String thumbprint = jwk.computeThumbprint().toString();
-            SignedJWT jwt = SignedJWT.parse(accessToken);
+            SignedJWT jwt = SignedJWT.parse(credentialContext.getAccessToken());
             Map<String, Object> cnf = (Map<String, Object>) jwt.getJWTClaimsSet().getClaim(CNF);
             String jkt = (String) cnf.get(JKT);
             if(!thumbprint.equals(jkt)) throw new InvalidDpopHeaderException();
+            credentialContext.setAccessTokenJwt(jwt);
         } catch (Exception e) {
             log.error("cnf claim validation failed");
             throw new InvalidDpopHeaderException();
         }
     }
 
+    private ParsedCredentialContext createCredentialContext(String accessToken) {
+        ParsedCredentialContext credentialContext = new ParsedCredentialContext();
+        credentialContext.setAccessToken(accessToken);
+        byte[] hash = IdentityProviderUtil.generateHash(ALGO_SHA_256, accessToken);
+        credentialContext.setAccessTokenSha256(IdentityProviderUtil.b64Encode(hash));
+        //taking only 16 bytes (=128 bits)
+        credentialContext.setAccessTokenAtHash(IdentityProviderUtil.b64Encode(Arrays.copyOf(hash, 16)));
+        return credentialContext;
+    }
+
     private void setAuthErrorResponse(HttpServletResponse response, String error, String description, boolean isUserinfo) throws IOException {
         String headerValue = "DPoP error=\"%s\", error_description=\"%s\", algs=\"ES256 PS256\"".formatted(
                 error, description
@@ -210,7 +272,6 @@ public class DpopValidationFilter extends OncePerRequestFilter {
                 log.error("Invalid jwk header");
                 throw new InvalidDpopHeaderException();
             }
-            verifySignature(jwt, jwk);
             return jwt;
         } catch (ParseException | IllegalArgumentException e) {
             log.error("Failed to parse DPoP JWT", e);
@@ -218,9 +279,18 @@ public class DpopValidationFilter extends OncePerRequestFilter {
         }
     }
 
-    private void verifySignature(SignedJWT jwt, JWK jwk) {
+    private String computeThumbprint(JWK jwk) {
         try {
-            JWSVerifier verifier = createVerifier(jwk);
+            return jwk.computeThumbprint().toString();
+        } catch (JOSEException e) {
+            log.error("Failed to compute DPoP jwk thumbprint: {}", e.getMessage());
+            throw new InvalidDpopHeaderException();
+        }
+    }
+
+    private void verifySignature(SignedJWT jwt, JWK jwk, String thumbprint) {
+        try {
+            JWSVerifier verifier = getVerifier(jwk, thumbprint);
             if (!jwt.verify(verifier)) {
                 log.error("DPoP JWT signature verification failed");
                 throw new InvalidDpopHeaderException();
@@ -231,6 +301,18 @@ public class DpopValidationFilter extends OncePerRequestFilter {
         }
     }
 
+    private JWSVerifier getVerifier(JWK jwk, String thumbprint) throws JOSEException {
+        JWSVerifier verifier = verifierCache.getIfPresent(thumbprint);
+        if(verifier != null) {
+            Metrics.counter(VERIFIER_CACHE_METRIC, "result", "hit").increment();
+            return verifier;
+        }
+        Metrics.counter(VERIFIER_CACHE_METRIC, "result", "miss").increment();
+        verifier = createVerifier(jwk);
+        verifierCache.put(thumbprint, verifier);
+        return verifier;
+    }
+
     private JWSVerifier createVerifier(JWK jwk) throws InvalidDpopHeaderException, JOSEException {
         switch (jwk.getKeyType().getValue()) {
             case "RSA":
@@ -254,17 +336,9 @@ public class DpopValidationFilter extends OncePerRequestFilter {
 
     private void verifyClaimValues(JWTClaimsSet claims, HttpServletRequest request, OAUTH_ENDPOINT endpoint) {
         try {
-            String reqUri = switch (endpoint) {
-                case PAR -> discoveryMap.get(PAR_ENDPOINT).toString();
-                case TOKEN -> discoveryMap.get(TOKEN_ENDPOINT).toString();
-                default -> discoveryMap.get(USERINFO_ENDPOINT).toString();
-            };
-
-            DefaultJWTClaimsVerifier claimsSetVerifier = new DefaultJWTClaimsVerifier(new JWTClaimsSet.Builder()
-                    .claim("htm", request.getMethod())
-                    .claim("htu", reqUri)
-                    .build(), REQUIRED_CLAIMS);
-            claimsSetVerifier.setMaxClockSkew(maxClockSkewSeconds);
+            DefaultJWTClaimsVerifier<SecurityContext> claimsSetVerifier = claimsVerifiers.get(endpoint).get(request.getMethod());
+            if(claimsSetVerifier == null)
+                claimsSetVerifier = createClaimsVerifier(request.getMethod(), getRequestUri(endpoint));
             claimsSetVerifier.verify(claims, null);
         } catch (BadJWTException e) {
             log.error("Invalid request URI: {}", e.getMessage());
@@ -273,26 +347,52 @@ public class DpopValidationFilter extends OncePerRequestFilter {
 
     }
 
+    private String getRequestUri(OAUTH_ENDPOINT endpoint) {
+        return switch (endpoint) {
+            case PAR -> discoveryMap.get(PAR_ENDPOINT).toString();
+            case TOKEN -> discoveryMap.get(TOKEN_ENDPOINT).toString();
+            default -> discoveryMap.get(USERINFO_ENDPOINT).toString();
+        };
+    }
+
+    private DefaultJWTClaimsVerifier<SecurityContext> createClaimsVerifier(String method, String reqUri) {
+        DefaultJWTClaimsVerifier<SecurityContext> claimsSetVerifier = new DefaultJWTClaimsVerifier<>(new JWTClaimsSet.Builder()
+                .claim("htm", method)
+                .claim("htu", reqUri)
+                .build(), REQUIRED_CLAIMS);
+        claimsSetVerifier.setMaxClockSkew(maxClockSkewSeconds);
+        return claimsSetVerifier;
+    }
+
     private void replayCheck(JWTClaimsSet claims) {
         String jti = claims.getJWTID();
         if (jti == null || jti.isEmpty()) {
             log.error("Missing jti claim");
             throw new InvalidDpopHeaderException();
         }
-        if (cacheUtilService.checkAndMarkJti(jti)) {
+        //proof is accepted only within the iat window, jti is kept till the proof can no longer be accepted
+        Date issueTime = claims.getIssueTime();
+        long now = System.currentTimeMillis();
+        if (issueTime == null || issueTime.getTime() > now + maxClockSkewSeconds * 1000L ||
+                issueTime.getTime() < now - (iatWindowSeconds + maxClockSkewSeconds) * 1000L) {
+            log.error("DPoP proof iat is outside the acceptance window");
+            throw new InvalidDpopHeaderException();
+        }
+        Date expirationTime = new Date(issueTime.getTime() + iatWindowSeconds * 1000L);
+        if (cacheUtilService.checkAndMarkJti(jti, expirationTime, maxClockSkewSeconds)) {
             log.error("Replay detected for jti: {}", jti);
             throw new InvalidDpopHeaderException();
         }
     }
 
-    private void validateAthClaim(JWTClaimsSet claims, String accessToken) {
+    private void validateAthClaim(JWTClaimsSet claims, ParsedCredentialContext credentialContext) {
         try {
             String ath = claims.getStringClaim("ath");
             if (ath == null) {
                 log.error("Missing ath claim");
                 throw new InvalidDpopHeaderException();
             }
-            String hash = IdentityProviderUtil.generateB64EncodedHash(ALGO_SHA_256,accessToken);
+            String hash = credentialContext.getAccessTokenSha256();
             if (!ath.equals(hash)) {
                 log.error("ath claim does not match access token hash. Expected: {}, Actual: {}", hash, ath);
                 throw new DpopNotAuthenticatedException();
@@ -305,26 +405,28 @@ public class DpopValidationFilter extends OncePerRequestFilter {
         }
     }
 
-    public void validateBearerUserinfo(String authHeader) {
+    public ParsedCredentialContext validateBearerUserinfo(String authHeader) {
         if(authHeader == null) throw new NotAuthenticatedException();
         String[] parts = authHeader.split(" ");
         if(parts.length != 2) throw new NotAuthenticatedException();
-        String accessToken = parts[1];
-        if (isDpopBoundAccessToken(accessToken)) {
+        ParsedCredentialContext credentialContext = createCredentialContext(parts[1]);
+        if (isDpopBoundAccessToken(credentialContext)) {
             throw new NotAuthenticatedException();
         }
         if (!authHeader.startsWith(BEARER_PREFIX)) {
             throw new NotAuthenticatedException();
         }
+        return credentialContext;
     }
 
-    public void validateDpopUserinfo(String authHeader, JWTClaimsSet dpopClaims, JWK jwk) {
+    public ParsedCredentialContext validateDpopUserinfo(String authHeader, JWTClaimsSet dpopClaims, String thumbprint) {
         if (authHeader == null || !authHeader.startsWith(DPOP_PREFIX)) {
             throw new DpopNotAuthenticatedException();
         }
-        String accessToken = authHeader.substring(DPOP_PREFIX.length());
-        validateAthClaim(dpopClaims, accessToken);
-        validateCnfClaim(jwk, accessToken);
+        ParsedCredentialContext credentialContext = createCredentialContext(authHeader.substring(DPOP_PREFIX.length()));
+        validateAthClaim(dpopClaims, credentialContext);
+        validateCnfClaim(thumbprint, credentialContext);
+        return credentialContext;
     }
 
 }
\ No newline at end of file
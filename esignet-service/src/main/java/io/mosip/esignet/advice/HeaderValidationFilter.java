@@ -2,14 +2,16 @@ package io.mosip.esignet.advice;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.mosip.esignet.core.constants.Constants;
 import io.mosip.esignet.core.constants.ErrorConstants;
 import io.mosip.esignet.core.dto.Error;
 import io.mosip.esignet.core.dto.OIDCTransaction;
-import io.mosip.esignet.core.dto.ApiRateLimit;
 import io.mosip.esignet.core.dto.ResponseWrapper;
+import io.mosip.esignet.core.dto.TransactionHeader;
 import io.mosip.esignet.core.exception.EsignetException;
 import io.mosip.esignet.core.exception.InvalidTransactionException;
 import io.mosip.esignet.core.util.IdentityProviderUtil;
+import io.mosip.esignet.services.ApiRateLimiter;
 import io.mosip.esignet.services.CacheUtilService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -25,6 +27,7 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.time.Duration;
 import java.util.*;
 
 import static io.mosip.esignet.core.constants.ErrorConstants.INVALID_REQUEST;
@@ -51,6 +54,24 @@ public class HeaderValidationFilter extends OncePerRequestFilter {
     @Value("${mosip.esignet.authenticate.invocation-gap-secs:1}")
     private int authenticateInvocationGapInSeconds;
 
+    @Value("${mosip.esignet.send-otp.individual-id.attempts:0}")
+    private int sendOtpIndividualIdAttempts;
+
+    @Value("${mosip.esignet.authenticate.individual-id.attempts:0}")
+    private int authenticateIndividualIdAttempts;
+
+    @Value("${mosip.esignet.api-rate-limit.individual-id.window-secs:600}")
+    private int individualIdWindowInSeconds;
+
+    @Value("${mosip.esignet.send-otp.client.attempts:0}")
+    private int sendOtpClientAttempts;
+
+    @Value("${mosip.esignet.authenticate.client.attempts:0}")
+    private int authenticateClientAttempts;
+
+    @Value("${mosip.esignet.api-rate-limit.client.window-secs:60}")
+    private int clientWindowInSeconds;
+
     @Autowired
     private CacheUtilService cacheUtilService;
 
@@ -83,17 +104,17 @@ public class HeaderValidationFilter extends OncePerRequestFilter {
             log.debug("Started to validate {} for oauth-details headers", path);
             final String transactionId = request.getHeader(HEADER_OAUTH_DETAILS_KEY);
             final String hashValue = request.getHeader(HEADER_OAUTH_DETAILS_HASH);
-            OIDCTransaction transaction = getTransaction(transactionId, path);
-            if(transaction == null) {
+            TransactionHeader transactionHeader = getTransactionHeader(transactionId, path);
+            if(transactionHeader == null) {
                 throw new InvalidTransactionException();
             }
 
-            if(transaction.getOauthDetailsHash().equals(hashValue)) {
-                validateApiRateLimits(path, transactionId, transaction.getIndividualIdHash());
+            if(transactionHeader.getOauthDetailsHash().equals(hashValue)) {
+                validateApiRateLimits(path, transactionId, transactionHeader);
                 filterChain.doFilter(request, response);
                 return;
             }
-            log.error("oauth-details header validation failed, value in transaction: {}", transaction.getOauthDetailsHash());
+            log.error("oauth-details header validation failed, value in transaction: {}", transactionHeader.getOauthDetailsHash());
             throw new EsignetException(INVALID_REQUEST);
 
         } catch (EsignetException e) {
@@ -124,56 +145,60 @@ public class HeaderValidationFilter extends OncePerRequestFilter {
         return errorCode;
     }
 
-    private void validateApiRateLimits(String path, String transactionId, String individualIdHash) {
+    private void validateApiRateLimits(String path, String transactionId, TransactionHeader transactionHeader) {
         String[] parts = path.split("/");
+        String apiName = parts[parts.length-1];
 
-        ApiRateLimit apiRateLimit = null;
-        try {
-            switch (APICODE_MAP.getOrDefault(parts[parts.length-1], 0)) {
-                case 1:
-                    apiRateLimit = cacheUtilService.getApiRateLimitTransaction(transactionId);
-                    apiRateLimit = checkRateLimit(1, apiRateLimit, sendOtpAttempts, sendOtpInvocationGapInSeconds, individualIdHash);
-                    break;
-                case 2:
-                    apiRateLimit = cacheUtilService.getApiRateLimitTransaction(transactionId);
-                    apiRateLimit = checkRateLimit(2, apiRateLimit, authenticateAttempts, authenticateInvocationGapInSeconds, individualIdHash);
-                    break;
-                case 3:
-                    apiRateLimit = cacheUtilService.getApiRateLimitTransaction(transactionId);
-                    apiRateLimit = checkRateLimit(3, apiRateLimit, 1, 0, individualIdHash);
-                    break;
-            }
-        } finally {
-            if(apiRateLimit != null) {
-                cacheUtilService.saveApiRateLimit(transactionId, apiRateLimit);
-            }
+        switch (APICODE_MAP.getOrDefault(apiName, 0)) {
+            case 1:
+                checkRateLimit(1, apiName, transactionId, sendOtpAttempts, sendOtpInvocationGapInSeconds,
+                        transactionHeader, sendOtpIndividualIdAttempts, sendOtpClientAttempts);
+                break;
+            case 2:
+                checkRateLimit(2, apiName, transactionId, authenticateAttempts, authenticateInvocationGapInSeconds,
+                        transactionHeader, authenticateIndividualIdAttempts, authenticateClientAttempts);
+                break;
+            case 3:
+                checkRateLimit(3, apiName, transactionId, 1, 0, transactionHeader, 0, 0);
+                break;
         }
     }
 
-    private ApiRateLimit checkRateLimit(int apiCode, ApiRateLimit apiRateLimit, int attemptsLimit, int invocationGapInSeconds,
-                                String individualIdHash) {
-        if(apiRateLimit == null) {
-            apiRateLimit = new ApiRateLimit();
+    //Attempts are limited per transaction, and optionally per individual across the transactions once the
+    //individual is known in the transaction and per client across all its transactions. Limits of all the scopes are
+    //checked and recorded as a single atomic operation in the rate limiter, an invocation rejected by one scope is
+    //not counted against the others.
+    private void checkRateLimit(int apiCode, String apiName, String transactionId, int attemptsLimit,
+                                int invocationGapInSeconds, TransactionHeader transactionHeader,
+                                int individualIdAttemptsLimit, int clientAttemptsLimit) {
+        String individualIdHash = transactionHeader.getIndividualIdHash();
+        List<ApiRateLimiter.Limit> limits = new ArrayList<>();
+        limits.add(new ApiRateLimiter.Limit(String.join(":", apiName, "transaction", transactionId),
+                attemptsLimit, invocationGapInSeconds, null));
+        if(individualIdHash != null && individualIdAttemptsLimit > 0) {
+            limits.add(new ApiRateLimiter.Limit(String.join(":", apiName, "individual", individualIdHash),
+                    individualIdAttemptsLimit, 0, Duration.ofSeconds(individualIdWindowInSeconds)));
         }
-        apiRateLimit.increment(apiCode);
-        if(apiRateLimit.getCount().get(apiCode) > attemptsLimit) {
-            blockIndividualId(apiCode,individualIdHash);
-            throw new EsignetException(ErrorConstants.NO_ATTEMPTS_LEFT);
+        ApiRateLimiter.Limit clientLimit = null;
+        if(transactionHeader.getClientId() != null && clientAttemptsLimit > 0) {
+            clientLimit = new ApiRateLimiter.Limit(String.join(":", apiName, "client", transactionHeader.getClientId()),
+                    clientAttemptsLimit, 0, Duration.ofSeconds(clientWindowInSeconds));
+            limits.add(clientLimit);
         }
 
-        //Reason for invocation time gap check is to deny bot actions, but if we introduce incremental blockage
-        //of the individual on wrong attempts - by itself could be a way to mitigate bot actions. TBD
-        //TODO Need enhance this logic to handle invocation gaps w.r.t auth-factor used in authenticate request
-        //TODO Logic to check invocation gaps between send-otp and authenticate endpoints
-        /*try {
-            long currentTimeInSeconds = System.currentTimeMillis()/1000;
-            if((currentTimeInSeconds - apiRateLimit.getLastInvocation().get(apiCode)) < invocationGapInSeconds) {
+        ApiRateLimiter.Decision decision = cacheUtilService.checkAndRecordApiInvocation(limits);
+        switch (decision.getResult()) {
+            case LIMIT_EXCEEDED:
+                //client limit is shared by all the users of the client, individual is not blocked when it is exceeded
+                if(limits.get(decision.getLimitIndex()) != clientLimit) {
+                    blockIndividualId(apiCode, individualIdHash);
+                }
+                throw new EsignetException(ErrorConstants.NO_ATTEMPTS_LEFT);
+            case TOO_EARLY:
                 throw new EsignetException(ErrorConstants.TOO_EARLY_ATTEMPT);
-            }
-        } finally {
-            apiRateLimit.updateLastInvocation(apiCode);
-        }*/
-        return apiRateLimit;
+            default:
+                break;
+        }
     }
 
     //It is not required to block individualId for requesting claim-details more than once
@@ -189,14 +214,31 @@ public class HeaderValidationFilter extends OncePerRequestFilter {
         }
     }
 
-    private OIDCTransaction getTransaction(String transactionId, String requestUri) {
+    //Only the header fields of the transaction are read, full transaction is read only if the header is not cached
+    //or the cached header is not in the state expected for the request uri
+    private TransactionHeader getTransactionHeader(String transactionId, String requestUri) {
+        String state = getTransactionState(requestUri);
+        TransactionHeader transactionHeader = cacheUtilService.getTransactionHeader(transactionId);
+        if(transactionHeader != null && state.equals(transactionHeader.getState()))
+            return transactionHeader;
+
+        OIDCTransaction transaction = switch (state) {
+            case Constants.AUTHENTICATED_CACHE -> cacheUtilService.getAuthenticatedTransaction(transactionId);
+            case Constants.HALTED_CACHE -> cacheUtilService.getHaltedTransaction(transactionId);
+            default -> cacheUtilService.getPreAuthTransaction(transactionId);
+        };
+        return transaction == null ? null : new TransactionHeader(transaction.getOauthDetailsHash(),
+                transaction.getIndividualIdHash(), state, transaction.getClientId());
+    }
+
+    private String getTransactionState(String requestUri) {
         if(requestUri.endsWith("auth-code") || requestUri.endsWith("prepare-signup-redirect") ||
                 requestUri.endsWith("claim-details")) {
-            return cacheUtilService.getAuthenticatedTransaction(transactionId);
+            return Constants.AUTHENTICATED_CACHE;
         }
         if(requestUri.endsWith("complete-signup-redirect")) {
-            return cacheUtilService.getHaltedTransaction(transactionId);
+            return Constants.HALTED_CACHE;
         }
-        return cacheUtilService.getPreAuthTransaction(transactionId);
+        return Constants.PRE_AUTH_SESSION_CACHE;
     }
 }
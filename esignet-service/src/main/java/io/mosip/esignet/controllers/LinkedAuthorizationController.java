@@ -19,15 +19,19 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.MessageSource;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import jakarta.validation.Valid;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Locale;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 
 @Slf4j
@@ -35,6 +39,11 @@ import java.util.function.Consumer;
 @RequestMapping("/linked-authorization")
 public class LinkedAuthorizationController {
 
+    private static final String LINK_STATUS_EVENT = "link-status";
+    private static final String LINK_AUTH_CODE_EVENT = "link-auth-code";
+    private static final String LINK_EVENT_ERROR = "error";
+    private static final Object RELEASED_RESULT = new Object();
+
     @Autowired
     private LinkedAuthorizationService linkedAuthorizationService;
 
@@ -50,6 +59,9 @@ public class LinkedAuthorizationController {
     @Value("${mosip.esignet.link-auth-code-deferred-response-timeout-secs:25}")
     private long linkAuthCodeDeferredResponseTimeout;
 
+    @Value("${mosip.esignet.link-events-timeout-secs:120}")
+    private long linkEventsTimeout;
+
     @PostMapping("/link-code")
     public ResponseWrapper<LinkCodeResponse> generateLinkCode(@Valid @RequestBody RequestWrapper<LinkCodeRequest>
                                                                       requestWrapper) throws EsignetException {
@@ -208,6 +220,88 @@ public class LinkedAuthorizationController {
         return deferredResult;
     }
 
+    /**
+     * Streams link-status and link-auth-code responses over one connection, in the same order as the
+     * link-status and link-auth-code long-poll endpoints. Stream is completed after the link-auth-code event or
+     * after the first error event, errors are also sent as events.
+     */
+    @PostMapping(value = "/link-events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter getLinkEvents(@Valid @RequestBody RequestWrapper<LinkAuthCodeRequest> requestWrapper) {
+        LinkAuthCodeRequest linkAuthCodeRequest = requestWrapper.getRequest();
+        LinkStatusRequest linkStatusRequest = new LinkStatusRequest();
+        linkStatusRequest.setTransactionId(linkAuthCodeRequest.getTransactionId());
+        linkStatusRequest.setLinkCode(linkAuthCodeRequest.getLinkedCode());
+
+        SseEmitter sseEmitter = new SseEmitter(linkEventsTimeout*1000);
+        AtomicReference<DeferredResult> pendingResult = new AtomicReference<>();
+        //pending result is marked as set, so that it is dropped from the waiting requests
+        Runnable releasePendingResult = () -> {
+            DeferredResult deferredResult = pendingResult.getAndSet(null);
+            if(deferredResult != null)
+                deferredResult.setErrorResult(RELEASED_RESULT);
+        };
+        sseEmitter.onTimeout(() -> {
+            releasePendingResult.run();
+            sendLinkEvent(sseEmitter, LINK_EVENT_ERROR, getErrorResponse(ErrorConstants.RESPONSE_TIMEOUT));
+            sseEmitter.complete();
+        });
+        sseEmitter.onError(throwable -> releasePendingResult.run());
+        sseEmitter.onCompletion(releasePendingResult);
+
+        DeferredResult linkStatusResult = new DeferredResult<>();
+        pendingResult.set(linkStatusResult);
+        linkStatusResult.setResultHandler(linkStatusResponse -> {
+            if(linkStatusResponse == RELEASED_RESULT || !pendingResult.compareAndSet(linkStatusResult, null))
+                return;
+            sendLinkEvent(sseEmitter, LINK_STATUS_EVENT, linkStatusResponse);
+
+            DeferredResult linkAuthCodeResult = new DeferredResult<>();
+            pendingResult.set(linkAuthCodeResult);
+            linkAuthCodeResult.setResultHandler(linkAuthCodeResponse -> {
+                if(linkAuthCodeResponse == RELEASED_RESULT || !pendingResult.compareAndSet(linkAuthCodeResult, null))
+                    return;
+                sendLinkEvent(sseEmitter, LINK_AUTH_CODE_EVENT, linkAuthCodeResponse);
+                sseEmitter.complete();
+            });
+            //Handler runs on the thread completing the link status result, any failure here must end the stream
+            try {
+                linkedAuthorizationService.getLinkAuthCode(linkAuthCodeResult, linkAuthCodeRequest);
+            } catch (Exception ex) {
+                auditWrapper.logAudit(Action.LINK_AUTH_CODE, ActionStatus.ERROR, AuditHelper.buildAuditDto(linkAuthCodeRequest.getTransactionId(), null), ex);
+                pendingResult.set(null);
+                sendLinkEvent(sseEmitter, LINK_EVENT_ERROR, getErrorResponse(ex instanceof EsignetException esignetException ?
+                        esignetException.getErrorCode() : ErrorConstants.UNKNOWN_ERROR));
+                sseEmitter.complete();
+            }
+        });
+
+        try {
+            linkedAuthorizationService.getLinkStatus(linkStatusResult, linkStatusRequest);
+        } catch (EsignetException ex) {
+            auditWrapper.logAudit(Action.LINK_STATUS, ActionStatus.ERROR, AuditHelper.buildAuditDto(linkAuthCodeRequest.getTransactionId(), null), ex);
+            pendingResult.set(null);
+            sendLinkEvent(sseEmitter, LINK_EVENT_ERROR, getErrorResponse(ex.getErrorCode()));
+            sseEmitter.complete();
+        }
+        return sseEmitter;
+    }
+
+    private void sendLinkEvent(SseEmitter sseEmitter, String eventName, Object response) {
+        try {
+            sseEmitter.send(SseEmitter.event().name(eventName).data(response, MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException e) {
+            log.error("Failed to send {} event", eventName, e);
+        }
+    }
+
+    private ResponseWrapper getErrorResponse(String errorCode) {
+        ResponseWrapper responseWrapper = new ResponseWrapper();
+        responseWrapper.setResponseTime(IdentityProviderUtil.getUTCDateTime());
+        responseWrapper.setErrors(new ArrayList<>());
+        responseWrapper.getErrors().add(new Error(errorCode, messageSource.getMessage(errorCode, null, Locale.getDefault())));
+        return responseWrapper;
+    }
+
     private void setTimeoutHandler(DeferredResult deferredResult) {
         deferredResult.onTimeout(new Runnable() {
             @Override
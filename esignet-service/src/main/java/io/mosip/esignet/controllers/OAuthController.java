@@ -5,18 +5,24 @@
  */
 package io.mosip.esignet.controllers;
 
-import java.util.Map;
 import jakarta.validation.Valid;
 import jakarta.validation.Validator;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.mosip.esignet.core.constants.Constants;
 import io.mosip.esignet.core.dto.*;
+import io.mosip.esignet.core.util.CachedSerializedDocument;
 import io.mosip.esignet.services.AuthorizationHelperService;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import io.mosip.esignet.api.spi.AuditPlugin;
@@ -45,6 +51,31 @@ public class OAuthController {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Value("${mosip.esignet.jwks.refresh-interval-seconds:30}")
+    private int jwksRefreshIntervalSeconds;
+
+    @Value("${mosip.esignet.jwks.max-age-seconds:60}")
+    private int jwksMaxAgeSeconds;
+
+    @Value("${mosip.esignet.discovery.max-age-seconds:3600}")
+    private int discoveryMaxAgeSeconds;
+
+    private CachedSerializedDocument jwksDocument;
+    private CachedSerializedDocument discoveryDocument;
+
+    /**
+     * Signing key change event is published only on the node where the key is changed, other nodes pick the new key
+     * on the next refresh. Hence, a JWKS served by any node is at most refresh interval plus max-age old.
+     * Discovery info is built from the static configuration, hence rendered only once.
+     */
+    @PostConstruct
+    public void init() {
+        jwksDocument = new CachedSerializedDocument("jwks", objectMapper, oAuthService::getJwks,
+                jwksRefreshIntervalSeconds);
+        discoveryDocument = new CachedSerializedDocument("oauth-authorization-server", objectMapper,
+                oAuthService::getOAuthServerDiscoveryInfo, 0);
+    }
+
     @PostMapping(value = "/token", consumes = {MediaType.APPLICATION_FORM_URLENCODED_VALUE},
             produces = {MediaType.APPLICATION_JSON_VALUE})
     public TokenResponse getToken(@Valid @ModelAttribute TokenRequest tokenRequest) {
@@ -87,14 +118,24 @@ public class OAuthController {
 
     @GetMapping(value= "/.well-known/jwks.json", produces = "application/json")
     @CrossOrigin(origins = "*")
-    public Map<String, Object> getAllJwks() {
-        return oAuthService.getJwks();
+    public ResponseEntity<byte[]> getAllJwks(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return jwksDocument.toResponseEntity(ifNoneMatch, jwksMaxAgeSeconds);
     }
 
     @GetMapping(value= "/.well-known/oauth-authorization-server", produces = "application/json")
     @CrossOrigin(origins = "*")
-    public Map<String, Object> getOAuthServerDiscoveryInfo() {
-        return oAuthService.getOAuthServerDiscoveryInfo();
+    public ResponseEntity<byte[]> getOAuthServerDiscoveryInfo(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return discoveryDocument.toResponseEntity(ifNoneMatch, discoveryMaxAgeSeconds);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        discoveryDocument.get();
+    }
+
+    @EventListener
+    public void onSigningKeyChanged(SigningKeyChangedEvent event) {
+        jwksDocument.invalidate();
     }
 
 }
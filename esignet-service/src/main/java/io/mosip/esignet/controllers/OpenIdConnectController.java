@@ -5,14 +5,21 @@
  */
 package io.mosip.esignet.controllers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.mosip.esignet.core.constants.Constants;
 import io.mosip.esignet.core.exception.EsignetException;
 import io.mosip.esignet.core.spi.OpenIdConnectService;
+import io.mosip.esignet.core.util.CachedSerializedDocument;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.Map;
 
 @Slf4j
 @RestController
@@ -22,6 +29,23 @@ public class OpenIdConnectController {
     @Autowired
     private OpenIdConnectService openIdConnectService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${mosip.esignet.discovery.max-age-seconds:3600}")
+    private int discoveryMaxAgeSeconds;
+
+    private CachedSerializedDocument discoveryDocument;
+
+    /**
+     * OpenID configuration is built from the static configuration, hence rendered only once.
+     */
+    @PostConstruct
+    public void init() {
+        discoveryDocument = new CachedSerializedDocument("openid-configuration", objectMapper,
+                openIdConnectService::getOpenIdConfiguration, 0);
+    }
+
     /**
      * 1. The UserInfo Endpoint MUST accept Access Tokens
      * 2. The UserInfo Endpoint SHOULD support the use of Cross Origin Resource Sharing (CORS) [CORS] and or other methods
@@ -37,7 +61,12 @@ public class OpenIdConnectController {
     
     @GetMapping(value = "/.well-known/openid-configuration", produces = "application/json")
     @CrossOrigin(origins = "*")
-    public Map<String, Object> getDiscoveryEndpoints() {
-        return openIdConnectService.getOpenIdConfiguration();
+    public ResponseEntity<byte[]> getDiscoveryEndpoints(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return discoveryDocument.toResponseEntity(ifNoneMatch, discoveryMaxAgeSeconds);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        discoveryDocument.get();
     }
 }
@@ -11,6 +11,7 @@ import io.mosip.esignet.api.util.ActionStatus;
 import io.mosip.esignet.core.constants.ErrorConstants;
 import io.mosip.esignet.core.dto.RequestWrapper;
 import io.mosip.esignet.core.dto.ResponseWrapper;
+import io.mosip.esignet.core.dto.SigningKeyChangedEvent;
 import io.mosip.esignet.core.exception.EsignetException;
 import io.mosip.esignet.core.util.AuditHelper;
 import io.mosip.esignet.core.util.IdentityProviderUtil;
@@ -21,6 +22,7 @@ import io.mosip.kernel.keymanagerservice.service.KeymanagerService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
@@ -41,6 +43,9 @@ public class SystemInfoController {
     
     @Autowired
     AuditPlugin auditWrapper;
+
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
     
     @Value("${mosip.esignet.audit.claim-name:preferred_username}")
     private String claimName;
@@ -70,6 +75,7 @@ public class SystemInfoController {
         UploadCertificateRequestDto uploadCertificateRequestDto = requestWrapper.getRequest();
         try {
         	responseWrapper.setResponse(keymanagerService.uploadCertificate(uploadCertificateRequestDto));
+        	applicationEventPublisher.publishEvent(new SigningKeyChangedEvent(uploadCertificateRequestDto.getApplicationId()));
         } catch (EsignetException ex) {
         	auditWrapper.logAudit(AuditHelper.getClaimValue(SecurityContextHolder.getContext(), claimName),
 					Action.UPLOAD_CERTIFICATE, ActionStatus.ERROR, AuditHelper.buildAuditDto(null), ex);
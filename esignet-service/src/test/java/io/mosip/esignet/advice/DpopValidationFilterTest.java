@@ -3,11 +3,17 @@ package io.mosip.esignet.advice;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.nimbusds.jose.*;
 import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.crypto.RSASSASigner;
 import com.nimbusds.jose.jwk.*;
 import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
 import com.nimbusds.jose.util.Base64URL;
 import com.nimbusds.jwt.*;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.mosip.esignet.core.constants.Constants;
 import io.mosip.esignet.core.constants.ErrorConstants;
+import io.mosip.esignet.core.dto.ParsedCredentialContext;
 import io.mosip.esignet.core.util.IdentityProviderUtil;
 import io.mosip.esignet.services.CacheUtilService;
 import lombok.extern.slf4j.Slf4j;
@@ -61,15 +67,18 @@ public class DpopValidationFilterTest {
 
         accessToken = generateAccessTokenForUserinfo(true);
 
-        when(cacheUtilService.checkAndMarkJti(anyString())).thenReturn(false);
+        when(cacheUtilService.checkAndMarkJti(anyString(), any(), anyInt())).thenReturn(false);
         ReflectionTestUtils.setField(filter, "discoveryMap", Map.ofEntries(
-                Map.entry("dpop_signing_alg_values_supported", Arrays.asList("ES256", "RS256")),
+                Map.entry("dpop_signing_alg_values_supported", Arrays.asList("ES256", "RS256", "PS256")),
                 Map.entry("pushed_authorization_request_endpoint", "http://localhost/oauth/par"),
                 Map.entry("token_endpoint", "http://localhost/oauth/token"),
                 Map.entry("userinfo_endpoint", "http://localhost/oidc/userinfo")
         ));
 
         ReflectionTestUtils.setField(filter, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(filter, "verifierCacheMaxSize", 10);
+        ReflectionTestUtils.setField(filter, "iatWindowSeconds", 60);
+        filter.init();
     }
 
     private String createDpopJwtWithAllClaims(String httpMethod, String htuClaim, String accessToken, boolean withAth) throws Exception {
@@ -137,6 +146,30 @@ public class DpopValidationFilterTest {
         assertEquals(200, response.getStatus());
     }
 
+    @Test
+    public void testDpopHeader_withUserinfoPath_thenParsedCredentialContextSet() throws Exception {
+        String dpopJwt = createDpopJwtWithAllClaims("GET", "http://localhost/oidc/userinfo", accessToken, true);
+
+        request.setRequestURI("/oidc/userinfo");
+        request.addHeader("DPoP", dpopJwt);
+        addAuthorizationHeader(request, accessToken);
+        request.setMethod("GET");
+
+        filter.doFilterInternal(request, response, filterChain);
+
+        verify(filterChain).doFilter(request, response);
+        ParsedCredentialContext credentialContext = (ParsedCredentialContext) request.getAttribute(Constants.PARSED_CREDENTIAL_CONTEXT);
+        assertNotNull(credentialContext);
+        assertEquals(accessToken, credentialContext.getAccessToken());
+        assertEquals(accessToken, credentialContext.getAccessTokenJwt().getParsedString());
+        assertEquals(dpopJwt, credentialContext.getDpopProof().getParsedString());
+        assertEquals("GET", credentialContext.getDpopClaims().getStringClaim("htm"));
+        assertEquals(ecJwk.toPublicJWK().computeThumbprint().toString(), credentialContext.getJwkThumbprint());
+        assertEquals(IdentityProviderUtil.generateB64EncodedHash(IdentityProviderUtil.ALGO_SHA_256, accessToken),
+                credentialContext.getAccessTokenSha256());
+        assertEquals(IdentityProviderUtil.generateOIDCAtHash(accessToken), credentialContext.getAccessTokenAtHash());
+    }
+
     @Test
     public void testDpopHeader_replayDetection_thenFail() throws Exception {
         String dpopJwt = createDpopJwtWithAllClaims("GET", "http://localhost/oidc/userinfo", accessToken, true);
@@ -146,7 +179,7 @@ public class DpopValidationFilterTest {
         addAuthorizationHeader(request, accessToken);
         request.setMethod("GET");
 
-        when(cacheUtilService.checkAndMarkJti(anyString())).thenReturn(true); // simulate replay
+        when(cacheUtilService.checkAndMarkJti(anyString(), any(), anyInt())).thenReturn(true); // simulate replay
 
         filter.doFilterInternal(request, response, filterChain);
 
@@ -155,6 +188,46 @@ public class DpopValidationFilterTest {
         verify(filterChain, never()).doFilter(any(), any());
     }
 
+    @Test
+    public void testDpopHeader_jtiMarkedTillEndOfIatWindow_thenPass() throws Exception {
+        String dpopJwt = createDpopJwtWithAllClaims("GET", "http://localhost/oidc/userinfo", accessToken, true);
+        Date issueTime = SignedJWT.parse(dpopJwt).getJWTClaimsSet().getIssueTime();
+
+        request.setRequestURI("/oidc/userinfo");
+        request.addHeader("DPoP", dpopJwt);
+        addAuthorizationHeader(request, accessToken);
+        request.setMethod("GET");
+
+        filter.doFilterInternal(request, response, filterChain);
+
+        verify(cacheUtilService).checkAndMarkJti(anyString(), eq(new Date(issueTime.getTime() + 60000L)), anyInt());
+        verify(filterChain).doFilter(any(), any());
+    }
+
+    @Test
+    public void testDpopHeader_withIatOutsideWindow_thenFail() throws Exception {
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .jwtID(UUID.randomUUID().toString())
+                .claim("htm", "POST")
+                .claim("htu", "http://localhost/oauth/par")
+                .issueTime(Date.from(Instant.now().minusSeconds(120)))
+                .build();
+        SignedJWT signedJWT = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.ES256)
+                .type(new JOSEObjectType("dpop+jwt"))
+                .jwk(ecJwk.toPublicJWK()).build(), claims);
+        signedJWT.sign(new ECDSASigner(ecJwk.toECPrivateKey()));
+
+        request.setRequestURI("/oauth/par");
+        request.addHeader("DPoP", signedJWT.serialize());
+        request.setMethod("POST");
+
+        filter.doFilterInternal(request, response, filterChain);
+
+        assertEquals(400, response.getStatus());
+        verify(cacheUtilService, never()).checkAndMarkJti(anyString(), any(), anyInt());
+        verify(filterChain, never()).doFilter(any(), any());
+    }
+
     @Test
     public void testDpopHeader_mismatchedHttpMethodInHtmClaim_thenFail() throws Exception {
         String dpopJwt = createDpopJwtWithAllClaims("POST", "http://localhost/oidc/userinfo", accessToken, true);
@@ -247,6 +320,10 @@ public class DpopValidationFilterTest {
 
         verify(filterChain).doFilter(request, response);
         assertEquals(200, response.getStatus());
+        ParsedCredentialContext credentialContext = (ParsedCredentialContext) request.getAttribute(Constants.PARSED_CREDENTIAL_CONTEXT);
+        assertEquals(accessTokenWithoutCnf, credentialContext.getAccessTokenJwt().getParsedString());
+        assertEquals(IdentityProviderUtil.generateOIDCAtHash(accessTokenWithoutCnf), credentialContext.getAccessTokenAtHash());
+        assertNull(credentialContext.getDpopClaims());
     }
 
     @Test
@@ -305,6 +382,62 @@ public class DpopValidationFilterTest {
         assertEquals(200, response.getStatus());
     }
 
+    @Test
+    public void testDpopHeader_withSameKey_thenVerifierReused() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        Metrics.addRegistry(meterRegistry);
+        try {
+            for (int i = 0; i < 3; i++) {
+                assertEquals(200, filterParRequest(createParDpopJwt(ecJwk.toPublicJWK(), JWSAlgorithm.ES256,
+                        new ECDSASigner(ecJwk.toECPrivateKey()))));
+            }
+            RSAKey rsaJwk = new RSAKeyGenerator(2048).generate();
+            assertEquals(200, filterParRequest(createParDpopJwt(rsaJwk.toPublicJWK(), JWSAlgorithm.PS256,
+                    new RSASSASigner(rsaJwk))));
+
+            assertEquals(2, meterRegistry.get("esignet.dpop.verifier.cache").tag("result", "miss").counter().count());
+            assertEquals(2, meterRegistry.get("esignet.dpop.verifier.cache").tag("result", "hit").counter().count());
+        } finally {
+            Metrics.removeRegistry(meterRegistry);
+        }
+    }
+
+    @Test
+    public void testDpopHeader_withCachedVerifierAndInvalidSignature_thenFail() throws Exception {
+        assertEquals(200, filterParRequest(createParDpopJwt(ecJwk.toPublicJWK(), JWSAlgorithm.ES256,
+                new ECDSASigner(ecJwk.toECPrivateKey()))));
+
+        ECKey otherJwk = new ECKeyGenerator(Curve.P_256).generate();
+        String forgedDpopJwt = createParDpopJwt(ecJwk.toPublicJWK(), JWSAlgorithm.ES256, new ECDSASigner(otherJwk.toECPrivateKey()));
+        assertEquals(400, filterParRequest(forgedDpopJwt));
+    }
+
+    private String createParDpopJwt(JWK publicJwk, JWSAlgorithm algorithm, JWSSigner signer) throws Exception {
+        JWSHeader header = new JWSHeader.Builder(algorithm)
+                .type(new JOSEObjectType("dpop+jwt"))
+                .jwk(publicJwk)
+                .build();
+        JWTClaimsSet claimsSet = new JWTClaimsSet.Builder()
+                .jwtID(UUID.randomUUID().toString())
+                .claim("htm", "POST")
+                .claim("htu", "http://localhost/oauth/par")
+                .issueTime(Date.from(Instant.now()))
+                .build();
+        SignedJWT signedJWT = new SignedJWT(header, claimsSet);
+        signedJWT.sign(signer);
+        return signedJWT.serialize();
+    }
+
+    private int filterParRequest(String dpopJwt) throws Exception {
+        MockHttpServletRequest parRequest = new MockHttpServletRequest();
+        MockHttpServletResponse parResponse = new MockHttpServletResponse();
+        parRequest.setRequestURI("/oauth/par");
+        parRequest.addHeader("DPoP", dpopJwt);
+        parRequest.setMethod("POST");
+        filter.doFilterInternal(parRequest, parResponse, filterChain);
+        return parResponse.getStatus();
+    }
+
     @Test
     public void testUserinfoPath_withoutAuthorizationHeader_thenFail() throws Exception {
         request.setRequestURI("/oidc/userinfo");
@@ -1,16 +1,17 @@
 package io.mosip.esignet.advice;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.mosip.esignet.core.constants.Constants;
 import io.mosip.esignet.core.constants.ErrorConstants;
-import io.mosip.esignet.core.dto.ApiRateLimit;
 import io.mosip.esignet.core.dto.Error;
 import io.mosip.esignet.core.dto.OIDCTransaction;
 import io.mosip.esignet.core.dto.ResponseWrapper;
+import io.mosip.esignet.core.dto.TransactionHeader;
+import io.mosip.esignet.services.ApiRateLimiter;
 import io.mosip.esignet.services.CacheUtilService;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
-import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -25,7 +26,9 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.List;
 
 import static org.mockito.Mockito.*;
 
@@ -57,6 +60,7 @@ public class HeaderValidationFilterTest {
         ReflectionTestUtils.setField(headerValidationFilter, "sendOtpAttempts", 3);
         ReflectionTestUtils.setField(headerValidationFilter, "sendOtpInvocationGapInSeconds", 3);
         ReflectionTestUtils.setField(headerValidationFilter, "authenticateInvocationGapInSeconds", 3);
+        ReflectionTestUtils.setField(headerValidationFilter, "individualIdWindowInSeconds", 600);
     }
 
     @Test
@@ -130,6 +134,41 @@ public class HeaderValidationFilterTest {
         verify(cacheUtilService, times(1)).getAuthenticatedTransaction("oauth-details-key");
     }
 
+    @Test
+    public void doFilter_withCachedTransactionHeader_thenPass() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRequestURI("/v1/esignet/authorization/auth-code");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        when(cacheUtilService.getTransactionHeader("oauth-details-key")).thenReturn(new TransactionHeader("oauth-details-hash",
+                null, Constants.AUTHENTICATED_CACHE, null));
+        request.addHeader("oauth-details-hash", "oauth-details-hash");
+        request.addHeader("oauth-details-key", "oauth-details-key");
+
+        headerValidationFilter.doFilterInternal(request, response, filterChain);
+        verify(filterChain, times(1)).doFilter(request, response);
+        verify(cacheUtilService, times(0)).getAuthenticatedTransaction("oauth-details-key");
+    }
+
+    @Test
+    public void doFilter_withTransactionHeaderInOtherState_thenFail() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRequestURI("/v1/esignet/authorization/auth-code");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        when(cacheUtilService.getTransactionHeader("oauth-details-key")).thenReturn(new TransactionHeader("oauth-details-hash",
+                null, Constants.PRE_AUTH_SESSION_CACHE, null));
+        when(cacheUtilService.getAuthenticatedTransaction("oauth-details-key")).thenReturn(null);
+        request.addHeader("oauth-details-hash", "oauth-details-hash");
+        request.addHeader("oauth-details-key", "oauth-details-key");
+
+        headerValidationFilter.doFilterInternal(request, response, filterChain);
+        ResponseWrapper responseWrapper = objectMapper.readValue(response.getContentAsString(), ResponseWrapper.class);
+        Assertions.assertNotNull(responseWrapper.getErrors());
+        Assertions.assertEquals(ErrorConstants.INVALID_TRANSACTION, ((Error) responseWrapper.getErrors().getFirst()).getErrorCode());
+        verify(filterChain, times(0)).doFilter(request, response);
+    }
+
     @Test
     public void doFilter_withinApiRateLimit_thenPass() throws ServletException, IOException {
         MockHttpServletRequest request = new MockHttpServletRequest();
@@ -141,11 +180,14 @@ public class HeaderValidationFilterTest {
         OIDCTransaction oidcTransaction = new OIDCTransaction();
         oidcTransaction.setOauthDetailsHash("oauth-details-hash");
         when(cacheUtilService.getPreAuthTransaction("oauth-details-key")).thenReturn(oidcTransaction);
+        when(cacheUtilService.checkAndRecordApiInvocation(List.of(new ApiRateLimiter.Limit("send-otp:transaction:oauth-details-key", 3, 3, null))))
+                .thenReturn(new ApiRateLimiter.Decision(ApiRateLimiter.Result.ALLOWED, -1));
 
         headerValidationFilter.doFilterInternal(request, response, filterChain);
         verify(cacheUtilService, times(1)).getPreAuthTransaction("oauth-details-key");
         verify(cacheUtilService, times(0)).getAuthenticatedTransaction("oauth-details-key");
-        verify(cacheUtilService, times(1)).getApiRateLimitTransaction("oauth-details-key");
+        verify(cacheUtilService, times(1)).checkAndRecordApiInvocation(List.of(new ApiRateLimiter.Limit("send-otp:transaction:oauth-details-key", 3, 3, null)));
+        verify(filterChain, times(1)).doFilter(request, response);
     }
 
     @Test
@@ -160,25 +202,20 @@ public class HeaderValidationFilterTest {
         oidcTransaction.setOauthDetailsHash("oauth-details-hash");
         oidcTransaction.setIndividualIdHash("test");
         when(cacheUtilService.getPreAuthTransaction("oauth-details-key")).thenReturn(oidcTransaction);
-        ApiRateLimit apiRateLimit = new ApiRateLimit();
-        apiRateLimit.increment(1);
-        apiRateLimit.increment(1);
-        apiRateLimit.increment(1);
-        when(cacheUtilService.getApiRateLimitTransaction("oauth-details-key")).thenReturn(apiRateLimit);
+        when(cacheUtilService.checkAndRecordApiInvocation(List.of(new ApiRateLimiter.Limit("send-otp:transaction:oauth-details-key", 3, 3, null))))
+                .thenReturn(new ApiRateLimiter.Decision(ApiRateLimiter.Result.LIMIT_EXCEEDED, 0));
 
         headerValidationFilter.doFilterInternal(request, response, filterChain);
         verify(cacheUtilService, times(1)).getPreAuthTransaction("oauth-details-key");
         verify(cacheUtilService, times(0)).getAuthenticatedTransaction("oauth-details-key");
-        verify(cacheUtilService, times(1)).getApiRateLimitTransaction("oauth-details-key");
         verify(cacheUtilService, times(1)).blockIndividualId("test");
-        verify(cacheUtilService, times(1)).saveApiRateLimit("oauth-details-key", apiRateLimit);
+        verify(filterChain, never()).doFilter(request, response);
 
         ResponseWrapper responseWrapper = objectMapper.readValue(response.getContentAsString(), ResponseWrapper.class);
         Assertions.assertNotNull(responseWrapper.getErrors());
         Assertions.assertEquals(ErrorConstants.NO_ATTEMPTS_LEFT, ((Error) responseWrapper.getErrors().getFirst()).getErrorCode());
     }
 
-    @Disabled
     @Test
     public void doFilter_exceedInvocationGapLimit_thenFail() throws ServletException, IOException {
         MockHttpServletRequest request = new MockHttpServletRequest();
@@ -191,19 +228,87 @@ public class HeaderValidationFilterTest {
         oidcTransaction.setOauthDetailsHash("oauth-details-hash");
         oidcTransaction.setIndividualIdHash("test");
         when(cacheUtilService.getPreAuthTransaction("oauth-details-key")).thenReturn(oidcTransaction);
-        ApiRateLimit apiRateLimit = new ApiRateLimit();
-        apiRateLimit.increment(2);
-        apiRateLimit.updateLastInvocation(2);
-        when(cacheUtilService.getApiRateLimitTransaction("oauth-details-key")).thenReturn(apiRateLimit);
+        when(cacheUtilService.checkAndRecordApiInvocation(List.of(new ApiRateLimiter.Limit("authenticate:transaction:oauth-details-key", 3, 3, null))))
+                .thenReturn(new ApiRateLimiter.Decision(ApiRateLimiter.Result.TOO_EARLY, 0));
 
         headerValidationFilter.doFilterInternal(request, response, filterChain);
         verify(cacheUtilService, times(1)).getPreAuthTransaction("oauth-details-key");
         verify(cacheUtilService, times(0)).getAuthenticatedTransaction("oauth-details-key");
-        verify(cacheUtilService, times(1)).getApiRateLimitTransaction("oauth-details-key");
-        verify(cacheUtilService, times(1)).saveApiRateLimit("oauth-details-key", apiRateLimit);
+        verify(cacheUtilService, never()).blockIndividualId("test");
+        verify(filterChain, never()).doFilter(request, response);
 
         ResponseWrapper responseWrapper = objectMapper.readValue(response.getContentAsString(), ResponseWrapper.class);
         Assertions.assertNotNull(responseWrapper.getErrors());
         Assertions.assertEquals(ErrorConstants.TOO_EARLY_ATTEMPT, ((Error) responseWrapper.getErrors().getFirst()).getErrorCode());
     }
+
+    @Test
+    public void doFilter_exceedIndividualIdApiRateLimit_thenFail() throws ServletException, IOException {
+        ReflectionTestUtils.setField(headerValidationFilter, "sendOtpIndividualIdAttempts", 5);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRequestURI("/v1/esignet/authorization/send-otp");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        request.addHeader("oauth-details-hash", "oauth-details-hash");
+        request.addHeader("oauth-details-key", "oauth-details-key");
+
+        OIDCTransaction oidcTransaction = new OIDCTransaction();
+        oidcTransaction.setOauthDetailsHash("oauth-details-hash");
+        oidcTransaction.setIndividualIdHash("test");
+        when(cacheUtilService.getPreAuthTransaction("oauth-details-key")).thenReturn(oidcTransaction);
+        when(cacheUtilService.checkAndRecordApiInvocation(List.of(new ApiRateLimiter.Limit("send-otp:transaction:oauth-details-key", 3, 3, null),
+                new ApiRateLimiter.Limit("send-otp:individual:test", 5, 0, Duration.ofSeconds(600)))))
+                .thenReturn(new ApiRateLimiter.Decision(ApiRateLimiter.Result.LIMIT_EXCEEDED, 1));
+
+        headerValidationFilter.doFilterInternal(request, response, filterChain);
+        verify(cacheUtilService, times(1)).blockIndividualId("test");
+        verify(filterChain, never()).doFilter(request, response);
+
+        ResponseWrapper responseWrapper = objectMapper.readValue(response.getContentAsString(), ResponseWrapper.class);
+        Assertions.assertEquals(ErrorConstants.NO_ATTEMPTS_LEFT, ((Error) responseWrapper.getErrors().getFirst()).getErrorCode());
+    }
+
+    @Test
+    public void doFilter_exceedClientApiRateLimit_thenFailWithoutBlockingIndividual() throws ServletException, IOException {
+        ReflectionTestUtils.setField(headerValidationFilter, "sendOtpIndividualIdAttempts", 5);
+        ReflectionTestUtils.setField(headerValidationFilter, "sendOtpClientAttempts", 100);
+        ReflectionTestUtils.setField(headerValidationFilter, "clientWindowInSeconds", 60);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRequestURI("/v1/esignet/authorization/send-otp");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        request.addHeader("oauth-details-hash", "oauth-details-hash");
+        request.addHeader("oauth-details-key", "oauth-details-key");
+
+        when(cacheUtilService.getTransactionHeader("oauth-details-key")).thenReturn(new TransactionHeader("oauth-details-hash",
+                "test", Constants.PRE_AUTH_SESSION_CACHE, "client-1"));
+        //all the scopes are checked in a single call
+        when(cacheUtilService.checkAndRecordApiInvocation(List.of(new ApiRateLimiter.Limit("send-otp:transaction:oauth-details-key", 3, 3, null),
+                new ApiRateLimiter.Limit("send-otp:individual:test", 5, 0, Duration.ofSeconds(600)),
+                new ApiRateLimiter.Limit("send-otp:client:client-1", 100, 0, Duration.ofSeconds(60)))))
+                .thenReturn(new ApiRateLimiter.Decision(ApiRateLimiter.Result.LIMIT_EXCEEDED, 2));
+
+        headerValidationFilter.doFilterInternal(request, response, filterChain);
+        verify(cacheUtilService, never()).blockIndividualId("test");
+        verify(filterChain, never()).doFilter(request, response);
+
+        ResponseWrapper responseWrapper = objectMapper.readValue(response.getContentAsString(), ResponseWrapper.class);
+        Assertions.assertEquals(ErrorConstants.NO_ATTEMPTS_LEFT, ((Error) responseWrapper.getErrors().getFirst()).getErrorCode());
+    }
+
+    @Test
+    public void doFilter_withoutClientIdInTransactionHeader_thenClientLimitSkipped() throws ServletException, IOException {
+        ReflectionTestUtils.setField(headerValidationFilter, "sendOtpClientAttempts", 100);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRequestURI("/v1/esignet/authorization/send-otp");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        request.addHeader("oauth-details-hash", "oauth-details-hash");
+        request.addHeader("oauth-details-key", "oauth-details-key");
+
+        when(cacheUtilService.getTransactionHeader("oauth-details-key")).thenReturn(new TransactionHeader("oauth-details-hash",
+                null, Constants.PRE_AUTH_SESSION_CACHE, null));
+        when(cacheUtilService.checkAndRecordApiInvocation(List.of(new ApiRateLimiter.Limit("send-otp:transaction:oauth-details-key", 3, 3, null))))
+                .thenReturn(new ApiRateLimiter.Decision(ApiRateLimiter.Result.ALLOWED, -1));
+
+        headerValidationFilter.doFilterInternal(request, response, filterChain);
+        verify(filterChain, times(1)).doFilter(request, response);
+    }
 }
@@ -587,6 +587,104 @@ public class LinkedAuthorizationControllerTest {
                 .andExpect(jsonPath("$.errors[0].errorCode").value(RESPONSE_TIMEOUT));
     }
 
+    @Test
+    public void getLinkEvents_withLinkedAndConsentedTransaction_thenPass() throws Exception {
+        RequestWrapper<LinkAuthCodeRequest> requestWrapper = new RequestWrapper<>();
+        requestWrapper.setRequestTime(IdentityProviderUtil.getUTCDateTime());
+        LinkAuthCodeRequest linkAuthCodeRequest = new LinkAuthCodeRequest();
+        linkAuthCodeRequest.setTransactionId("transaction-id");
+        linkAuthCodeRequest.setLinkedCode("linked-code");
+        requestWrapper.setRequest(linkAuthCodeRequest);
+
+        LinkStatusResponse linkStatusResponse = new LinkStatusResponse();
+        linkStatusResponse.setLinkStatus("LINKED");
+        ResponseWrapper<LinkStatusResponse> linkStatusResponseWrapper = new ResponseWrapper<>();
+        linkStatusResponseWrapper.setResponse(linkStatusResponse);
+        Mockito.doAnswer(invocation -> {
+            ((DeferredResult) invocation.getArgument(0)).setResult(linkStatusResponseWrapper);
+            return null;
+        }).when(linkedAuthorizationService).getLinkStatus(Mockito.any(DeferredResult.class), Mockito.any(LinkStatusRequest.class));
+
+        LinkAuthCodeResponse linkAuthCodeResponse = new LinkAuthCodeResponse();
+        linkAuthCodeResponse.setCode("auth-code");
+        ResponseWrapper<LinkAuthCodeResponse> linkAuthCodeResponseWrapper = new ResponseWrapper<>();
+        linkAuthCodeResponseWrapper.setResponse(linkAuthCodeResponse);
+        Mockito.doAnswer(invocation -> {
+            ((DeferredResult) invocation.getArgument(0)).setResult(linkAuthCodeResponseWrapper);
+            return null;
+        }).when(linkedAuthorizationService).getLinkAuthCode(Mockito.any(DeferredResult.class), Mockito.any(LinkAuthCodeRequest.class));
+
+        MvcResult mvcResult = mockMvc.perform(post("/linked-authorization/link-events")
+                        .content(objectMapper.writeValueAsString(requestWrapper))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String content = mvcResult.getResponse().getContentAsString();
+        Assertions.assertTrue(content.indexOf("event:link-status") < content.indexOf("event:link-auth-code"));
+        Assertions.assertTrue(content.contains("\"linkStatus\":\"LINKED\""));
+        Assertions.assertTrue(content.contains("\"code\":\"auth-code\""));
+    }
+
+    @Test
+    public void getLinkEvents_withInvalidLinkCode_thenErrorEvent() throws Exception {
+        RequestWrapper<LinkAuthCodeRequest> requestWrapper = new RequestWrapper<>();
+        requestWrapper.setRequestTime(IdentityProviderUtil.getUTCDateTime());
+        LinkAuthCodeRequest linkAuthCodeRequest = new LinkAuthCodeRequest();
+        linkAuthCodeRequest.setTransactionId("transaction-id");
+        linkAuthCodeRequest.setLinkedCode("linked-code");
+        requestWrapper.setRequest(linkAuthCodeRequest);
+
+        Mockito.doThrow(new EsignetException(INVALID_LINK_CODE)).when(linkedAuthorizationService)
+                .getLinkStatus(Mockito.any(DeferredResult.class), Mockito.any(LinkStatusRequest.class));
+
+        MvcResult mvcResult = mockMvc.perform(post("/linked-authorization/link-events")
+                        .content(objectMapper.writeValueAsString(requestWrapper))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String content = mvcResult.getResponse().getContentAsString();
+        Assertions.assertTrue(content.contains("event:error"));
+        Assertions.assertTrue(content.contains(INVALID_LINK_CODE));
+        Mockito.verify(linkedAuthorizationService, Mockito.never()).getLinkAuthCode(Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    public void getLinkEvents_withUnexpectedLinkAuthCodeFailure_thenErrorEvent() throws Exception {
+        RequestWrapper<LinkAuthCodeRequest> requestWrapper = new RequestWrapper<>();
+        requestWrapper.setRequestTime(IdentityProviderUtil.getUTCDateTime());
+        LinkAuthCodeRequest linkAuthCodeRequest = new LinkAuthCodeRequest();
+        linkAuthCodeRequest.setTransactionId("transaction-id");
+        linkAuthCodeRequest.setLinkedCode("linked-code");
+        requestWrapper.setRequest(linkAuthCodeRequest);
+
+        LinkStatusResponse linkStatusResponse = new LinkStatusResponse();
+        linkStatusResponse.setLinkStatus("LINKED");
+        ResponseWrapper<LinkStatusResponse> linkStatusResponseWrapper = new ResponseWrapper<>();
+        linkStatusResponseWrapper.setResponse(linkStatusResponse);
+        Mockito.doAnswer(invocation -> {
+            ((DeferredResult) invocation.getArgument(0)).setResult(linkStatusResponseWrapper);
+            return null;
+        }).when(linkedAuthorizationService).getLinkStatus(Mockito.any(DeferredResult.class), Mockito.any(LinkStatusRequest.class));
+        Mockito.doThrow(new IllegalStateException("cache unavailable")).when(linkedAuthorizationService)
+                .getLinkAuthCode(Mockito.any(DeferredResult.class), Mockito.any(LinkAuthCodeRequest.class));
+
+        MvcResult mvcResult = mockMvc.perform(post("/linked-authorization/link-events")
+                        .content(objectMapper.writeValueAsString(requestWrapper))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String content = mvcResult.getResponse().getContentAsString();
+        Assertions.assertTrue(content.contains("event:link-status"));
+        Assertions.assertTrue(content.contains("event:error"));
+        Assertions.assertTrue(content.contains(UNKNOWN_ERROR));
+    }
+
     @Test
     public void authenticateV2_withValidRequest_thenPass() throws Exception {
         RequestWrapper<LinkedKycAuthRequest> requestWrapper = new RequestWrapper<>();
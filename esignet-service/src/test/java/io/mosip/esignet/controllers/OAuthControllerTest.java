@@ -7,19 +7,24 @@ package io.mosip.esignet.controllers;
 
 import io.mosip.esignet.api.spi.AuditPlugin;
 import io.mosip.esignet.core.config.LocalAuthenticationEntryPoint;
+import io.mosip.esignet.core.constants.Constants;
 import io.mosip.esignet.core.constants.ErrorConstants;
 import io.mosip.esignet.core.dto.*;
 import io.mosip.esignet.core.exception.EsignetException;
 import io.mosip.esignet.core.exception.InvalidRequestException;
 import io.mosip.esignet.core.spi.OAuthService;
+import io.mosip.esignet.core.util.CachedSerializedDocument;
 import io.mosip.esignet.services.AuthorizationHelperService;
 import io.mosip.esignet.services.CacheUtilService;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
@@ -53,8 +58,17 @@ public class OAuthControllerTest {
     @MockBean
     LocalAuthenticationEntryPoint localAuthenticationEntryPoint;
 
+    @Autowired
+    private OAuthController oAuthController;
+
     private final String clientAssertionType = "urn:ietf:params:oauth:client-assertion-type:jwt-bearer";
 
+    @BeforeEach
+    public void setUp() {
+        oAuthController.onSigningKeyChanged(new SigningKeyChangedEvent(Constants.OIDC_SERVICE_APP_ID));
+        ((CachedSerializedDocument) ReflectionTestUtils.getField(oAuthController, "discoveryDocument")).invalidate();
+    }
+
     @Test
     public void getAllJwks_thenPass() throws Exception {
         Map<String, Object> sampleResult = new HashMap<>();
@@ -68,6 +82,43 @@ public class OAuthControllerTest {
                 .andExpect(header().string("Content-Type", "application/json"));
     }
 
+    @Test
+    public void getAllJwks_withMatchingETag_thenNotModified() throws Exception {
+        Map<String, Object> sampleResult = new HashMap<>();
+        sampleResult.put("keys", new ArrayList<>());
+        Mockito.when(oAuthServiceImpl.getJwks()).thenReturn(sampleResult);
+
+        String eTag = mockMvc.perform(get("/oauth/.well-known/jwks.json"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=60, public"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/oauth/.well-known/jwks.json").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
+
+        mockMvc.perform(get("/oauth/.well-known/jwks.json").header(HttpHeaders.IF_NONE_MATCH, "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(content().string("{\"keys\":[]}"));
+
+        Mockito.verify(oAuthServiceImpl, Mockito.times(1)).getJwks();
+    }
+
+    @Test
+    public void getAllJwks_afterSigningKeyChange_thenRebuilt() throws Exception {
+        Map<String, Object> sampleResult = new HashMap<>();
+        sampleResult.put("keys", new ArrayList<>());
+        Mockito.when(oAuthServiceImpl.getJwks()).thenReturn(sampleResult);
+
+        mockMvc.perform(get("/oauth/.well-known/jwks.json")).andExpect(status().isOk());
+        oAuthController.onSigningKeyChanged(new SigningKeyChangedEvent(Constants.OIDC_SERVICE_APP_ID));
+        mockMvc.perform(get("/oauth/.well-known/jwks.json")).andExpect(status().isOk());
+
+        Mockito.verify(oAuthServiceImpl, Mockito.times(2)).getJwks();
+    }
+
     @Test
     public void getToken_withInvalidContentType_thenFail() throws Exception {
         mockMvc.perform(post("/oauth/token")
@@ -177,6 +228,24 @@ public class OAuthControllerTest {
                 .andExpect(header().string("Content-Type", "application/json"));
     }
 
+    @Test
+    public void getOAuthDiscoveryInfo_withMatchingETag_thenNotModified() throws Exception {
+        Map<String, Object> discoveryInfo = new HashMap<>();
+        discoveryInfo.put("key", "value");
+        Mockito.when(oAuthServiceImpl.getOAuthServerDiscoveryInfo()).thenReturn(discoveryInfo);
+
+        String eTag = mockMvc.perform(get("/oauth/.well-known/oauth-authorization-server"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=3600, public"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/oauth/.well-known/oauth-authorization-server").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        Mockito.verify(oAuthServiceImpl, Mockito.times(1)).getOAuthServerDiscoveryInfo();
+    }
+
     @Test
     public void authorize_withValidInput_thenPass() throws Exception {
         MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
@@ -16,6 +16,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -69,6 +70,22 @@ public class OpenIdConnectControllerTest {
                 .andExpect(jsonPath("$.userinfo_endpoint").value(discoveryMap.get("userinfo_endpoint")));
     }
 
+    @Test
+    public void getOpenIdConfiguration_withMatchingETag_thenNotModified() throws Exception {
+        when(openIdConnectServiceImpl.getOpenIdConfiguration()).thenReturn(discoveryMap);
+
+        String eTag = mockMvc.perform(get("/oidc/.well-known/openid-configuration"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$.issuer").value(issuerId))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/oidc/.well-known/openid-configuration").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
+    }
+
     @Test
     public void getUserinfo_withValidAccessToken_thenPass() throws Exception {
         String output = "encryptedKyc";
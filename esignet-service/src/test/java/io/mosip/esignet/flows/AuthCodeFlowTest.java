@@ -31,6 +31,7 @@ import io.mosip.esignet.core.spi.TokenService;
 import io.mosip.esignet.core.util.AuthenticationContextClassRefUtil;
 import io.mosip.esignet.core.constants.Constants;
 import io.mosip.esignet.services.CacheUtilService;
+import io.mosip.esignet.services.NonceReplayChecker;
 import lombok.extern.slf4j.Slf4j;
 import org.jose4j.jwe.JsonWebEncryption;
 import org.json.simple.JSONObject;
@@ -42,10 +43,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.data.redis.connection.RedisConnection;
-import org.springframework.data.redis.connection.RedisConnectionFactory;
-import org.springframework.data.redis.connection.RedisScriptingCommands;
-import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
 import org.springframework.http.MediaType;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
@@ -54,6 +53,7 @@ import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
 import java.io.File;
 import java.security.PrivateKey;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
@@ -88,6 +88,9 @@ public class AuthCodeFlowTest {
     @Autowired
     private CacheUtilService cacheUtilService;
 
+    @Autowired
+    private NonceReplayChecker nonceReplayChecker;
+
     @Autowired
     private TokenService tokenService;
 
@@ -118,17 +121,13 @@ public class AuthCodeFlowTest {
         mockDiscoveryMap.put("token_endpoint_auth_signing_alg_values_supported", Arrays.asList("RS256", "PS256","ES256"));
         mockDiscoveryMap.put("issuer",clientId);
 
-        RedisScriptingCommands redisScriptingCommands = Mockito.mock(RedisScriptingCommands.class);
-        RedisConnection redisConnection = Mockito.mock(RedisConnection.class);
-        RedisConnectionFactory redisConnectionFactory = Mockito.mock(RedisConnectionFactory.class);
-        when(redisConnectionFactory.getConnection()).thenReturn(redisConnection);
-        when(redisConnection.scriptingCommands()).thenReturn(redisScriptingCommands);
-        when(redisScriptingCommands.scriptExists("nonceScriptHash")).thenReturn(List.of(true));
-        when(redisScriptingCommands.evalSha(anyString(), any(ReturnType.class), anyInt(), any(), any())).thenReturn(1L);
-
-        ReflectionTestUtils.setField(cacheUtilService, "redisConnectionFactory", redisConnectionFactory);
-        ReflectionTestUtils.setField(cacheUtilService, "nonceScriptHash", "nonceScriptHash");
-        ReflectionTestUtils.setField(cacheUtilService, "nonceValidity", 86400);
+        ValueOperations<String, String> valueOperations = Mockito.mock(ValueOperations.class);
+        StringRedisTemplate stringRedisTemplate = Mockito.mock(StringRedisTemplate.class);
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(true);
+
+        ReflectionTestUtils.setField(nonceReplayChecker, "stringRedisTemplate", stringRedisTemplate);
+        ReflectionTestUtils.setField(nonceReplayChecker, "nonceValidity", 86400);
         ReflectionTestUtils.setField(tokenService,"discoveryMap",mockDiscoveryMap);
     }
 
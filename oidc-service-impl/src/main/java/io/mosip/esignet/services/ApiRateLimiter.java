@@ -0,0 +1,62 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.services;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Duration;
+import java.util.List;
+
+public interface ApiRateLimiter {
+
+    enum Result {
+        ALLOWED,
+        LIMIT_EXCEEDED,
+        TOO_EARLY
+    }
+
+    /**
+     * Rate limit of one scope (transaction, individual, client), scope of the limit is expected to be part of the key.
+     * Invocation gap is not checked if not positive, TTL configured for the apiratelimit cache is used as the window
+     * if null.
+     */
+    @Data
+    @AllArgsConstructor
+    class Limit {
+        private String key;
+        private int attemptsLimit;
+        private int invocationGapSeconds;
+        private Duration window;
+    }
+
+    /**
+     * Result of the check, limitIndex is the index of the first limit failing the check and -1 if ALLOWED.
+     */
+    @Data
+    @AllArgsConstructor
+    class Decision {
+        private Result result;
+        private int limitIndex;
+    }
+
+    /**
+     * Checks the attempts limit and the invocation gap of all the limits and records the invocation against all the
+     * keys only if every check passes, check and record is one operation. Only the invocations within the sliding
+     * window of the limit are counted.
+     * @param limits limits of all the scopes applicable to the invocation
+     * @return ALLOWED if the invocation is recorded, otherwise the failed check and the index of the failed limit
+     */
+    Decision tryAcquire(List<Limit> limits);
+
+    /**
+     * Checks and records the invocation against a single key.
+     * @see #tryAcquire(List)
+     */
+    default Result tryAcquire(String key, int attemptsLimit, int invocationGapSeconds, Duration window) {
+        return tryAcquire(List.of(new Limit(key, attemptsLimit, invocationGapSeconds, window))).getResult();
+    }
+}
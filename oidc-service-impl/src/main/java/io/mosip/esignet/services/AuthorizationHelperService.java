@@ -7,8 +7,6 @@ package io.mosip.esignet.services;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
 import com.nimbusds.jwt.JWT;
 import com.nimbusds.jwt.JWTParser;
 import io.mosip.esignet.api.dto.*;
@@ -34,7 +32,6 @@ import org.springframework.core.env.Environment;
 import org.springframework.data.util.Pair;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.ObjectUtils;
@@ -47,10 +44,10 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.constraints.NotNull;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.*;
-import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import static io.mosip.esignet.api.util.ErrorConstants.AUTH_FAILED;
@@ -64,13 +61,19 @@ import static io.mosip.esignet.core.util.IdentityProviderUtil.ALGO_SHA3_256;
 @Component
 public class AuthorizationHelperService {
 
-    private static final Cache<String, DeferredResult> LINK_STATUS_DEFERRED_RESULT_MAP = CacheBuilder.newBuilder()
-            .expireAfterWrite(40, TimeUnit.SECONDS)
-                .build();
+    private final DeferredResultRegistry linkStatusDeferredResults = new DeferredResultRegistry("link-status");
 
-    private static final Cache<String, DeferredResult> LINK_AUTH_CODE_STATUS_DEFERRED_RESULT_MAP = CacheBuilder.newBuilder()
-            .expireAfterWrite(40, TimeUnit.SECONDS)
-            .build();
+    private final DeferredResultRegistry linkAuthCodeStatusDeferredResults = new DeferredResultRegistry("link-auth-code");
+
+    @Value("${mosip.esignet.link-status-deferred-response-timeout-secs:25}")
+    private long linkStatusDeferredResponseTimeout;
+
+    @Value("${mosip.esignet.link-auth-code-deferred-response-timeout-secs:25}")
+    private long linkAuthCodeDeferredResponseTimeout;
+
+    //requests of the link-events stream wait in the same registry
+    @Value("${mosip.esignet.link-events-timeout-secs:120}")
+    private long linkEventsTimeout;
 
     @Autowired
     private AuthenticationContextClassRefUtil authenticationContextClassRefUtil;
@@ -153,38 +156,39 @@ public class AuthorizationHelperService {
     }
 
     protected void addEntryInLinkStatusDeferredResultMap(String key, DeferredResult deferredResult) {
-        LINK_STATUS_DEFERRED_RESULT_MAP.put(key, deferredResult);
+        linkStatusDeferredResults.register(key, deferredResult,
+                Duration.ofSeconds(Math.max(linkStatusDeferredResponseTimeout, linkEventsTimeout)));
     }
 
     protected void addEntryInLinkAuthCodeStatusDeferredResultMap(String key, DeferredResult deferredResult) {
-        LINK_AUTH_CODE_STATUS_DEFERRED_RESULT_MAP.put(key, deferredResult);
+        linkAuthCodeStatusDeferredResults.register(key, deferredResult,
+                Duration.ofSeconds(Math.max(linkAuthCodeDeferredResponseTimeout, linkEventsTimeout)));
     }
 
-    @KafkaListener(id = "${spring.kafka.consumer.group-id}"+"-link-status", autoStartup = "${kafka.enabled:true}", topics = "${mosip.esignet.kafka.linked-session.topic}")
     public void consumeLinkStatus(String linkCodeHash) {
-        DeferredResult deferredResult = LINK_STATUS_DEFERRED_RESULT_MAP.getIfPresent(linkCodeHash);
-        if(deferredResult != null) {
-            if(!deferredResult.isSetOrExpired())
-                deferredResult.setResult(getLinkStatusResponse(LINKED_STATUS));
-            LINK_STATUS_DEFERRED_RESULT_MAP.invalidate(linkCodeHash);
+        List<DeferredResult> deferredResults = linkStatusDeferredResults.removeAll(linkCodeHash);
+        if(deferredResults.isEmpty())
+            return;
+
+        ResponseWrapper<LinkStatusResponse> linkStatusResponse = getLinkStatusResponse(LINKED_STATUS);
+        for(DeferredResult deferredResult : deferredResults) {
+            deferredResult.setResult(linkStatusResponse);
         }
     }
 
-    @KafkaListener(id = "${spring.kafka.consumer.group-id}"+"-linked-auth-code", autoStartup = "${kafka.enabled:true}", topics = "${mosip.esignet.kafka.linked-auth-code.topic}")
     public void consumeLinkAuthCodeStatus(String linkTransactionId) {
-        DeferredResult deferredResult = LINK_AUTH_CODE_STATUS_DEFERRED_RESULT_MAP.getIfPresent(linkTransactionId);
-        if(deferredResult != null) {
-            try {
-                if(!deferredResult.isSetOrExpired()) {
-                    OIDCTransaction oidcTransaction = cacheUtilService.getConsentedTransaction(linkTransactionId);
-                    if(oidcTransaction == null)
-                        throw new InvalidTransactionException();
-
-                    deferredResult.setResult(getLinkAuthStatusResponse(null, oidcTransaction));
-                }
-            } finally {
-                LINK_AUTH_CODE_STATUS_DEFERRED_RESULT_MAP.invalidate(linkTransactionId);
-            }
+        List<DeferredResult> deferredResults = linkAuthCodeStatusDeferredResults.removeAll(linkTransactionId);
+        if(deferredResults.isEmpty())
+            return;
+
+        OIDCTransaction oidcTransaction = cacheUtilService.getConsentedTransaction(linkTransactionId);
+        if(oidcTransaction == null)
+            throw new InvalidTransactionException();
+
+        //Only one auth-code is generated, all the requests waiting on the transaction get the same auth-code
+        ResponseWrapper<LinkAuthCodeResponse> linkAuthStatusResponse = getLinkAuthStatusResponse(null, oidcTransaction);
+        for(DeferredResult deferredResult : deferredResults) {
+            deferredResult.setResult(linkAuthStatusResponse);
         }
     }
 
@@ -0,0 +1,25 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.services;
+
+/**
+ * Local negative lookup for the blocked individual ids, used to skip the blocked cache lookup for individual ids
+ * which are surely not blocked. False positives are allowed, false negatives are not.
+ */
+public interface BlockedIndividualIdFilter {
+
+    /**
+     * @param individualIdHash hash of the individual id
+     * @return false only if the individual id is surely not blocked, blocked cache is to be checked otherwise
+     */
+    boolean mightBeBlocked(String individualIdHash);
+
+    /**
+     * To be invoked after the individual id is stored in the blocked cache.
+     * @param individualIdHash hash of the blocked individual id
+     */
+    void add(String individualIdHash);
+}
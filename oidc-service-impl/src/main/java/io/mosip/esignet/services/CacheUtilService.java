@@ -5,30 +5,27 @@
  */
 package io.mosip.esignet.services;
 
-import io.mosip.esignet.core.constants.ErrorConstants;
 import io.mosip.esignet.core.dto.OIDCTransaction;
 import io.mosip.esignet.core.dto.LinkTransactionMetadata;
-import io.mosip.esignet.core.dto.ApiRateLimit;
 import io.mosip.esignet.core.dto.PushedAuthorizationRequest;
+import io.mosip.esignet.core.dto.TransactionHeader;
 import io.mosip.esignet.core.exception.DuplicateLinkCodeException;
 import io.mosip.esignet.core.constants.Constants;
-import io.mosip.esignet.core.exception.EsignetException;
 import io.mosip.esignet.core.util.IdentityProviderUtil;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
-import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.Caching;
-import org.springframework.data.redis.connection.RedisConnectionFactory;
-import org.springframework.data.redis.connection.ReturnType;
 import org.springframework.stereotype.Service;
 
-import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 import static io.mosip.esignet.core.util.IdentityProviderUtil.ALGO_SHA3_256;
@@ -38,56 +35,50 @@ import static io.mosip.esignet.core.util.IdentityProviderUtil.ALGO_SHA3_256;
 @Service
 public class CacheUtilService {
 
-    private static final String NONCE_CHECK_SCRIPT = """
-            if redis.call("EXISTS", KEYS[1]) == 0 then
-                redis.call("SETEX", KEYS[1], tonumber(ARGV[1]), "1")
-                return 1
-            else
-                return 0
-            end""";
-    private String nonceScriptHash = null;
-    private static String NONCE_KEY = "nonce::%s";
+    @Autowired
+    CacheManager cacheManager;
 
-    @Value("${mosip.esignet.nonce-expire-seconds:86400}")
-    private int nonceValidity;
+    @Autowired
+    private NonceReplayChecker nonceReplayChecker;
 
-    @Value("${spring.cache.type}")
-    private String cacheType;
+    @Autowired
+    private TransactionStateStore transactionStateStore;
 
     @Autowired
-    CacheManager cacheManager;
+    private ApiRateLimiter apiRateLimiter;
 
     @Autowired
-    private RedisConnectionFactory redisConnectionFactory;
+    private BlockedIndividualIdFilter blockedIndividualIdFilter;
 
-    @Cacheable(value = Constants.PRE_AUTH_SESSION_CACHE, key = "#transactionId")
     public OIDCTransaction setTransaction(String transactionId, OIDCTransaction oidcTransaction) {
+        transactionStateStore.moveTransaction(Constants.PRE_AUTH_SESSION_CACHE, transactionId, oidcTransaction, Map.of(),
+                Constants.TRANSACTION_HEADER_CACHE, getTransactionHeader(Constants.PRE_AUTH_SESSION_CACHE, oidcTransaction));
         return oidcTransaction;
     }
 
-    @Caching(evict = {@CacheEvict(value = Constants.PRE_AUTH_SESSION_CACHE, key = "#transactionId"),
-            @CacheEvict(value = Constants.HALTED_CACHE, key = "#transactionId")},
-    cacheable = {@Cacheable(value = Constants.AUTHENTICATED_CACHE, key = "#transactionId")})
     public OIDCTransaction setAuthenticatedTransaction(String transactionId,
                                                        OIDCTransaction oidcTransaction) {
+        transactionStateStore.moveTransaction(Constants.AUTHENTICATED_CACHE, transactionId, oidcTransaction,
+                Map.of(Constants.PRE_AUTH_SESSION_CACHE, transactionId, Constants.HALTED_CACHE, transactionId),
+                Constants.TRANSACTION_HEADER_CACHE, getTransactionHeader(Constants.AUTHENTICATED_CACHE, oidcTransaction));
         return oidcTransaction;
     }
 
-    @CacheEvict(value = Constants.AUTHENTICATED_CACHE, key = "#transactionId", condition = "#transactionId != null")
-    @Cacheable(value = Constants.AUTH_CODE_GENERATED_CACHE, key = "#oidcTransaction.getCodeHash()")
     public OIDCTransaction setAuthCodeGeneratedTransaction(String transactionId, OIDCTransaction oidcTransaction) {
+        Map<String, String> evictions = new HashMap<>();
+        evictions.put(Constants.AUTHENTICATED_CACHE, transactionId);
+        evictions.put(Constants.TRANSACTION_HEADER_CACHE, transactionId);
+        transactionStateStore.moveTransaction(Constants.AUTH_CODE_GENERATED_CACHE, oidcTransaction.getCodeHash(),
+                oidcTransaction, evictions);
         return oidcTransaction;
     }
 
-    @Caching(evict = {@CacheEvict(value = Constants.AUTH_CODE_GENERATED_CACHE, key = "#oidcTransaction.getCodeHash()"),
-            @CacheEvict(value = Constants.CONSENTED_CACHE, key = "#oidcTransaction.getLinkedTransactionId()",
-                    condition = "#oidcTransaction.getLinkedTransactionId() != null"),
-            @CacheEvict(value = Constants.LINKED_CODE_CACHE, key = "#oidcTransaction.getLinkedCodeHash()",
-                    condition = "#oidcTransaction.getLinkedCodeHash() != null" )},
-            cacheable = {@Cacheable(value = Constants.USERINFO_CACHE, key = "#accessTokenHash")})
     public OIDCTransaction setUserInfoTransaction(String accessTokenHash, OIDCTransaction oidcTransaction) {
-        oidcTransaction.setDpopServerNonce(null);
-        oidcTransaction.setDpopServerNonceTTL(null);
+        Map<String, String> evictions = new HashMap<>();
+        evictions.put(Constants.AUTH_CODE_GENERATED_CACHE, oidcTransaction.getCodeHash());
+        evictions.put(Constants.CONSENTED_CACHE, oidcTransaction.getLinkedTransactionId());
+        evictions.put(Constants.LINKED_CODE_CACHE, oidcTransaction.getLinkedCodeHash());
+        transactionStateStore.moveTransaction(Constants.USERINFO_CACHE, accessTokenHash, oidcTransaction, evictions);
         return oidcTransaction;
     }
 
@@ -96,63 +87,49 @@ public class CacheUtilService {
         log.debug("Evicting entry from authCodeGeneratedCache");
     }
 
-    @CacheEvict(value = Constants.AUTHENTICATED_CACHE, key = "#transactionId")
-    @Cacheable(value = Constants.HALTED_CACHE, key = "#transactionId")
     public OIDCTransaction setHaltedTransaction(String transactionId, OIDCTransaction oidcTransaction) {
+        transactionStateStore.moveTransaction(Constants.HALTED_CACHE, transactionId, oidcTransaction,
+                Map.of(Constants.AUTHENTICATED_CACHE, transactionId),
+                Constants.TRANSACTION_HEADER_CACHE, getTransactionHeader(Constants.HALTED_CACHE, oidcTransaction));
         return oidcTransaction;
     }
 
     @CacheEvict(value = Constants.HALTED_CACHE, key = "#transactionId")
     public void removeHaltedTransaction(String transactionId) {
         log.debug("Evicting entry from HALTED_CACHE");
+        evictTransactionHeader(transactionId);
     }
 
     public long checkNonce(String nonce) {
-        if("simple".equalsIgnoreCase(cacheType))
-            return 1L;
-
-        if (redisConnectionFactory.getConnection() != null) {
-            if (isScriptNotLoaded(nonceScriptHash)) {
-                nonceScriptHash = redisConnectionFactory.getConnection().scriptingCommands().scriptLoad(NONCE_CHECK_SCRIPT.getBytes());
-            }
-            log.info("Running NONCE_CHECK_SCRIPT script: {}", nonceScriptHash);
-            final String key = NONCE_KEY.formatted(nonce);
-            return redisConnectionFactory.getConnection().scriptingCommands().evalSha(
-                    nonceScriptHash,
-                    ReturnType.INTEGER,
-                    1,  // Number of keys
-                    key.getBytes(), // The Redis hash name (key)
-                    String.valueOf(nonceValidity).getBytes(StandardCharsets.UTF_8) // ttl
-            );
-        }
-        return 0;
+        return nonceReplayChecker.markIfUnused(nonce) ? 1L : 0L;
     }
 
     //---------------------------------------------- Linked authorization ----------------------------------------------
 
-    @CacheEvict(value = Constants.PRE_AUTH_SESSION_CACHE, key = "#transactionId")
-    @Cacheable(value = Constants.LINKED_SESSION_CACHE, key = "#oidcTransaction.getLinkedTransactionId()")
     public OIDCTransaction setLinkedTransaction(String transactionId, OIDCTransaction oidcTransaction) {
+        transactionStateStore.moveTransaction(Constants.LINKED_SESSION_CACHE, oidcTransaction.getLinkedTransactionId(),
+                oidcTransaction, Map.of(Constants.PRE_AUTH_SESSION_CACHE, transactionId,
+                        Constants.TRANSACTION_HEADER_CACHE, transactionId));
         return oidcTransaction;
     }
 
-    @CacheEvict(value = Constants.LINKED_SESSION_CACHE, key = "#linkedTransactionId")
-    @Cacheable(value = Constants.LINKED_AUTH_CACHE, key = "#linkedTransactionId")
     public OIDCTransaction setLinkedAuthenticatedTransaction(String linkedTransactionId,
                                                              OIDCTransaction oidcTransaction) {
+        transactionStateStore.moveTransaction(Constants.LINKED_AUTH_CACHE, linkedTransactionId, oidcTransaction,
+                Map.of(Constants.LINKED_SESSION_CACHE, linkedTransactionId));
         return oidcTransaction;
     }
 
-    @CacheEvict(value = Constants.LINKED_AUTH_CACHE, key = "#oidcTransaction.getLinkedTransactionId()")
-    @Cacheable(value = Constants.CONSENTED_CACHE, key = "#linkedTransactionId")
     public OIDCTransaction setLinkedConsentedTransaction(String linkedTransactionId, OIDCTransaction oidcTransaction) {
+        transactionStateStore.moveTransaction(Constants.CONSENTED_CACHE, linkedTransactionId, oidcTransaction,
+                Map.of(Constants.LINKED_AUTH_CACHE, oidcTransaction.getLinkedTransactionId()));
         return oidcTransaction;
     }
 
-    @Caching(evict = {@CacheEvict(value = Constants.CONSENTED_CACHE, key = "#oidcTransaction.getLinkedTransactionId()"),
-            @CacheEvict(value = Constants.LINKED_CODE_CACHE, key = "#linkCodeHash")},
-    cacheable = {@Cacheable(value = Constants.AUTH_CODE_GENERATED_CACHE, key = "#oidcTransaction.getCodeHash()")})
     public OIDCTransaction setLinkedAuthCodeTransaction(String linkCodeHash, String linkedTransactionId, OIDCTransaction oidcTransaction) {
+        transactionStateStore.moveTransaction(Constants.AUTH_CODE_GENERATED_CACHE, oidcTransaction.getCodeHash(),
+                oidcTransaction, Map.of(Constants.CONSENTED_CACHE, oidcTransaction.getLinkedTransactionId(),
+                        Constants.LINKED_CODE_CACHE, linkCodeHash));
         return oidcTransaction;
     }
 
@@ -162,33 +139,49 @@ public class CacheUtilService {
             throw new DuplicateLinkCodeException();
     }
 
-    @CacheEvict(value = Constants.LINK_CODE_GENERATED_CACHE, key = "#linkCodeHash")
-    @Cacheable(value = Constants.LINKED_CODE_CACHE, key = "#linkCodeHash")
     public LinkTransactionMetadata setLinkedCode(String linkCodeHash, LinkTransactionMetadata transactionMetadata) {
+        transactionStateStore.moveTransaction(Constants.LINKED_CODE_CACHE, linkCodeHash, transactionMetadata,
+                Map.of(Constants.LINK_CODE_GENERATED_CACHE, linkCodeHash));
         return transactionMetadata;
     }
 
-    @CacheEvict(value = Constants.LINK_CODE_GENERATED_CACHE, key = "#linkCodeHash", condition = "#linkCodeHash != null")
-    @Cacheable(value = Constants.PRE_AUTH_SESSION_CACHE, key = "#transactionId")
     public OIDCTransaction updateTransactionAndEvictLinkCode(String transactionId, String linkCodeHash, OIDCTransaction oidcTransaction) {
+        Map<String, String> evictions = new HashMap<>();
+        evictions.put(Constants.LINK_CODE_GENERATED_CACHE, linkCodeHash);
+        transactionStateStore.moveTransaction(Constants.PRE_AUTH_SESSION_CACHE, transactionId, oidcTransaction, evictions,
+                Constants.TRANSACTION_HEADER_CACHE, getTransactionHeader(Constants.PRE_AUTH_SESSION_CACHE, oidcTransaction));
         return oidcTransaction;
     }
 
-    @CachePut(value = Constants.RATE_LIMIT_CACHE, key = "#transactionId")
-    public ApiRateLimit saveApiRateLimit(String transactionId, ApiRateLimit apiRateLimit) {
-        return apiRateLimit;
+    /**
+     * Checks the attempts limit and invocation gap of the key and records the invocation as one operation.
+     * Window is the TTL configured for the apiratelimit cache if null.
+     */
+    public ApiRateLimiter.Result checkAndRecordApiInvocation(String key, int attemptsLimit, int invocationGapSeconds,
+                                                             Duration window) {
+        return apiRateLimiter.tryAcquire(key, attemptsLimit, invocationGapSeconds, window);
+    }
+
+    /**
+     * Checks the limits of all the scopes and records the invocation against every scope only if all the checks pass,
+     * as one operation.
+     */
+    public ApiRateLimiter.Decision checkAndRecordApiInvocation(List<ApiRateLimiter.Limit> limits) {
+        return apiRateLimiter.tryAcquire(limits);
     }
 
-    @Cacheable(value = Constants.BLOCKED_CACHE, key = "#individualIdHash")
     public String blockIndividualId(String individualIdHash) {
+        cacheManager.getCache(Constants.BLOCKED_CACHE).putIfAbsent(individualIdHash, individualIdHash); //NOSONAR getCache() will not be returning null here.
+        blockedIndividualIdFilter.add(individualIdHash);
         return individualIdHash;
     }
 
-    @CachePut(value = Constants.PRE_AUTH_SESSION_CACHE, key = "#transactionId")
     public OIDCTransaction updateIndividualIdHashInPreAuthCache(String transactionId, String individualId) {
         OIDCTransaction oidcTransaction = cacheManager.getCache(Constants.PRE_AUTH_SESSION_CACHE).get(transactionId, OIDCTransaction.class);//NOSONAR getCache() will not be returning null here.
         if (oidcTransaction != null) {
             oidcTransaction.setIndividualIdHash(IdentityProviderUtil.generateB64EncodedHash(ALGO_SHA3_256, individualId));
+            transactionStateStore.moveTransaction(Constants.PRE_AUTH_SESSION_CACHE, transactionId, oidcTransaction, Map.of(),
+                    Constants.TRANSACTION_HEADER_CACHE, getTransactionHeader(Constants.PRE_AUTH_SESSION_CACHE, oidcTransaction));
         }
         return oidcTransaction;
     }
@@ -199,27 +192,38 @@ public class CacheUtilService {
     }
 
     /**
-     * Check if JTI is used.
+     * Check if JTI is used, JTI is marked as used until the expiration time plus the allowed clock skew. Callers pass
+     * the time after which the token can no longer be accepted, cache TTL is used only when it is not provided.
      * Returns true if already used (replay detected), false otherwise.
      */
-    public boolean checkAndMarkJti(String jti) {
-        Cache jtiCache = cacheManager.getCache(Constants.JTI_CACHE);
-        if(Objects.isNull(jtiCache)) throw new EsignetException(ErrorConstants.UNKNOWN_ERROR);
-        if (jtiCache.get(jti) != null) {
+    public boolean checkAndMarkJti(String jti, Date expirationTime, int maxClockSkewSeconds) {
+        Duration ttl = expirationTime == null ? null : Duration.between(Instant.now(), expirationTime.toInstant())
+                .plusSeconds(maxClockSkewSeconds);
+        if(!transactionStateStore.putIfAbsent(Constants.JTI_CACHE, jti, true, ttl)) {
             log.error("Replay detected for jti: {}", jti);
             return true;
         }
-        jtiCache.put(jti, true);
         return false;
     }
 
-    public void updateNonceInCachedTransaction(String cacheKey, String newNonce, Long newExpiryTime, String cacheName) {
-        OIDCTransaction transaction = cacheManager.getCache(cacheName).get(cacheKey, OIDCTransaction.class);
-        if (transaction != null) {
-            transaction.setDpopServerNonce(newNonce);
-            transaction.setDpopServerNonceTTL(newExpiryTime);
-            Objects.requireNonNull(cacheManager.getCache(cacheName)).put(cacheKey, transaction);
-        }
+    /**
+     * Stores the DPoP server nonce issued for the cached transaction, nonce is stored as a separate entry and the
+     * cached transaction is not rewritten. Nonce entry holds the expiry time and is evicted after the provided TTL.
+     */
+    public void saveDpopServerNonce(String cacheName, String cacheKey, String nonce, Duration ttl) {
+        long expireAt = System.currentTimeMillis() + ttl.toMillis();
+        transactionStateStore.putIfAbsent(Constants.DPOP_NONCE_CACHE, getDpopNonceKey(cacheName, cacheKey, nonce),
+                expireAt, ttl);
+    }
+
+    public boolean isValidDpopServerNonce(String cacheName, String cacheKey, String nonce) {
+        Long expireAt = cacheManager.getCache(Constants.DPOP_NONCE_CACHE).get(getDpopNonceKey(cacheName, cacheKey, nonce),
+                Long.class); //NOSONAR getCache() will not be returning null here.
+        return expireAt != null && System.currentTimeMillis() <= expireAt;
+    }
+
+    private String getDpopNonceKey(String cacheName, String cacheKey, String nonce) {
+        return String.join(":", cacheName, cacheKey, nonce);
     }
 
     //------------------------------------------------------------------------------------------------------------------
@@ -232,6 +236,15 @@ public class CacheUtilService {
         return par;
     }
 
+    /**
+     * @return header fields of the transaction, null if the transaction id is null or the header is not cached.
+     */
+    public TransactionHeader getTransactionHeader(String transactionId) {
+        if(transactionId == null)
+            return null;
+        return cacheManager.getCache(Constants.TRANSACTION_HEADER_CACHE).get(transactionId, TransactionHeader.class); //NOSONAR getCache() will not be returning null here.
+    }
+
     public OIDCTransaction getPreAuthTransaction(String transactionId) {
         return cacheManager.getCache(Constants.PRE_AUTH_SESSION_CACHE).get(transactionId, OIDCTransaction.class); //NOSONAR getCache() will not be returning null here.
     }
@@ -272,11 +285,9 @@ public class CacheUtilService {
         return cacheManager.getCache(Constants.HALTED_CACHE).get(transactionId, OIDCTransaction.class);	//NOSONAR getCache() will not be returning null here.
     }
 
-    public ApiRateLimit getApiRateLimitTransaction(String transactionId) {
-        return cacheManager.getCache(Constants.RATE_LIMIT_CACHE).get(transactionId, ApiRateLimit.class); //NOSONAR getCache() will not be returning null here.
-    }
-
     public boolean isIndividualIdBlocked(String individualIdHash) {
+        if(!blockedIndividualIdFilter.mightBeBlocked(individualIdHash))
+            return false;
         String idHash = cacheManager.getCache(Constants.BLOCKED_CACHE).get(individualIdHash, String.class); //NOSONAR getCache() will not be returning null here.
         return idHash != null;
     }
@@ -285,9 +296,14 @@ public class CacheUtilService {
         return cacheManager.getCache(Constants.SHARED_IDV_RESULT).get(transactionId, String.class); //NOSONAR getCache() will not be returning null here.
     }
 
-    private boolean isScriptNotLoaded(String scriptHash) {
-        if(scriptHash == null) return true;
-        List<Boolean> scriptExists = redisConnectionFactory.getConnection().scriptingCommands().scriptExists(scriptHash);
-        return scriptExists == null || !scriptExists.getFirst();
+    //Header is written along with the transaction in the same move, so it expires with the TTL of the cache holding
+    //the transaction
+    private TransactionHeader getTransactionHeader(String state, OIDCTransaction oidcTransaction) {
+        return new TransactionHeader(oidcTransaction.getOauthDetailsHash(), oidcTransaction.getIndividualIdHash(), state,
+                oidcTransaction.getClientId());
+    }
+
+    private void evictTransactionHeader(String transactionId) {
+        cacheManager.getCache(Constants.TRANSACTION_HEADER_CACHE).evict(transactionId); //NOSONAR getCache() will not be returning null here.
     }
 }
@@ -5,11 +5,15 @@
  */
 package io.mosip.esignet.services;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.nimbusds.jose.*;
 import com.nimbusds.jose.crypto.RSASSAVerifier;
 import com.nimbusds.jwt.SignedJWT;
+import io.micrometer.core.instrument.Metrics;
 import io.mosip.esignet.api.dto.claim.Claims;
 import io.mosip.esignet.api.spi.AuditPlugin;
 import io.mosip.esignet.api.util.Action;
@@ -17,6 +21,7 @@ import io.mosip.esignet.api.util.ActionStatus;
 import io.mosip.esignet.api.util.ConsentAction;
 import io.mosip.esignet.core.constants.ErrorConstants;
 import io.mosip.esignet.core.dto.ConsentDetail;
+import io.mosip.esignet.core.dto.KeyBindingUpdatedEvent;
 import io.mosip.esignet.core.dto.OIDCTransaction;
 import io.mosip.esignet.core.dto.UserConsent;
 import io.mosip.esignet.core.dto.UserConsentRequest;
@@ -26,14 +31,22 @@ import io.mosip.esignet.core.spi.ConsentService;
 import io.mosip.esignet.core.spi.PublicKeyRegistryService;
 import io.mosip.esignet.core.util.AuditHelper;
 import io.mosip.esignet.core.util.IdentityProviderUtil;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.ObjectUtils;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.security.PublicKey;
-import java.security.cert.Certificate;
+import java.security.cert.X509Certificate;
 import java.security.interfaces.RSAPublicKey;
 import java.text.ParseException;
 import java.time.LocalDateTime;
@@ -41,6 +54,7 @@ import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
 import java.time.temporal.TemporalUnit;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -69,6 +83,41 @@ public class ConsentHelperService {
 
     private final String PERMITTED_AUTHORIZED_SCOPES="permitted_authorized_scopes";
 
+    private static final String CACHE_KEY_SEPARATOR = "|";
+
+    private static final String VERIFIER_CACHE_METRIC = "esignet.consent.verifier.cache";
+
+    @Value("${mosip.esignet.consent.verifier-cache.max-size:1000}")
+    private int verifierCacheMaxSize;
+
+    @Value("${mosip.esignet.consent.verifier-cache.expire-seconds:600}")
+    private long verifierCacheExpireSeconds;
+
+    private Cache<String, CachedVerifier> verifierCache;
+
+    private record CachedVerifier(JWSVerifier verifier, String psuToken, String certificate, long expireAt) {}
+
+    /**
+     * Linked consent signature verifiers are cached with the individual id hash and the certificate thumbprint as key.
+     * Registry is still looked up on every verification so that a key unbound on any node is not accepted, cached
+     * verifier is used only if the registry entry carries the cached certificate. Entry is not used after the bound
+     * certificate expires, entries of the individual are evicted on key binding.
+     */
+    @PostConstruct
+    public void init() {
+        verifierCache = CacheBuilder.newBuilder()
+                .maximumSize(verifierCacheMaxSize)
+                .expireAfterWrite(verifierCacheExpireSeconds, TimeUnit.SECONDS)
+                .build();
+    }
+
+    @EventListener
+    public void onKeyBindingUpdated(KeyBindingUpdatedEvent event) {
+        String keyPrefix = event.getIdHash() + CACHE_KEY_SEPARATOR;
+        verifierCache.asMap().entrySet().removeIf(entry -> entry.getKey().startsWith(keyPrefix) ||
+                Objects.equals(entry.getValue().psuToken(), event.getPsuToken()));
+    }
+
     public void processConsent(OIDCTransaction transaction, boolean linked) {
         UserConsentRequest userConsentRequest = new UserConsentRequest();
         userConsentRequest.setClientId(transaction.getClientId());
@@ -107,9 +156,6 @@ public class ConsentHelperService {
             userConsent.setPsuToken(transaction.getPartnerSpecificUserToken());
             Claims claims = transaction.getResolvedClaims();
             List<String> acceptedClaims = transaction.getAcceptedClaims();
-            Map<String, Object> normalizedClaims = new HashMap<>();
-            normalizedClaims.put("userinfo", normalizeUserInfoClaims(claims.getUserinfo()));
-            normalizedClaims.put("id_token", normalizeIdTokenClaims(claims.getId_token()));
 
             Claims consentedClaims = new Claims();
             consentedClaims.setUserinfo(normalizeUserInfoClaims(claims.getUserinfo()));
@@ -117,16 +163,12 @@ public class ConsentHelperService {
             userConsent.setClaims(consentedClaims);
             userConsent.setSignature(signature);
             List<String> permittedScopes = transaction.getPermittedScopes();
-            List<String> requestedAuthorizeScopes = transaction.getRequestedAuthorizeScopes();
-            // defaulting the essential boolean flag as false
-            Map<String, Boolean> authorizeScopes = requestedAuthorizeScopes != null ? requestedAuthorizeScopes.stream()
-                    .collect(Collectors.toMap(Function.identity(), s->false)) : Collections.emptyMap();
-            userConsent.setAuthorizationScopes(authorizeScopes);
+            userConsent.setAuthorizationScopes(getAuthorizeScopes(transaction));
             userConsent.setAcceptedClaims(acceptedClaims);
             userConsent.setPermittedScopes(permittedScopes);
             try {
-                userConsent.setHash(hashUserConsent(normalizedClaims, authorizeScopes));
-            } catch (JsonProcessingException e) {
+                userConsent.setHash(getConsentHash(transaction));
+            } catch (IOException e) {
                 log.error("Failed to hash the user consent", e);
                 throw new EsignetException(ErrorConstants.INVALID_CLAIM);
             }
@@ -157,36 +199,87 @@ public class ConsentHelperService {
         );
     }
 
-    private Object sortObject(Object object) {
+    /**
+     * Hash of the claims and authorize scopes written as JSON with the map keys sorted ignoring case and the string
+     * lists sorted ignoring case. JSON is streamed into the digest, keys equal ignoring case are written once with the
+     * first key and the last value.
+     */
+    public String hashUserConsent(Map<String, Object> claims, Map<String, Boolean> authorizeScopes) throws IOException {
+        Map<String, Object> claimsAndAuthorizeScopes = new LinkedHashMap<>();
+        claimsAndAuthorizeScopes.put("claims", claims);
+        claimsAndAuthorizeScopes.put("authorizeScopes", authorizeScopes);
+
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance(ALGO_SHA3_256);
+        } catch (NoSuchAlgorithmException e) {
+            log.error("Invalid algorithm : {}", ALGO_SHA3_256, e);
+            throw new EsignetException(ErrorConstants.INVALID_ALGORITHM);
+        }
+        try (JsonGenerator generator = objectMapper.createGenerator(new DigestOutputStream(OutputStream.nullOutputStream(), digest))) {
+            writeSorted(generator, claimsAndAuthorizeScopes);
+        }
+        return IdentityProviderUtil.b64Encode(digest.digest());
+    }
+
+    private void writeSorted(JsonGenerator generator, Object object) throws IOException {
         if(object instanceof Map<?, ?> map) {
-            Map<String, Object> sortedMap = new TreeMap<>(String::compareToIgnoreCase);
-            map.forEach((key, value) -> sortedMap.put((String) key, sortObject(value)));
-            return sortedMap;
+            Map.Entry<?, ?>[] entries = map.entrySet().toArray(new Map.Entry<?, ?>[0]);
+            Arrays.sort(entries, (a, b) -> ((String) a.getKey()).compareToIgnoreCase((String) b.getKey()));
+            generator.writeStartObject();
+            for(int i = 0; i < entries.length; i++) {
+                int last = i;
+                while (last + 1 < entries.length &&
+                        ((String) entries[i].getKey()).compareToIgnoreCase((String) entries[last + 1].getKey()) == 0) {
+                    last++;
+                }
+                generator.writeFieldName((String) entries[i].getKey());
+                writeSorted(generator, entries[last].getValue());
+                i = last;
+            }
+            generator.writeEndObject();
         }
         else if(object instanceof List<?> list) {
-            List<Object> newList = new ArrayList<>(list);
-            if (!newList.isEmpty() && newList.getFirst() instanceof String) {
-                Collections.sort(newList, (a, b) -> {
+            List<?> elements = list;
+            if (!list.isEmpty() && list.getFirst() instanceof String) {
+                List<Object> sortedList = new ArrayList<>(list);
+                sortedList.sort((a, b) -> {
                     String strA = a != null ? a.toString() : "";
                     String strB = b != null ? b.toString() : "";
                     return strA.compareToIgnoreCase(strB);
                 });
+                elements = sortedList;
             }
-            for (int i = 0; i < newList.size(); i++) {
-                newList.set(i, sortObject(newList.get(i)));
+            generator.writeStartArray();
+            for (Object element : elements) {
+                writeSorted(generator, element);
             }
-            return newList;
+            generator.writeEndArray();
+        }
+        else {
+            generator.writeObject(object);
         }
-        return object;
     }
 
-    public String hashUserConsent(Map<String, Object> claims, Map<String, Boolean> authorizeScopes) throws JsonProcessingException {
-        Map<String, Object> claimsAndAuthorizeScopes = new LinkedHashMap<>();
-        claimsAndAuthorizeScopes.put("claims", claims);
-        claimsAndAuthorizeScopes.put("authorizeScopes", authorizeScopes);
+    /**
+     * Consent hash of the resolved claims and the requested authorize scopes, hash is computed once and kept in the
+     * transaction as both are not modified after the oauth-details request.
+     */
+    private String getConsentHash(OIDCTransaction transaction) throws IOException {
+        if(transaction.getConsentHash() == null) {
+            Map<String, Object> normalizedClaims = new HashMap<>();
+            normalizedClaims.put("userinfo", normalizeUserInfoClaims(transaction.getResolvedClaims().getUserinfo()));
+            normalizedClaims.put("id_token", normalizeIdTokenClaims(transaction.getResolvedClaims().getId_token()));
+            transaction.setConsentHash(hashUserConsent(normalizedClaims, getAuthorizeScopes(transaction)));
+        }
+        return transaction.getConsentHash();
+    }
 
-        Object sortedObject = sortObject(claimsAndAuthorizeScopes);
-        return IdentityProviderUtil.generateB64EncodedHash(ALGO_SHA3_256, objectMapper.writeValueAsString(sortedObject));
+    private Map<String, Boolean> getAuthorizeScopes(OIDCTransaction transaction) {
+        List<String> requestedAuthorizeScopes = transaction.getRequestedAuthorizeScopes();
+        // defaulting the essential boolean flag as false
+        return requestedAuthorizeScopes != null ? requestedAuthorizeScopes.stream()
+                .collect(Collectors.toMap(Function.identity(), s->false)) : Collections.emptyMap();
     }
 
     private ConsentAction evaluateConsentAction(OIDCTransaction transaction, ConsentDetail consentDetail, boolean linked) {
@@ -202,16 +295,8 @@ public class ConsentHelperService {
                 return ConsentAction.CAPTURE;
             }
 
-            List<String> authorizeScope = transaction.getRequestedAuthorizeScopes();
-
-            // defaulting the essential boolean flag as false
-            Map<String, Boolean> authorizeScopes = authorizeScope != null ? authorizeScope.stream()
-                    .collect(Collectors.toMap(Function.identity(), s->false)) : Collections.emptyMap();
-            Map<String, Object> normalizedClaims = new HashMap<>();
-            normalizedClaims.put("userinfo", normalizeUserInfoClaims(transaction.getResolvedClaims().getUserinfo()));
-            normalizedClaims.put("id_token", normalizeIdTokenClaims(transaction.getResolvedClaims().getId_token()));
-            hash = hashUserConsent(normalizedClaims, authorizeScopes);
-        } catch (JsonProcessingException e) {
+            hash = getConsentHash(transaction);
+        } catch (IOException e) {
             log.error("Failed to hash the user consent", e);
             throw new EsignetException(ErrorConstants.INVALID_CLAIM);
         }
@@ -230,15 +315,9 @@ public class ConsentHelperService {
             JWSHeader header = signedJWT.getHeader();
             String thumbPrint = header.getX509CertSHA256Thumbprint().toString();
             String idHash = getIndividualIdHash(authorizationHelperService.getIndividualId(transaction));
-            Optional<PublicKeyRegistry> publicKeyRegistryOptional = publicKeyRegistryService.
-                    findFirstByIdHashAndThumbprintAndExpiredtimes(idHash, thumbPrint);
-            if (publicKeyRegistryOptional.isPresent()) {
-                Certificate certificate = IdentityProviderUtil.convertToCertificate(publicKeyRegistryOptional.get().getCertificate());
-                PublicKey publicKey = certificate.getPublicKey();
-                JWSVerifier verifier = new RSASSAVerifier((RSAPublicKey) publicKey);
-                if (signedJWT.verify(verifier)) {
-                    return true;
-                }
+            JWSVerifier verifier = getVerifier(idHash, thumbPrint);
+            if (verifier != null && signedJWT.verify(verifier)) {
+                return true;
             }
             log.error("no entry found in public key registry");
             return false;
@@ -248,6 +327,31 @@ public class ConsentHelperService {
         }
     }
 
+    private JWSVerifier getVerifier(String idHash, String thumbPrint) {
+        String key = idHash + CACHE_KEY_SEPARATOR + thumbPrint;
+        Optional<PublicKeyRegistry> publicKeyRegistryOptional = publicKeyRegistryService.
+                findFirstByIdHashAndThumbprintAndExpiredtimes(idHash, thumbPrint);
+        if (publicKeyRegistryOptional.isEmpty()) {
+            verifierCache.invalidate(key);
+            return null;
+        }
+        String pemCertificate = publicKeyRegistryOptional.get().getCertificate();
+        CachedVerifier cachedVerifier = verifierCache.getIfPresent(key);
+        if(cachedVerifier != null && cachedVerifier.expireAt() > System.currentTimeMillis() &&
+                cachedVerifier.certificate().equals(pemCertificate)) {
+            Metrics.counter(VERIFIER_CACHE_METRIC, "result", "hit").increment();
+            return cachedVerifier.verifier();
+        }
+        Metrics.counter(VERIFIER_CACHE_METRIC, "result", "miss").increment();
+        //registry entry expires with the bound certificate
+        X509Certificate certificate = (X509Certificate) IdentityProviderUtil.convertToCertificate(pemCertificate);
+        PublicKey publicKey = certificate.getPublicKey();
+        JWSVerifier verifier = new RSASSAVerifier((RSAPublicKey) publicKey);
+        verifierCache.put(key, new CachedVerifier(verifier, publicKeyRegistryOptional.get().getPsuToken(),
+                pemCertificate, certificate.getNotAfter().getTime()));
+        return verifier;
+    }
+
     public String getIndividualIdHash (String individualId){
         return IdentityProviderUtil.generateB64EncodedHash(ALGO_SHA3_256, individualId);
     }
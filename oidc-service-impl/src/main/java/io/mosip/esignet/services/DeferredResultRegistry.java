@@ -0,0 +1,101 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.services;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Registry of the parked long-poll requests, any number of requests can wait on the same key. Request is removed
+ * from the registry when it completes (result, timeout or error) or when all the requests of the key are taken to be
+ * completed. Requests which are not completed through the servlet container, are removed after the expiry.
+ * Number of parked requests is published as a gauge.
+ */
+public class DeferredResultRegistry {
+
+    static final String PARKED_METRIC = "esignet.long-poll.parked";
+    //Time given to the container to complete the request after the deferred result timeout
+    private static final long GRACE_PERIOD_MILLIS = 10000;
+
+    private record Waiter(DeferredResult deferredResult, long expireAt) {}
+
+    private final ConcurrentMap<String, Set<Waiter>> waiters = new ConcurrentHashMap<>();
+    private final AtomicInteger parked = new AtomicInteger();
+    private volatile long nextSweepAt;
+
+    public DeferredResultRegistry(String name) {
+        Metrics.gauge(PARKED_METRIC, Tags.of("type", name), parked);
+    }
+
+    /**
+     * @param key key on which the request waits
+     * @param deferredResult deferred result of the request
+     * @param timeout timeout of the deferred result
+     */
+    public void register(String key, DeferredResult deferredResult, Duration timeout) {
+        long now = System.currentTimeMillis();
+        sweepIfDue(now, timeout);
+        Waiter waiter = new Waiter(deferredResult, now + timeout.toMillis() + GRACE_PERIOD_MILLIS);
+        waiters.compute(key, (k, keyWaiters) -> {
+            keyWaiters = keyWaiters == null ? ConcurrentHashMap.newKeySet() : keyWaiters;
+            if(keyWaiters.add(waiter))
+                parked.incrementAndGet();
+            return keyWaiters;
+        });
+        deferredResult.onCompletion(() -> remove(key, waiter));
+    }
+
+    /**
+     * Removes all the requests waiting on the key, the caller is expected to complete the returned requests.
+     * @return deferred results of the requests which are not yet completed
+     */
+    public List<DeferredResult> removeAll(String key) {
+        Set<Waiter> keyWaiters = waiters.remove(key);
+        if(keyWaiters == null)
+            return Collections.emptyList();
+        parked.addAndGet(-keyWaiters.size());
+        return keyWaiters.stream()
+                .map(Waiter::deferredResult)
+                .filter(deferredResult -> !deferredResult.isSetOrExpired())
+                .toList();
+    }
+
+    public int getParkedCount() {
+        return parked.get();
+    }
+
+    private void remove(String key, Waiter waiter) {
+        waiters.computeIfPresent(key, (k, keyWaiters) -> {
+            if(keyWaiters.remove(waiter))
+                parked.decrementAndGet();
+            return keyWaiters.isEmpty() ? null : keyWaiters;
+        });
+    }
+
+    private void sweepIfDue(long now, Duration timeout) {
+        if(now < nextSweepAt)
+            return;
+        nextSweepAt = now + timeout.toMillis() + GRACE_PERIOD_MILLIS;
+        waiters.forEach((key, keyWaiters) -> sweep(key, keyWaiters, now));
+    }
+
+    private void sweep(String key, Collection<Waiter> keyWaiters, long now) {
+        for(Waiter waiter : keyWaiters) {
+            if(waiter.expireAt() < now || waiter.deferredResult().isSetOrExpired())
+                remove(key, waiter);
+        }
+    }
+}
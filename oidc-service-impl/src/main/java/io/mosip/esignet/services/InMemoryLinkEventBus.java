@@ -0,0 +1,58 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.services;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Link events are delivered within the JVM on the publishing thread, applicable only for single node setup.
+ */
+@Slf4j
+@ConditionalOnProperty(value = "mosip.esignet.link-event-bus.type", havingValue = "in-memory")
+@Component
+public class InMemoryLinkEventBus implements LinkEventBus {
+
+    @Autowired
+    private AuthorizationHelperService authorizationHelperService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Override
+    public void publishLinkStatus(String linkCodeHash) {
+        long publishedAt = System.nanoTime();
+        try {
+            authorizationHelperService.consumeLinkStatus(linkCodeHash);
+        } catch (Exception e) {
+            //Failure to complete the waiting request should not fail the link transaction request
+            log.error("Failed to deliver link status event", e);
+        }
+        recordDeliveryLatency(LINK_STATUS_EVENT, publishedAt);
+    }
+
+    @Override
+    public void publishLinkAuthCodeStatus(String linkTransactionId) {
+        long publishedAt = System.nanoTime();
+        try {
+            authorizationHelperService.consumeLinkAuthCodeStatus(linkTransactionId);
+        } catch (Exception e) {
+            //Failure to complete the waiting request should not fail the consent request
+            log.error("Failed to deliver link auth code event", e);
+        }
+        recordDeliveryLatency(LINK_AUTH_CODE_EVENT, publishedAt);
+    }
+
+    private void recordDeliveryLatency(String event, long publishedAt) {
+        meterRegistry.timer(DELIVERY_LATENCY_METRIC, "bus", "in-memory", "event", event)
+                .record(Duration.ofNanos(System.nanoTime() - publishedAt));
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.services;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.mosip.esignet.core.util.KafkaHelperService;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Link events are published to the kafka topics, every node consumes the topics with its own listener.
+ * Delivery latency is measured from the create time of the record.
+ */
+@ConditionalOnProperty(value = "mosip.esignet.link-event-bus.type", havingValue = "kafka", matchIfMissing = true)
+@Component
+public class KafkaLinkEventBus implements LinkEventBus {
+
+    @Value("${mosip.esignet.kafka.linked-session.topic}")
+    private String linkedSessionTopicName;
+
+    @Value("${mosip.esignet.kafka.linked-auth-code.topic}")
+    private String linkedAuthCodeTopicName;
+
+    @Autowired
+    private KafkaHelperService kafkaHelperService;
+
+    @Autowired
+    private AuthorizationHelperService authorizationHelperService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Override
+    public void publishLinkStatus(String linkCodeHash) {
+        kafkaHelperService.publish(linkedSessionTopicName, linkCodeHash);
+    }
+
+    @Override
+    public void publishLinkAuthCodeStatus(String linkTransactionId) {
+        kafkaHelperService.publish(linkedAuthCodeTopicName, linkTransactionId);
+    }
+
+    @KafkaListener(id = "${spring.kafka.consumer.group-id}"+"-link-status", autoStartup = "${kafka.enabled:true}", topics = "${mosip.esignet.kafka.linked-session.topic}")
+    public void consumeLinkStatus(ConsumerRecord<String, String> record) {
+        recordDeliveryLatency(LINK_STATUS_EVENT, record.timestamp());
+        authorizationHelperService.consumeLinkStatus(record.value());
+    }
+
+    @KafkaListener(id = "${spring.kafka.consumer.group-id}"+"-linked-auth-code", autoStartup = "${kafka.enabled:true}", topics = "${mosip.esignet.kafka.linked-auth-code.topic}")
+    public void consumeLinkAuthCodeStatus(ConsumerRecord<String, String> record) {
+        recordDeliveryLatency(LINK_AUTH_CODE_EVENT, record.timestamp());
+        authorizationHelperService.consumeLinkAuthCodeStatus(record.value());
+    }
+
+    private void recordDeliveryLatency(String event, long publishedAt) {
+        meterRegistry.timer(DELIVERY_LATENCY_METRIC, "bus", "kafka", "event", event)
+                .record(Duration.ofMillis(Math.max(System.currentTimeMillis() - publishedAt, 0)));
+    }
+}
@@ -0,0 +1,30 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.services;
+
+/**
+ * Delivers the linked authorization events to all the nodes, so that the node holding the waiting link-status or
+ * link-auth-code request can complete it. Delivered events are handed over to {@link AuthorizationHelperService}.
+ * Implementation is selected with mosip.esignet.link-event-bus.type property.
+ */
+public interface LinkEventBus {
+
+    String LINK_STATUS_EVENT = "link-status";
+    String LINK_AUTH_CODE_EVENT = "link-auth-code";
+    String DELIVERY_LATENCY_METRIC = "esignet.link.event.delivery.latency";
+
+    /**
+     * Published when the link code is used to link the transaction.
+     * @param linkCodeHash hash of the link code
+     */
+    void publishLinkStatus(String linkCodeHash);
+
+    /**
+     * Published when the linked transaction is consented.
+     * @param linkTransactionId linked transaction id
+     */
+    void publishLinkAuthCodeStatus(String linkTransactionId);
+}
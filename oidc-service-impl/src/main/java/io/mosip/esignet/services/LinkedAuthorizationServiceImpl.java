@@ -22,7 +22,6 @@ import io.mosip.esignet.core.spi.LinkedAuthorizationService;
 import io.mosip.esignet.core.util.AuditHelper;
 import io.mosip.esignet.core.util.AuthenticationContextClassRefUtil;
 import io.mosip.esignet.core.util.IdentityProviderUtil;
-import io.mosip.esignet.core.util.KafkaHelperService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -58,7 +57,7 @@ public class LinkedAuthorizationServiceImpl implements LinkedAuthorizationServic
     private AuthenticationContextClassRefUtil authenticationContextClassRefUtil;
 
     @Autowired
-    private KafkaHelperService kafkaHelperService;
+    private LinkEventBus linkEventBus;
 
     @Autowired
     private AuditPlugin auditWrapper;
@@ -75,12 +74,6 @@ public class LinkedAuthorizationServiceImpl implements LinkedAuthorizationServic
     @Value("#{${mosip.esignet.ui.config.key-values}}")
     private Map<String, Object> uiConfigMap;
 
-    @Value("${mosip.esignet.kafka.linked-session.topic}")
-    private String linkedSessionTopicName;
-
-    @Value("${mosip.esignet.kafka.linked-auth-code.topic}")
-    private String linkedAuthCodeTopicName;
-
     @Value("${mosip.esignet.link-code-length:15}")
     private int linkCodeLength;
 
@@ -181,7 +174,7 @@ public class LinkedAuthorizationServiceImpl implements LinkedAuthorizationServic
         }
 
         //Publish message after successfully linking the transaction
-        kafkaHelperService.publish(linkedSessionTopicName, linkCodeHash);
+        linkEventBus.publishLinkStatus(linkCodeHash);
         auditWrapper.logAudit(Action.LINK_TRANSACTION, ActionStatus.SUCCESS,
                 AuditHelper.buildAuditDto(linkTransactionMetadata.getTransactionId(), transaction), null);
         return Pair.of(linkTransactionResponse, clientDetailDto);
@@ -248,7 +241,7 @@ public class LinkedAuthorizationServiceImpl implements LinkedAuthorizationServic
             validateConsent(transaction, transaction.getAcceptedClaims(), transaction.getPermittedScopes());
             cacheUtilService.setLinkedConsentedTransaction(transaction.getLinkedTransactionId(), transaction);
             consentHelperService.updateUserConsent(transaction, "");
-            kafkaHelperService.publish(linkedAuthCodeTopicName, transaction.getLinkedTransactionId());
+            linkEventBus.publishLinkAuthCodeStatus(transaction.getLinkedTransactionId());
         } else {
             cacheUtilService.setLinkedAuthenticatedTransaction(linkedKycAuthRequest.getLinkedTransactionId(), transaction);
         }
@@ -272,7 +265,7 @@ public class LinkedAuthorizationServiceImpl implements LinkedAuthorizationServic
         cacheUtilService.setLinkedConsentedTransaction(linkedConsentRequest.getLinkedTransactionId(), transaction);
 
         //Publish message after successfully saving the consent
-        kafkaHelperService.publish(linkedAuthCodeTopicName, linkedConsentRequest.getLinkedTransactionId());
+        linkEventBus.publishLinkAuthCodeStatus(linkedConsentRequest.getLinkedTransactionId());
 
         LinkedConsentResponse authRespDto = new LinkedConsentResponse();
         authRespDto.setLinkedTransactionId(linkedConsentRequest.getLinkedTransactionId());
@@ -295,7 +288,7 @@ public class LinkedAuthorizationServiceImpl implements LinkedAuthorizationServic
         consentHelperService.updateUserConsent(transaction, linkedConsentRequest.getSignature());
         cacheUtilService.setLinkedConsentedTransaction(linkedConsentRequest.getLinkedTransactionId(), transaction);
         //Publish message after successfully saving the consent
-        kafkaHelperService.publish(linkedAuthCodeTopicName, linkedConsentRequest.getLinkedTransactionId());
+        linkEventBus.publishLinkAuthCodeStatus(linkedConsentRequest.getLinkedTransactionId());
 
         LinkedConsentResponse authRespDto = new LinkedConsentResponse();
         authRespDto.setLinkedTransactionId(linkedConsentRequest.getLinkedTransactionId());
@@ -320,6 +313,10 @@ public class LinkedAuthorizationServiceImpl implements LinkedAuthorizationServic
             deferredResult.setResult(authorizationHelperService.getLinkStatusResponse(LINKED_STATUS));
         } else {
             authorizationHelperService.addEntryInLinkStatusDeferredResultMap(linkCodeHash, deferredResult);
+            //linked after the check and before the request is registered, event is already consumed
+            linkTransactionMetadata = cacheUtilService.getLinkedTransactionMetadata(linkCodeHash);
+            if(linkTransactionMetadata != null && linkTransactionMetadata.getLinkedTransactionId() != null)
+                authorizationHelperService.consumeLinkStatus(linkCodeHash);
         }
     }
 
@@ -337,6 +334,9 @@ public class LinkedAuthorizationServiceImpl implements LinkedAuthorizationServic
             deferredResult.setResult(authorizationHelperService.getLinkAuthStatusResponse(linkTransactionMetadata.getTransactionId(), oidcTransaction));
         } else {
             authorizationHelperService.addEntryInLinkAuthCodeStatusDeferredResultMap(linkTransactionMetadata.getLinkedTransactionId(), deferredResult);
+            //consented after the check and before the request is registered, event is already consumed
+            if(cacheUtilService.getConsentedTransaction(linkTransactionMetadata.getLinkedTransactionId()) != null)
+                authorizationHelperService.consumeLinkAuthCodeStatus(linkTransactionMetadata.getLinkedTransactionId());
         }
     }
 
@@ -0,0 +1,170 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.services;
+
+import com.nimbusds.jose.*;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jwt.SignedJWT;
+import io.mosip.esignet.core.constants.Constants;
+import io.mosip.esignet.core.dto.SigningKeyChangedEvent;
+import io.mosip.esignet.core.util.IdentityProviderUtil;
+import io.mosip.kernel.core.keymanager.spi.KeyStore;
+import io.mosip.kernel.keymanagerservice.constant.KeymanagerConstant;
+import io.mosip.kernel.keymanagerservice.entity.KeyAlias;
+import io.mosip.kernel.keymanagerservice.helper.KeymanagerDBHelper;
+import io.mosip.kernel.signature.dto.JWSSignatureRequestDto;
+import io.mosip.kernel.signature.dto.JWTSignatureResponseDto;
+import io.mosip.kernel.signature.service.SignatureService;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.security.interfaces.RSAPublicKey;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static java.security.KeyStore.PrivateKeyEntry;
+
+/**
+ * Signs the JWTs of OIDC_SERVICE_APP_ID with the current signing key held in memory, the key is loaded from the
+ * keystore with the key alias resolved by keymanager.
+ *
+ * JWS header is taken from a probe JWT signed by keymanager, and the loaded key is used only if it verifies the probe
+ * JWT. The key alias is re-resolved every refresh interval and on key expiry. Returns null whenever the local key is
+ * not usable, callers are expected to fall back to keymanager signing.
+ */
+@Slf4j
+@Component
+public class LocalTokenSigner {
+
+    @Value("${mosip.esignet.local-signer.enabled:false}")
+    private boolean enabled;
+
+    @Value("${mosip.esignet.local-signer.refresh-interval-seconds:300}")
+    private int refreshIntervalSeconds;
+
+    @Autowired
+    private KeyStore keyStore;
+
+    @Autowired
+    private KeymanagerDBHelper dbHelper;
+
+    @Autowired
+    private SignatureService signatureService;
+
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    private volatile SigningKeyHandle signingKeyHandle;
+    private volatile LocalDateTime nextRefreshTime = LocalDateTime.MIN;
+
+    /**
+     * @return signed JWT, null if the application key cannot be used locally.
+     */
+    public String sign(String applicationId, String payload) {
+        if(!enabled || !Constants.OIDC_SERVICE_APP_ID.equals(applicationId))
+            return null;
+
+        SigningKeyHandle keyHandle = getSigningKeyHandle();
+        if(keyHandle == null)
+            return null;
+
+        try {
+            JWSObject jwsObject = new JWSObject(keyHandle.header, new Payload(payload));
+            jwsObject.sign(keyHandle.signer);
+            return jwsObject.serialize();
+        } catch (Exception e) {
+            log.error("Failed to sign with local key: {}, falling back to keymanager", keyHandle.keyAlias, e);
+            signingKeyHandle = null;
+            return null;
+        }
+    }
+
+    private SigningKeyHandle getSigningKeyHandle() {
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        SigningKeyHandle keyHandle = signingKeyHandle;
+        if(keyHandle != null && now.isBefore(nextRefreshTime) && now.isBefore(keyHandle.expireAt))
+            return keyHandle;
+
+        synchronized (this) {
+            //Already refreshed by another thread or the last load failed, wait till the next refresh
+            if(signingKeyHandle != keyHandle || (keyHandle == null && now.isBefore(nextRefreshTime)))
+                return signingKeyHandle != null && now.isBefore(signingKeyHandle.expireAt) ? signingKeyHandle : null;
+
+            nextRefreshTime = now.plusSeconds(refreshIntervalSeconds);
+            try {
+                signingKeyHandle = loadSigningKey(keyHandle);
+            } catch (Exception e) {
+                log.error("Failed to load local signing key, keymanager will be used till the next refresh", e);
+                signingKeyHandle = null;
+            }
+            return signingKeyHandle;
+        }
+    }
+
+    private SigningKeyHandle loadSigningKey(SigningKeyHandle currentKeyHandle) throws Exception {
+        Map<String, List<KeyAlias>> keyAliasMap = dbHelper.getKeyAliases(Constants.OIDC_SERVICE_APP_ID, "",
+                LocalDateTime.now(ZoneOffset.UTC));
+        List<KeyAlias> currentKeyAliases = keyAliasMap.get(KeymanagerConstant.CURRENTKEYALIAS);
+        if(currentKeyAliases == null || currentKeyAliases.size() != 1) {
+            log.warn("Current key alias is not unique for {}, local signing is disabled", Constants.OIDC_SERVICE_APP_ID);
+            return null;
+        }
+
+        KeyAlias keyAlias = currentKeyAliases.getFirst();
+        if(currentKeyHandle != null && currentKeyHandle.keyAlias.equals(keyAlias.getAlias()))
+            return currentKeyHandle;
+
+        PrivateKeyEntry privateKeyEntry = keyStore.getAsymmetricKey(keyAlias.getAlias());
+        if(!(privateKeyEntry.getCertificate().getPublicKey() instanceof RSAPublicKey publicKey)) {
+            log.warn("Local signing is supported only for RSA keys, key alias: {}", keyAlias.getAlias());
+            return null;
+        }
+
+        SignedJWT probeJwt = SignedJWT.parse(signWithKeymanager("{\"iat\":" + IdentityProviderUtil.getEpochSeconds() + "}"));
+        if(!JWSAlgorithm.Family.RSA.contains(probeJwt.getHeader().getAlgorithm()) ||
+                !probeJwt.verify(new RSASSAVerifier(publicKey))) {
+            log.warn("Keymanager signature is not verifiable with the key alias: {}, local signing is disabled",
+                    keyAlias.getAlias());
+            return null;
+        }
+
+        log.info("Loaded local signing key with key alias: {}", keyAlias.getAlias());
+        if(currentKeyHandle != null) {
+            applicationEventPublisher.publishEvent(new SigningKeyChangedEvent(Constants.OIDC_SERVICE_APP_ID));
+        }
+        return new SigningKeyHandle(keyAlias.getAlias(), probeJwt.getHeader(),
+                new RSASSASigner(privateKeyEntry.getPrivateKey()), keyAlias.getKeyExpiryTime());
+    }
+
+    private String signWithKeymanager(String payload) {
+        JWSSignatureRequestDto jwsSignatureRequestDto = new JWSSignatureRequestDto();
+        jwsSignatureRequestDto.setApplicationId(Constants.OIDC_SERVICE_APP_ID);
+        jwsSignatureRequestDto.setReferenceId("");
+        jwsSignatureRequestDto.setB64JWSHeaderParam(true);
+        jwsSignatureRequestDto.setIncludePayload(true);
+        jwsSignatureRequestDto.setIncludeCertificate(false);
+        jwsSignatureRequestDto.setDataToSign(IdentityProviderUtil.b64Encode(payload));
+        jwsSignatureRequestDto.setIncludeCertHash(false);
+        jwsSignatureRequestDto.setValidateJson(true);
+        JWTSignatureResponseDto responseDto = signatureService.jwsSign(jwsSignatureRequestDto);
+        return responseDto.getJwtSignedData();
+    }
+
+    @AllArgsConstructor
+    private static class SigningKeyHandle {
+        private final String keyAlias;
+        private final JWSHeader header;
+        private final JWSSigner signer;
+        private final LocalDateTime expireAt;
+    }
+}
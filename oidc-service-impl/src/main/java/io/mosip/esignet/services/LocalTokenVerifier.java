@@ -0,0 +1,148 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.services;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jwt.SignedJWT;
+import io.mosip.esignet.core.constants.Constants;
+import io.mosip.esignet.core.dto.SigningKeyChangedEvent;
+import io.mosip.kernel.keymanagerservice.dto.AllCertificatesDataResponseDto;
+import io.mosip.kernel.keymanagerservice.service.KeymanagerService;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Verifies the JWTs signed with the OIDC_SERVICE_APP_ID keys in process. Verifiers are built from the same
+ * certificates published in the JWKS endpoint and are looked up by the 'kid' header. Certificates are reloaded
+ * every refresh interval and when a JWT with an unknown 'kid' is presented (key rotation), reload on unknown 'kid'
+ * is limited to once per the configured minimum interval.
+ */
+@Slf4j
+@Component
+public class LocalTokenVerifier {
+
+    @Value("${mosip.esignet.local-verifier.enabled:true}")
+    private boolean enabled;
+
+    @Value("${mosip.esignet.local-verifier.refresh-interval-seconds:300}")
+    private int refreshIntervalSeconds;
+
+    @Value("${mosip.esignet.local-verifier.min-refresh-interval-seconds:10}")
+    private int minRefreshIntervalSeconds;
+
+    @Autowired
+    private KeymanagerService keymanagerService;
+
+    private volatile Map<String, KeyVerifier> verifiers = Map.of();
+    private volatile LocalDateTime lastRefreshTime = LocalDateTime.MIN;
+
+    /**
+     * @return signature verification result, null if the signing key is not known locally.
+     */
+    public Boolean verify(String jwt) {
+        if(!enabled)
+            return null;
+
+        try {
+            return verify(SignedJWT.parse(jwt));
+        } catch (Exception e) {
+            log.error("Failed to verify the JWT locally", e);
+            return null;
+        }
+    }
+
+    /**
+     * @return signature verification result, null if the signing key is not known locally.
+     */
+    public Boolean verify(SignedJWT signedJWT) {
+        if(!enabled)
+            return null;
+
+        try {
+            String keyId = signedJWT.getHeader().getKeyID();
+            if(keyId == null)
+                return null;
+
+            KeyVerifier keyVerifier = getVerifier(keyId);
+            if(keyVerifier == null || !keyVerifier.verifier.supportedJWSAlgorithms().contains(signedJWT.getHeader().getAlgorithm()))
+                return null;
+
+            return signedJWT.verify(keyVerifier.verifier);
+        } catch (Exception e) {
+            log.error("Failed to verify the JWT locally", e);
+            return null;
+        }
+    }
+
+    @EventListener
+    public void onSigningKeyChanged(SigningKeyChangedEvent event) {
+        lastRefreshTime = LocalDateTime.MIN;
+    }
+
+    private KeyVerifier getVerifier(String keyId) {
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        KeyVerifier keyVerifier = verifiers.get(keyId);
+        boolean refreshRequired = now.isAfter(lastRefreshTime.plusSeconds(refreshIntervalSeconds)) ||
+                ((keyVerifier == null || !now.isBefore(keyVerifier.expireAt)) &&
+                        now.isAfter(lastRefreshTime.plusSeconds(minRefreshIntervalSeconds)));
+        if(refreshRequired) {
+            refresh(now);
+            keyVerifier = verifiers.get(keyId);
+        }
+        return keyVerifier != null && now.isBefore(keyVerifier.expireAt) ? keyVerifier : null;
+    }
+
+    private synchronized void refresh(LocalDateTime now) {
+        if(!now.isAfter(lastRefreshTime.plusSeconds(minRefreshIntervalSeconds)))
+            return;
+
+        lastRefreshTime = now;
+        AllCertificatesDataResponseDto allCertificatesDataResponseDto = keymanagerService.getAllCertificates(
+                Constants.OIDC_SERVICE_APP_ID, Optional.empty());
+        Map<String, KeyVerifier> keyVerifiers = new HashMap<>();
+        Arrays.stream(allCertificatesDataResponseDto.getAllCertificates()).forEach( dto -> {
+            try {
+                keyVerifiers.put(dto.getKeyId(), new KeyVerifier(getVerifier(JWK.parseFromPEMEncodedX509Cert(
+                        dto.getCertificateData())), dto.getExpiryAt()));
+            } catch (JOSEException e) {
+                log.error("Failed to parse the certificate data of key: {}", dto.getKeyId(), e);
+            }
+        });
+        verifiers = keyVerifiers;
+        log.info("Loaded {} local token verifiers", keyVerifiers.size());
+    }
+
+    private JWSVerifier getVerifier(JWK jwk) throws JOSEException {
+        if(jwk instanceof RSAKey rsaKey)
+            return new RSASSAVerifier(rsaKey);
+        if(jwk instanceof ECKey ecKey)
+            return new ECDSAVerifier(ecKey);
+        throw new JOSEException("Unsupported key type: " + jwk.getKeyType());
+    }
+
+    @AllArgsConstructor
+    private static class KeyVerifier {
+        private final JWSVerifier verifier;
+        private final LocalDateTime expireAt;
+    }
+}
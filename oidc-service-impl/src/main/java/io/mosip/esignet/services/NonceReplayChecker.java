@@ -0,0 +1,123 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Marks the nonce as used for the configured validity period, a nonce can be marked only once.
+ * Redis connections are obtained from the shared connection factory through the template and released after each
+ * call. Batch check is a single script invocation, script is run with EVALSHA and loaded only on NOSCRIPT error. Nonce
+ * keys are not in the same hash slot, so in cluster mode the batch is checked with a SET NX for each nonce.
+ */
+@Slf4j
+@Component
+public class NonceReplayChecker {
+
+    private static final String NONCE_KEY = "nonce::%s";
+    private static final RedisScript<List> BATCH_NONCE_CHECK_SCRIPT = new DefaultRedisScript<>("""
+            local result = {}
+            for i = 1, #KEYS do
+                if redis.call("SET", KEYS[i], "1", "NX", "EX", tonumber(ARGV[1])) then
+                    result[i] = 1
+                else
+                    result[i] = 0
+                end
+            end
+            return result""", List.class);
+
+    @Value("${mosip.esignet.nonce-expire-seconds:86400}")
+    private int nonceValidity;
+
+    @Value("${spring.cache.type}")
+    private String cacheType;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired(required = false)
+    private RedisConnectionMode redisConnectionMode;
+
+    private Counter acceptedCounter;
+    private Counter replayedCounter;
+    private Timer latencyTimer;
+
+    @PostConstruct
+    public void init() {
+        acceptedCounter = Counter.builder("esignet.nonce.check").tag("result", "accepted").register(meterRegistry);
+        replayedCounter = Counter.builder("esignet.nonce.check").tag("result", "replayed").register(meterRegistry);
+        latencyTimer = Timer.builder("esignet.nonce.check.latency")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return true if the nonce is used for the first time, false if the nonce is replayed.
+     */
+    public boolean markIfUnused(String nonce) {
+        if("simple".equalsIgnoreCase(cacheType))
+            return true;
+
+        Boolean result = latencyTimer.record(() -> stringRedisTemplate.opsForValue()
+                .setIfAbsent(NONCE_KEY.formatted(nonce), "1", Duration.ofSeconds(nonceValidity)));
+        return count(Boolean.TRUE.equals(result));
+    }
+
+    /**
+     * @return result of {@link #markIfUnused(String)} for each of the nonce, in the iteration order of the collection.
+     */
+    public List<Boolean> markIfUnused(Collection<String> nonces) {
+        if(nonces.isEmpty())
+            return Collections.emptyList();
+
+        if("simple".equalsIgnoreCase(cacheType))
+            return new ArrayList<>(Collections.nCopies(nonces.size(), true));
+
+        List<String> keys = nonces.stream().map(NONCE_KEY::formatted).toList();
+        List<Boolean> unused = new ArrayList<>();
+        if(redisConnectionMode != null && redisConnectionMode.isCluster()) {
+            latencyTimer.record(() -> keys.forEach(key -> unused.add(Boolean.TRUE.equals(stringRedisTemplate.opsForValue()
+                    .setIfAbsent(key, "1", Duration.ofSeconds(nonceValidity))))));
+        } else {
+            List<Object> results = latencyTimer.record(() -> stringRedisTemplate.execute(BATCH_NONCE_CHECK_SCRIPT, keys,
+                    String.valueOf(nonceValidity)));
+            for(int i=0; i<keys.size(); i++) {
+                unused.add(results != null && Long.valueOf(1L).equals(results.get(i)));
+            }
+        }
+        unused.forEach(this::count);
+        return unused;
+    }
+
+    private boolean count(boolean unused) {
+        if(unused)
+            acceptedCounter.increment();
+        else {
+            replayedCounter.increment();
+            log.error("Replay detected for nonce");
+        }
+        return unused;
+    }
+}
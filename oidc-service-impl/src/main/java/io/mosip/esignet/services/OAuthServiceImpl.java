@@ -114,7 +114,7 @@ public class OAuthServiceImpl implements OAuthService {
         if (dpopHeader != null || transaction.isDpopBoundAccessToken()) {
             if (dpopHeader == null) throw new EsignetException(INVALID_REQUEST);
             transaction.setDpopJkt(validateDpopJktThumbprint(dpopHeader,transaction.getDpopJkt()));
-            if(!tokenService.isValidDpopServerNonce(dpopHeader, transaction)) {
+            if(!tokenService.isValidDpopServerNonce(dpopHeader, codeHash, AUTH_CODE_GENERATED_CACHE)) {
                 tokenService.generateAndStoreNewNonce(codeHash, AUTH_CODE_GENERATED_CACHE);
             }
             transaction.setDpopBoundAccessToken(true); // enables client to use dpop even if relying party has not mandated the dpop_bound_access_token
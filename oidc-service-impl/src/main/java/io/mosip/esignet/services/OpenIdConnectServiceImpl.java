@@ -9,6 +9,7 @@ import io.mosip.esignet.api.spi.AuditPlugin;
 import io.mosip.esignet.api.util.Action;
 import io.mosip.esignet.api.util.ActionStatus;
 import io.mosip.esignet.core.dto.OIDCTransaction;
+import io.mosip.esignet.core.dto.ParsedCredentialContext;
 import io.mosip.esignet.core.exception.EsignetException;
 import io.mosip.esignet.core.exception.NotAuthenticatedException;
 import io.mosip.esignet.core.spi.OpenIdConnectService;
@@ -20,6 +21,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 import java.util.Map;
 
@@ -49,16 +52,22 @@ public class OpenIdConnectServiceImpl implements OpenIdConnectService {
         OIDCTransaction transaction = null;
         try {
             String[] tokenParts = IdentityProviderUtil.splitAndTrimValue(accessToken, Constants.SPACE);
-            accessTokenHash = IdentityProviderUtil.generateOIDCAtHash(tokenParts[1]);
+            ParsedCredentialContext credentialContext = getParsedCredentialContext(tokenParts[1]);
+            accessTokenHash = credentialContext != null ? credentialContext.getAccessTokenAtHash() :
+                    IdentityProviderUtil.generateOIDCAtHash(tokenParts[1]);
             transaction = cacheUtilService.getUserInfoTransaction(accessTokenHash);
             if(transaction == null)
                 throw new NotAuthenticatedException();
 
-            if(transaction.isDpopBoundAccessToken() && !tokenService.isValidDpopServerNonce(dpopHeader, transaction)) {
+            if(transaction.isDpopBoundAccessToken() && !isValidDpopServerNonce(credentialContext, dpopHeader, accessTokenHash)) {
                 tokenService.generateAndStoreNewNonce(accessTokenHash, Constants.USERINFO_CACHE);
             }
 
-            tokenService.verifyAccessToken(transaction.getClientId(), transaction.getPartnerSpecificUserToken(), tokenParts[1]);
+            if(credentialContext != null && credentialContext.getAccessTokenJwt() != null)
+                tokenService.verifyAccessToken(transaction.getClientId(), transaction.getPartnerSpecificUserToken(),
+                        credentialContext.getAccessTokenJwt());
+            else
+                tokenService.verifyAccessToken(transaction.getClientId(), transaction.getPartnerSpecificUserToken(), tokenParts[1]);
 
             String processedResponse = userInfoResponseHelper.processUserInfoResponse(transaction);
 
@@ -77,4 +86,29 @@ public class OpenIdConnectServiceImpl implements OpenIdConnectService {
     public Map<String, Object> getOpenIdConfiguration() {
         return discoveryMap;
     }
+
+    /**
+     * @return credentials parsed by the DPoP validation filter for the same access token, null if not available.
+     */
+    private ParsedCredentialContext getParsedCredentialContext(String accessToken) {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if(requestAttributes == null)
+            return null;
+
+        Object credentialContext = requestAttributes.getAttribute(Constants.PARSED_CREDENTIAL_CONTEXT,
+                RequestAttributes.SCOPE_REQUEST);
+        if(credentialContext instanceof ParsedCredentialContext parsedCredentialContext &&
+                parsedCredentialContext.getAccessTokenAtHash() != null &&
+                parsedCredentialContext.getAccessToken().equals(accessToken))
+            return parsedCredentialContext;
+        return null;
+    }
+
+    private boolean isValidDpopServerNonce(ParsedCredentialContext credentialContext, String dpopHeader,
+                                           String accessTokenHash) {
+        if(credentialContext != null && credentialContext.getDpopClaims() != null)
+            return tokenService.isValidDpopServerNonce(credentialContext.getDpopClaims(), accessTokenHash,
+                    Constants.USERINFO_CACHE);
+        return tokenService.isValidDpopServerNonce(dpopHeader, accessTokenHash, Constants.USERINFO_CACHE);
+    }
 }
@@ -0,0 +1,123 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.services;
+
+import io.mosip.esignet.core.config.NearCache;
+import io.mosip.esignet.core.constants.Constants;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Sliding window rate limiter, invocation times of each key are kept in a sorted set under the apiratelimit cache key
+ * prefix. Expired invocations are removed, attempts limit and invocation gap of all the keys are checked and the
+ * invocation is added to every key with a single lua script invocation. Script returns 0 if allowed, otherwise
+ * (index * 2 + failed check) where failed check is 1 for the attempts limit and 2 for the invocation gap. Invocation
+ * time is taken from the redis server clock, so the window is not affected by the clock skew between the nodes.
+ *
+ * Keys of the different scopes are not in the same hash slot, so in cluster mode the script is invoked for each key and
+ * the invocation recorded against the keys checked before a failing key is removed.
+ */
+@ConditionalOnProperty(value = "spring.cache.type", havingValue = "redis")
+@Component
+public class RedisApiRateLimiter implements ApiRateLimiter {
+
+    private static final RedisScript<Long> RATE_LIMIT_SCRIPT = new DefaultRedisScript<>("""
+            if redis.replicate_commands then
+                redis.replicate_commands()
+            end
+            local time = redis.call("TIME")
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            for i = 1, #KEYS do
+                local window = tonumber(ARGV[i * 3 - 2])
+                redis.call("ZREMRANGEBYSCORE", KEYS[i], "-inf", now - window)
+                if redis.call("ZCARD", KEYS[i]) >= tonumber(ARGV[i * 3 - 1]) then
+                    return (i - 1) * 2 + 1
+                end
+                local last = redis.call("ZRANGE", KEYS[i], -1, -1, "WITHSCORES")
+                if tonumber(ARGV[i * 3]) > 0 and #last > 0 and now - tonumber(last[2]) < tonumber(ARGV[i * 3]) then
+                    return (i - 1) * 2 + 2
+                end
+            end
+            for i = 1, #KEYS do
+                redis.call("ZADD", KEYS[i], now, ARGV[#ARGV])
+                redis.call("PEXPIRE", KEYS[i], ARGV[i * 3 - 2])
+            end
+            return 0""", Long.class);
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private RedisConnectionMode redisConnectionMode;
+
+    @Override
+    public Decision tryAcquire(List<Limit> limits) {
+        RedisCacheConfiguration cacheConfiguration = getRedisCache().getCacheConfiguration();
+        String keyPrefix = cacheConfiguration.getKeyPrefixFor(Constants.RATE_LIMIT_CACHE);
+        List<String> keys = new ArrayList<>();
+        List<String> args = new ArrayList<>();
+        for(Limit limit : limits) {
+            Duration window = limit.getWindow() != null ? limit.getWindow() :
+                    cacheConfiguration.getTtlFunction().getTimeToLive(limit.getKey(), null);
+            keys.add(keyPrefix + limit.getKey());
+            args.add(String.valueOf(window.toMillis()));
+            args.add(String.valueOf(limit.getAttemptsLimit()));
+            args.add(String.valueOf(Math.max(limit.getInvocationGapSeconds(), 0) * 1000L));
+        }
+        String member = UUID.randomUUID().toString();
+
+        if(!redisConnectionMode.isCluster()) {
+            args.add(member);
+            return toDecision(stringRedisTemplate.execute(RATE_LIMIT_SCRIPT, keys, args.toArray()), 0);
+        }
+
+        for(int i = 0; i < keys.size(); i++) {
+            Decision decision = toDecision(stringRedisTemplate.execute(RATE_LIMIT_SCRIPT, List.of(keys.get(i)),
+                    args.get(i * 3), args.get(i * 3 + 1), args.get(i * 3 + 2), member), i);
+            if(decision.getResult() != Result.ALLOWED) {
+                for(int j = 0; j < i; j++) {
+                    stringRedisTemplate.opsForZSet().remove(keys.get(j), member);
+                }
+                return decision;
+            }
+        }
+        return new Decision(Result.ALLOWED, -1);
+    }
+
+    private Decision toDecision(Long result, int indexOffset) {
+        if(result == null || result == 0)
+            return new Decision(Result.ALLOWED, -1);
+        int failed = result.intValue() - 1;
+        return new Decision(Result.values()[failed % 2 + 1], indexOffset + failed / 2);
+    }
+
+    private RedisCache getRedisCache() {
+        Cache cache = cacheManager.getCache(Constants.RATE_LIMIT_CACHE);
+        if(cache instanceof NearCache nearCache) {
+            cache = nearCache.getDelegate();
+        }
+        if(cache instanceof RedisCache redisCache) {
+            return redisCache;
+        }
+        throw new IllegalStateException("Not a redis cache: " + Constants.RATE_LIMIT_CACHE);
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.services;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import io.mosip.esignet.core.constants.Constants;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.SubscriptionListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bloom filter of the blocked individual ids replicated on all the nodes. Blocked individual id is added to a sorted
+ * set scored with its expiry time and then published on the channel, all the nodes add the published id to their
+ * filter. Entries cannot be removed from a bloom filter, so the filter is rebuilt from the sorted set every refresh
+ * interval after the expired ids are removed, this also recovers the ids of the missed pub/sub messages. Till the
+ * first build completes, all the individual ids are reported as might be blocked.
+ *
+ * Ids added while a rebuild is running are added to both the filters, adding and swapping the filters are done under
+ * the same lock so that an id is never added only to the discarded filter.
+ *
+ * Messages published while the channel subscription is down are lost, so the filter is dropped (all the ids are
+ * reported as might be blocked) when the subscription is lost or (re)established and a rebuild is forced. A rebuild
+ * started before such an event is discarded. Failure to publish forces a rebuild on the publishing node, other nodes
+ * pick the id up on their next rebuild, within the refresh interval.
+ */
+@Slf4j
+@ConditionalOnProperty(value = "spring.cache.type", havingValue = "redis")
+@Component
+public class RedisBlockedIndividualIdFilter implements BlockedIndividualIdFilter, MessageListener, SubscriptionListener {
+
+    @Value("${mosip.esignet.cache.blocked-id-filter.expected-insertions:100000}")
+    private int expectedInsertions;
+
+    @Value("${mosip.esignet.cache.blocked-id-filter.false-positive-probability:0.01}")
+    private double falsePositiveProbability;
+
+    @Value("${mosip.esignet.cache.blocked-id-filter.refresh-interval-secs:60}")
+    private long refreshIntervalSecs;
+
+    @Value("${mosip.esignet.cache.blocked-id-filter.channel:${mosip.esignet.cache.keyprefix}:blocked-individual-ids}")
+    private String channel;
+
+    @Value("${mosip.esignet.cache.blocked-id-filter.set-key:${mosip.esignet.cache.keyprefix}:blocked-individual-id-set}")
+    private String setKey;
+
+    @Value("#{${mosip.esignet.cache.expire-in-seconds}}")
+    private Map<String, Integer> cacheExpireInSeconds;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private RedisMessageListenerContainer redisMessageListenerContainer;
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean(false);
+    private volatile BloomFilter<CharSequence> filter;
+    //filter being rebuilt, ids added during the rebuild are added to both the filters
+    private volatile BloomFilter<CharSequence> nextFilter;
+    private volatile long nextRefreshAt;
+    //incremented whenever the published ids might have been missed, filter built from an older generation is discarded
+    private final AtomicLong generation = new AtomicLong();
+    private final Object filterLock = new Object();
+
+    @PostConstruct
+    public void init() {
+        redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(channel));
+        rebuilding.set(true);
+        CompletableFuture.runAsync(this::rebuildAndRelease);
+    }
+
+    @Override
+    public boolean mightBeBlocked(String individualIdHash) {
+        if(System.currentTimeMillis() >= nextRefreshAt && rebuilding.compareAndSet(false, true)) {
+            CompletableFuture.runAsync(this::rebuildAndRelease);
+        }
+        BloomFilter<CharSequence> currentFilter = filter;
+        return currentFilter == null || currentFilter.mightContain(individualIdHash);
+    }
+
+    @Override
+    public void add(String individualIdHash) {
+        long expireAt = System.currentTimeMillis() +
+                (cacheExpireInSeconds.getOrDefault(Constants.BLOCKED_CACHE, 600) * 1000L);
+        stringRedisTemplate.opsForZSet().add(setKey, individualIdHash, expireAt);
+        addLocal(individualIdHash);
+        try {
+            stringRedisTemplate.convertAndSend(channel, individualIdHash);
+        } catch (Exception e) {
+            log.error("Failed to publish blocked individual id, forcing rebuild of the filter", e);
+            forceRebuild();
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        addLocal(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    //Invoked on the first subscription and on every resubscription after the connection is recovered
+    @Override
+    public void onChannelSubscribed(byte[] channel, long count) {
+        log.info("Subscribed to the blocked individual id channel, rebuilding the filter");
+        invalidate();
+        forceRebuild();
+    }
+
+    @Override
+    public void onChannelUnsubscribed(byte[] channel, long count) {
+        log.warn("Unsubscribed from the blocked individual id channel, filter is dropped till the next rebuild");
+        invalidate();
+    }
+
+    private void invalidate() {
+        synchronized (filterLock) {
+            generation.incrementAndGet();
+            filter = null;
+        }
+    }
+
+    private void forceRebuild() {
+        nextRefreshAt = 0;
+        if(rebuilding.compareAndSet(false, true)) {
+            CompletableFuture.runAsync(this::rebuildAndRelease);
+        }
+    }
+
+    private void addLocal(String individualIdHash) {
+        synchronized (filterLock) {
+            if(filter != null)
+                filter.put(individualIdHash);
+            if(nextFilter != null)
+                nextFilter.put(individualIdHash);
+        }
+    }
+
+    private void rebuildAndRelease() {
+        try {
+            rebuild();
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    void rebuild() {
+        long rebuildGeneration = generation.get();
+        BloomFilter<CharSequence> rebuildFilter = BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8),
+                expectedInsertions, falsePositiveProbability);
+        synchronized (filterLock) {
+            nextFilter = rebuildFilter;
+        }
+        boolean stale = false;
+        try {
+            stringRedisTemplate.opsForZSet().removeRangeByScore(setKey, 0, System.currentTimeMillis());
+            try(Cursor<ZSetOperations.TypedTuple<String>> cursor = stringRedisTemplate.opsForZSet().scan(setKey,
+                    ScanOptions.scanOptions().count(1000).build())) {
+                while (cursor.hasNext()) {
+                    rebuildFilter.put(cursor.next().getValue());
+                }
+            }
+            synchronized (filterLock) {
+                stale = rebuildGeneration != generation.get();
+                if(!stale)
+                    filter = rebuildFilter;
+                nextFilter = null;
+            }
+            if(stale) {
+                log.debug("Discarded blocked individual id filter built before the subscription change");
+            } else {
+                log.debug("Rebuilt blocked individual id filter, approximate count: {}", rebuildFilter.approximateElementCount());
+            }
+        } catch (Exception e) {
+            log.error("Failed to rebuild blocked individual id filter", e);
+        } finally {
+            synchronized (filterLock) {
+                if(nextFilter == rebuildFilter)
+                    nextFilter = null;
+            }
+            nextRefreshAt = stale ? 0 : System.currentTimeMillis() + (refreshIntervalSecs * 1000);
+        }
+    }
+}
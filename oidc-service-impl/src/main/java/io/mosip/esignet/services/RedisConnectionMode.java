@@ -0,0 +1,38 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tells if redis is connected in cluster mode, multi key scripts are not used in cluster mode as the keys of different
+ * caches are not in the same hash slot. Resolved on the first check, so no connection is opened while the context starts.
+ */
+@ConditionalOnProperty(value = "spring.cache.type", havingValue = "redis")
+@Component
+public class RedisConnectionMode {
+
+    @Autowired
+    private RedisConnectionFactory redisConnectionFactory;
+
+    private volatile Boolean cluster;
+
+    public boolean isCluster() {
+        Boolean clusterMode = cluster;
+        if(clusterMode == null) {
+            try(RedisConnection connection = redisConnectionFactory.getConnection()) {
+                clusterMode = connection instanceof RedisClusterConnection;
+            }
+            cluster = clusterMode;
+        }
+        return clusterMode;
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.services;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * Link events are published on redis pub/sub channels, every node subscribes to the channels. Message format is
+ * publishedAtMillis|payload, delivery latency is measured from the publish time. Requires 'redis' cache type.
+ */
+@Slf4j
+@ConditionalOnProperty(value = "mosip.esignet.link-event-bus.type", havingValue = "redis")
+@Component
+public class RedisLinkEventBus implements LinkEventBus {
+
+    private static final String SEPARATOR = "|";
+
+    @Value("${mosip.esignet.link-event-bus.redis.link-status-channel:${mosip.esignet.cache.keyprefix}:link-status}")
+    private String linkStatusChannel;
+
+    @Value("${mosip.esignet.link-event-bus.redis.link-auth-code-channel:${mosip.esignet.cache.keyprefix}:link-auth-code}")
+    private String linkAuthCodeChannel;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private RedisMessageListenerContainer redisMessageListenerContainer;
+
+    @Autowired
+    private AuthorizationHelperService authorizationHelperService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @PostConstruct
+    public void init() {
+        redisMessageListenerContainer.addMessageListener(listener(LINK_STATUS_EVENT), new ChannelTopic(linkStatusChannel));
+        redisMessageListenerContainer.addMessageListener(listener(LINK_AUTH_CODE_EVENT), new ChannelTopic(linkAuthCodeChannel));
+    }
+
+    @Override
+    public void publishLinkStatus(String linkCodeHash) {
+        publish(linkStatusChannel, linkCodeHash);
+    }
+
+    @Override
+    public void publishLinkAuthCodeStatus(String linkTransactionId) {
+        publish(linkAuthCodeChannel, linkTransactionId);
+    }
+
+    private void publish(String channel, String payload) {
+        stringRedisTemplate.convertAndSend(channel, System.currentTimeMillis() + SEPARATOR + payload);
+        log.info("Published message to channel : {}", channel);
+    }
+
+    MessageListener listener(String event) {
+        return (Message message, byte[] pattern) -> {
+            String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 2);
+            if(parts.length != 2) {
+                log.error("Ignoring invalid {} message", event);
+                return;
+            }
+            meterRegistry.timer(DELIVERY_LATENCY_METRIC, "bus", "redis", "event", event)
+                    .record(Duration.ofMillis(Math.max(System.currentTimeMillis() - Long.parseLong(parts[0]), 0)));
+            try {
+                if(LINK_STATUS_EVENT.equals(event))
+                    authorizationHelperService.consumeLinkStatus(parts[1]);
+                else
+                    authorizationHelperService.consumeLinkAuthCodeStatus(parts[1]);
+            } catch (Exception e) {
+                log.error("Failed to consume {} message", event, e);
+            }
+        };
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.services;
+
+import io.mosip.esignet.core.config.NearCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.util.ByteUtils;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves the transaction between the caches with a single lua script invocation, key and value of the entries are
+ * built with the respective redis cache configuration, so the entries are readable with the cache abstraction.
+ *
+ * Keys of a move are in different caches and are not under the same hash slot, so with a redis cluster connection the
+ * script cannot be used. In cluster mode the entries are set first and then the evicted keys are deleted with separate
+ * commands, a failure in between leaves the transaction in both the caches till the evicted entry expires.
+ */
+@ConditionalOnProperty(value = "spring.cache.type", havingValue = "redis")
+@Component
+public class RedisTransactionStateStore implements TransactionStateStore {
+
+    //ARGV[1] is the target value, ARGV[2] the TTL and ARGV[3] the optional companion value. Keys with a value are set
+    //with the TTL and the remaining keys are deleted.
+    private static final RedisScript<Long> MOVE_SCRIPT = new DefaultRedisScript<>("""
+            local values = {ARGV[1], ARGV[3]}
+            local puts = #ARGV - 1
+            for i = 1, puts do
+                if tonumber(ARGV[2]) > 0 then
+                    redis.call("SET", KEYS[i], values[i], "PX", ARGV[2])
+                else
+                    redis.call("SET", KEYS[i], values[i])
+                end
+            end
+            for i = puts + 1, #KEYS do
+                redis.call("DEL", KEYS[i])
+            end
+            return 1""", Long.class);
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private RedisConnectionMode redisConnectionMode;
+
+    private final RedisTemplate<String, byte[]> redisTemplate;
+
+    @Autowired
+    public RedisTransactionStateStore(RedisConnectionFactory redisConnectionFactory) {
+        redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(redisConnectionFactory);
+        redisTemplate.setKeySerializer(RedisSerializer.string());
+        redisTemplate.setValueSerializer(RedisSerializer.byteArray());
+        redisTemplate.afterPropertiesSet();
+    }
+
+    @Override
+    public void moveTransaction(String targetCacheName, String targetKey, Object value, Map<String, String> evictions,
+                                String companionCacheName, Object companionValue) {
+        RedisCacheConfiguration targetCacheConfiguration = getRedisCache(targetCacheName).getCacheConfiguration();
+        List<String> keys = new ArrayList<>();
+        keys.add(targetCacheConfiguration.getKeyPrefixFor(targetCacheName) + targetKey);
+        RedisCacheConfiguration companionCacheConfiguration = null;
+        if(companionCacheName != null) {
+            companionCacheConfiguration = getRedisCache(companionCacheName).getCacheConfiguration();
+            keys.add(companionCacheConfiguration.getKeyPrefixFor(companionCacheName) + targetKey);
+        }
+        evictions.forEach((cacheName, key) -> {
+            if(key != null) {
+                keys.add(getRedisCache(cacheName).getCacheConfiguration().getKeyPrefixFor(cacheName) + key);
+            }
+        });
+
+        List<byte[]> values = new ArrayList<>();
+        values.add(ByteUtils.getBytes(targetCacheConfiguration.getValueSerializationPair().write(value)));
+        if(companionCacheConfiguration != null) {
+            values.add(ByteUtils.getBytes(companionCacheConfiguration.getValueSerializationPair().write(companionValue)));
+        }
+        Duration ttl = targetCacheConfiguration.getTtlFunction().getTimeToLive(targetKey, value);
+        if(redisConnectionMode.isCluster()) {
+            moveWithCommands(keys, values, ttl);
+        } else {
+            List<byte[]> args = new ArrayList<>();
+            args.add(values.get(0));
+            args.add(String.valueOf(ttl == null ? 0 : ttl.toMillis()).getBytes(StandardCharsets.UTF_8));
+            if(values.size() > 1) {
+                args.add(values.get(1));
+            }
+            redisTemplate.execute(MOVE_SCRIPT, keys, args.toArray());
+        }
+
+        invalidateNearCache(targetCacheName, targetKey);
+        if(companionCacheName != null) {
+            invalidateNearCache(companionCacheName, targetKey);
+        }
+        evictions.forEach((cacheName, key) -> {
+            if(key != null) {
+                invalidateNearCache(cacheName, key);
+            }
+        });
+    }
+
+    @Override
+    public boolean putIfAbsent(String cacheName, String key, Object value, Duration ttl) {
+        RedisCacheConfiguration cacheConfiguration = getRedisCache(cacheName).getCacheConfiguration();
+        if(ttl == null || ttl.isNegative() || ttl.isZero()) {
+            ttl = cacheConfiguration.getTtlFunction().getTimeToLive(key, value);
+        }
+        String redisKey = cacheConfiguration.getKeyPrefixFor(cacheName) + key;
+        byte[] valueBytes = ByteUtils.getBytes(cacheConfiguration.getValueSerializationPair().write(value));
+        Boolean result = (ttl == null || ttl.isZero()) ? redisTemplate.opsForValue().setIfAbsent(redisKey, valueBytes) :
+                redisTemplate.opsForValue().setIfAbsent(redisKey, valueBytes, ttl);
+        if(Boolean.TRUE.equals(result)) {
+            invalidateNearCache(cacheName, key);
+            return true;
+        }
+        return false;
+    }
+
+    private void moveWithCommands(List<String> keys, List<byte[]> values, Duration ttl) {
+        for(int i = 0; i < values.size(); i++) {
+            if(ttl != null && !ttl.isZero() && !ttl.isNegative()) {
+                redisTemplate.opsForValue().set(keys.get(i), values.get(i), ttl);
+            } else {
+                redisTemplate.opsForValue().set(keys.get(i), values.get(i));
+            }
+        }
+        for(int i = values.size(); i < keys.size(); i++) {
+            redisTemplate.delete(keys.get(i));
+        }
+    }
+
+    private RedisCache getRedisCache(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if(cache instanceof NearCache nearCache) {
+            cache = nearCache.getDelegate();
+        }
+        if(cache instanceof RedisCache redisCache) {
+            return redisCache;
+        }
+        throw new IllegalStateException("Not a redis cache: " + cacheName);
+    }
+
+    private void invalidateNearCache(String cacheName, String key) {
+        if(cacheManager.getCache(cacheName) instanceof NearCache nearCache) {
+            nearCache.invalidate(key);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.services;
+
+import io.mosip.esignet.core.constants.Constants;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sliding window rate limiter on the in-memory apiratelimit cache, invocation times of each key are cached as an array
+ * and all the keys are checked and updated under a lock. Applicable only for the single instance 'simple' cache type setup.
+ */
+@ConditionalOnProperty(value = "spring.cache.type", havingValue = "simple")
+@Component
+public class SimpleApiRateLimiter implements ApiRateLimiter {
+
+    @Value("#{${mosip.esignet.cache.expire-in-seconds}}")
+    private Map<String, Integer> cacheExpireInSeconds;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Override
+    public synchronized Decision tryAcquire(List<Limit> limits) {
+        Cache cache = cacheManager.getCache(Constants.RATE_LIMIT_CACHE);
+        long now = System.currentTimeMillis();
+        long[][] invocations = new long[limits.size()][];
+        for(int i = 0; i < limits.size(); i++) {
+            Limit limit = limits.get(i);
+            Duration window = limit.getWindow() != null ? limit.getWindow() :
+                    Duration.ofSeconds(cacheExpireInSeconds.getOrDefault(Constants.RATE_LIMIT_CACHE, 60));
+            long windowStart = now - window.toMillis();
+            long[] keyInvocations = cache.get(limit.getKey(), long[].class); //NOSONAR getCache() will not be returning null here.
+            keyInvocations = keyInvocations == null ? new long[0] :
+                    Arrays.stream(keyInvocations).filter(invocation -> invocation > windowStart).toArray();
+
+            if(keyInvocations.length >= limit.getAttemptsLimit())
+                return new Decision(Result.LIMIT_EXCEEDED, i);
+
+            if(limit.getInvocationGapSeconds() > 0 && keyInvocations.length > 0 &&
+                    now - keyInvocations[keyInvocations.length - 1] < limit.getInvocationGapSeconds() * 1000L)
+                return new Decision(Result.TOO_EARLY, i);
+            invocations[i] = keyInvocations;
+        }
+
+        for(int i = 0; i < limits.size(); i++) {
+            long[] keyInvocations = Arrays.copyOf(invocations[i], invocations[i].length + 1);
+            keyInvocations[keyInvocations.length - 1] = now;
+            cache.put(limits.get(i).getKey(), keyInvocations);
+        }
+        return new Decision(Result.ALLOWED, -1);
+    }
+}
@@ -0,0 +1,27 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.services;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Blocked cache is an in-memory cache with the 'simple' cache type, lookup is always delegated to the cache.
+ */
+@ConditionalOnProperty(value = "spring.cache.type", havingValue = "simple")
+@Component
+public class SimpleBlockedIndividualIdFilter implements BlockedIndividualIdFilter {
+
+    @Override
+    public boolean mightBeBlocked(String individualIdHash) {
+        return true;
+    }
+
+    @Override
+    public void add(String individualIdHash) {
+        //Nothing to do, blocked cache is checked always
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+
+@ConditionalOnProperty(value = "spring.cache.type", havingValue = "simple")
+@Component
+public class SimpleTransactionStateStore implements TransactionStateStore {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Override
+    public void moveTransaction(String targetCacheName, String targetKey, Object value, Map<String, String> evictions,
+                                String companionCacheName, Object companionValue) {
+        evictions.forEach((cacheName, key) -> {
+            if(key != null) {
+                cacheManager.getCache(cacheName).evict(key); //NOSONAR getCache() will not be returning null here.
+            }
+        });
+        cacheManager.getCache(targetCacheName).put(targetKey, value); //NOSONAR getCache() will not be returning null here.
+        if(companionCacheName != null) {
+            cacheManager.getCache(companionCacheName).put(targetKey, companionValue); //NOSONAR getCache() will not be returning null here.
+        }
+    }
+
+    @Override
+    public boolean putIfAbsent(String cacheName, String key, Object value, Duration ttl) {
+        return cacheManager.getCache(cacheName).putIfAbsent(key, value) == null; //NOSONAR getCache() will not be returning null here.
+    }
+}
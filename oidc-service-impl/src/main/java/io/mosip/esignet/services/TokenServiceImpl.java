@@ -6,6 +6,8 @@
 package io.mosip.esignet.services;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.nimbusds.jose.JWSAlgorithm;
 import com.nimbusds.jose.jwk.JWK;
 import com.nimbusds.jose.jwk.JWKSet;
@@ -18,6 +20,7 @@ import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.JWTParser;
 import com.nimbusds.jwt.SignedJWT;
 import com.nimbusds.jwt.proc.*;
+import io.mosip.esignet.core.dto.ClientDetailEvictedEvent;
 import io.mosip.esignet.core.dto.OIDCTransaction;
 import io.mosip.esignet.core.exception.*;
 import io.mosip.esignet.core.spi.TokenService;
@@ -27,11 +30,13 @@ import io.mosip.esignet.core.constants.ErrorConstants;
 import io.mosip.esignet.core.util.IdentityProviderUtil;
 import io.mosip.kernel.signature.dto.*;
 import io.mosip.kernel.signature.service.SignatureService;
+import jakarta.annotation.PostConstruct;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import org.json.simple.JSONObject;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
 import org.springframework.security.oauth2.core.OAuth2TokenValidator;
 import org.springframework.security.oauth2.jwt.*;
@@ -42,6 +47,8 @@ import java.text.ParseException;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import static io.mosip.esignet.core.constants.Constants.SPACE;
 
@@ -54,6 +61,12 @@ public class TokenServiceImpl implements TokenService {
     @Autowired
     private SignatureService signatureService;
 
+    @Autowired
+    private LocalTokenSigner localTokenSigner;
+
+    @Autowired
+    private LocalTokenVerifier localTokenVerifier;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -93,6 +106,19 @@ public class TokenServiceImpl implements TokenService {
     @Value("${mosip.esignet.client-assertion.unique.jti.required}")
     private boolean uniqueJtiRequired;
 
+    private static final String CACHE_KEY_SEPARATOR = "|";
+
+    private final Cache<String, NimbusJwtDecoder> clientAssertionDecoders = CacheBuilder.newBuilder()
+            .maximumSize(1000)
+            .expireAfterAccess(1, TimeUnit.HOURS)
+            .build();
+
+    /**
+     * Verifies the issuer, required claims and expiry of the access / ID tokens, audience and subject are specific to
+     * the request and are compared separately.
+     */
+    private DefaultJWTClaimsVerifier<SecurityContext> tokenClaimsVerifier;
+
     private final String CNF = "cnf";
     private final String JKT = "jkt";
     
@@ -112,6 +138,13 @@ public class TokenServiceImpl implements TokenService {
     }
 
 
+    @PostConstruct
+    public void init() {
+        tokenClaimsVerifier = new DefaultJWTClaimsVerifier<>(null, new JWTClaimsSet.Builder()
+                .issuer(issuerId)
+                .build(), REQUIRED_TOKEN_CLAIMS, null);
+    }
+
     @Override
     public String getIDToken(@NonNull OIDCTransaction transaction) {
         JSONObject payload = buildIDToken(transaction.getPartnerSpecificUserToken(),
@@ -177,10 +210,11 @@ public class TokenServiceImpl implements TokenService {
                 throw new EsignetException(ErrorConstants.INVALID_CLIENT);
             }
 
-            NimbusJwtDecoder jwtDecoder = getNimbusJwtDecoderFromJwk(jwk, clientId, audience, maxClockSkew, alg);
+            NimbusJwtDecoder jwtDecoder = getClientAssertionDecoder(jwk, clientId, audience, alg);
             jwtDecoder.decode(clientAssertion);
             String jti = signedJWT.getJWTClaimsSet().getJWTID();
-            if (uniqueJtiRequired && (jti == null || cacheUtilService.checkAndMarkJti(jti))) {
+            if (uniqueJtiRequired && (jti == null || cacheUtilService.checkAndMarkJti(jti,
+                    signedJWT.getJWTClaimsSet().getExpirationTime(), maxClockSkew))) {
                 log.error("invalid jti {}", jti);
                 throw new EsignetException();
             }
@@ -190,6 +224,25 @@ public class TokenServiceImpl implements TokenService {
         }
     }
 
+    /**
+     * Evicts the cached client assertion decoders of the client, decoders are keyed with the hash of the client's
+     * public key, hence a stale decoder is never used even if the eviction is missed on this node.
+     */
+    @EventListener
+    public void onClientDetailEvicted(ClientDetailEvictedEvent event) {
+        String keyPrefix = event.getClientId() + CACHE_KEY_SEPARATOR;
+        clientAssertionDecoders.asMap().keySet().removeIf(key -> key.startsWith(keyPrefix));
+    }
+
+    private NimbusJwtDecoder getClientAssertionDecoder(String jwk, String clientId, List<String> audience, String alg)
+            throws ExecutionException {
+        String cacheKey = String.join(CACHE_KEY_SEPARATOR, clientId,
+                IdentityProviderUtil.generateB64EncodedHash(IdentityProviderUtil.ALGO_SHA_256, jwk), alg,
+                String.join(",", new TreeSet<>(audience)));
+        return clientAssertionDecoders.get(cacheKey, () ->
+                getNimbusJwtDecoderFromJwk(jwk, clientId, audience, maxClockSkew, alg));
+    }
+
     private NimbusJwtDecoder getNimbusJwtDecoderFromJwk(String jwkJson, String clientId, List<String> audience, int maxClockSkew, String alg) throws Exception {
 
         JWK parsedJwk = JWK.parse(jwkJson);
@@ -227,12 +280,21 @@ public class TokenServiceImpl implements TokenService {
         }
         try {
             JWT jwt = JWTParser.parse(accessToken);
-            JWTClaimsSetVerifier claimsSetVerifier = new DefaultJWTClaimsVerifier(new JWTClaimsSet.Builder()
-                    .audience(clientId)
-                    .issuer(issuerId)
-                    .subject(subject)
-                    .build(), REQUIRED_TOKEN_CLAIMS);
-            claimsSetVerifier.verify(jwt.getJWTClaimsSet(), null);
+            verifyTokenClaims(clientId, subject, jwt.getJWTClaimsSet());
+        } catch (Exception e) {
+            log.error("Access token claims verification failed", e);
+            throw new NotAuthenticatedException();
+        }
+    }
+
+    @Override
+    public void verifyAccessToken(String clientId, String subject, SignedJWT accessToken) throws NotAuthenticatedException {
+        if(!isSignatureValid(accessToken)) {
+            log.error("Access token signature verification failed");
+            throw new NotAuthenticatedException();
+        }
+        try {
+            verifyTokenClaims(clientId, subject, accessToken.getJWTClaimsSet());
         } catch (Exception e) {
             log.error("Access token claims verification failed", e);
             throw new NotAuthenticatedException();
@@ -247,11 +309,7 @@ public class TokenServiceImpl implements TokenService {
         }
         try {
             JWT jwt = JWTParser.parse(idToken);
-            JWTClaimsSetVerifier claimsSetVerifier = new DefaultJWTClaimsVerifier(new JWTClaimsSet.Builder()
-                    .audience(clientId)
-                    .issuer(issuerId)
-                    .build(), REQUIRED_TOKEN_CLAIMS);
-            claimsSetVerifier.verify(jwt.getJWTClaimsSet(), null);
+            verifyTokenClaims(clientId, null, jwt.getJWTClaimsSet());
         } catch (Exception e) {
             log.error("ID token claims verification failed", e);
             throw new NotAuthenticatedException();
@@ -260,6 +318,10 @@ public class TokenServiceImpl implements TokenService {
 
     @Override
     public String getSignedJWT(String applicationId, JSONObject payload) {
+        String signedJwt = localTokenSigner.sign(applicationId, payload.toJSONString());
+        if(signedJwt != null)
+            return signedJwt;
+
         JWSSignatureRequestDto jwsSignatureRequestDto = new JWSSignatureRequestDto();
         jwsSignatureRequestDto.setApplicationId(applicationId);
         jwsSignatureRequestDto.setReferenceId("");
@@ -274,31 +336,31 @@ public class TokenServiceImpl implements TokenService {
     }
 
     @Override
-    public boolean isValidDpopServerNonce(String dpopHeader, OIDCTransaction transaction) {
+    public boolean isValidDpopServerNonce(String dpopHeader, String cacheKey, String cacheName) {
         try {
             SignedJWT dpopJwt = SignedJWT.parse(dpopHeader);
-            Map<String, Object> payload = dpopJwt.getPayload().toJSONObject();
-            String dpopProofNonce = (String) payload.get("nonce");
-
-            long currentTime = System.currentTimeMillis();
-
-            String serverNonce = transaction.getDpopServerNonce();
-            Long serverNonceTTL = transaction.getDpopServerNonceTTL();
-
-            boolean nonceMatches = dpopProofNonce != null && dpopProofNonce.equals(serverNonce);
-            boolean nonceExpired = serverNonceTTL == null || currentTime > serverNonceTTL;
-
-            return nonceMatches && !nonceExpired;
+            Object dpopProofNonce = dpopJwt.getPayload().toJSONObject().get("nonce");
+            return isValidDpopServerNonce(dpopProofNonce, cacheKey, cacheName);
         } catch (ParseException e) {
             log.error("dpopHeader parsing failed - Should never happen", e);
             throw new InvalidDpopHeaderException();
         }
     }
 
+    @Override
+    public boolean isValidDpopServerNonce(JWTClaimsSet dpopClaims, String cacheKey, String cacheName) {
+        return isValidDpopServerNonce(dpopClaims.getClaim("nonce"), cacheKey, cacheName);
+    }
+
+    private boolean isValidDpopServerNonce(Object dpopProofNonce, String cacheKey, String cacheName) {
+        return dpopProofNonce instanceof String nonce && !nonce.isBlank() &&
+                cacheUtilService.isValidDpopServerNonce(cacheName, cacheKey, nonce);
+    }
+
     @Override
     public void generateAndStoreNewNonce(String cacheKey, String cacheName) {
         String newNonce = IdentityProviderUtil.createTransactionId(null);
-        cacheUtilService.updateNonceInCachedTransaction(cacheKey, newNonce, System.currentTimeMillis() + dpopNonceExpirySeconds * 1000L, cacheName);
+        cacheUtilService.saveDpopServerNonce(cacheName, cacheKey, newNonce, Duration.ofSeconds(dpopNonceExpirySeconds));
         throw new DpopNonceMissingException(newNonce);
     }
 
@@ -319,7 +381,29 @@ public class TokenServiceImpl implements TokenService {
         return payload;
     }
 
+    private void verifyTokenClaims(String clientId, String subject, JWTClaimsSet claimsSet) throws BadJWTException {
+        tokenClaimsVerifier.verify(claimsSet, null);
+        if(clientId != null && !Collections.singletonList(clientId).equals(claimsSet.getAudience()))
+            throw new BadJWTException("JWT aud claim has value " + claimsSet.getAudience() + ", must be " + clientId);
+        if(subject != null && !subject.equals(claimsSet.getSubject()))
+            throw new BadJWTException("JWT sub claim has value " + claimsSet.getSubject() + ", must be " + subject);
+    }
+
+    private boolean isSignatureValid(SignedJWT jwt) {
+        Boolean signatureValid = localTokenVerifier.verify(jwt);
+        if(signatureValid != null)
+            return signatureValid;
+        return isSignatureValidWithKeymanager(jwt.getParsedString() != null ? jwt.getParsedString() : jwt.serialize());
+    }
+
     private boolean isSignatureValid(String jwt) {
+        Boolean signatureValid = localTokenVerifier.verify(jwt);
+        if(signatureValid != null)
+            return signatureValid;
+        return isSignatureValidWithKeymanager(jwt);
+    }
+
+    private boolean isSignatureValidWithKeymanager(String jwt) {
         JWTSignatureVerifyRequestDto signatureVerifyRequestDto = new JWTSignatureVerifyRequestDto();
         signatureVerifyRequestDto.setApplicationId(Constants.OIDC_SERVICE_APP_ID);
         signatureVerifyRequestDto.setReferenceId("");
@@ -0,0 +1,43 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.services;
+
+import java.time.Duration;
+import java.util.Map;
+
+public interface TransactionStateStore {
+
+    /**
+     * Puts the value into the target cache and evicts the provided keys from the respective caches as one operation.
+     * @param targetCacheName cache to put the value into, entry TTL is the TTL configured for this cache
+     * @param targetKey key of the value in the target cache
+     * @param value value to be cached
+     * @param evictions cache name to key mapping of the entries to be evicted, null keys are ignored
+     */
+    default void moveTransaction(String targetCacheName, String targetKey, Object value, Map<String, String> evictions) {
+        moveTransaction(targetCacheName, targetKey, value, evictions, null, null);
+    }
+
+    /**
+     * Same as {@link #moveTransaction(String, String, Object, Map)}, additionally puts the companion value with the
+     * target key into the companion cache as part of the same operation. Companion entry TTL is the TTL configured for
+     * the target cache, so both the entries expire together.
+     * @param companionCacheName cache to put the companion value into, ignored if null
+     * @param companionValue value to be cached in the companion cache
+     */
+    void moveTransaction(String targetCacheName, String targetKey, Object value, Map<String, String> evictions,
+                         String companionCacheName, Object companionValue);
+
+    /**
+     * Puts the value into the cache only if the key is not already present, check and put is one operation.
+     * @param cacheName cache to put the value into
+     * @param key key of the value
+     * @param value value to be cached
+     * @param ttl entry TTL, TTL configured for the cache is used if null or not positive
+     * @return true if the value is put, false if the key is already present
+     */
+    boolean putIfAbsent(String cacheName, String key, Object value, Duration ttl);
+}
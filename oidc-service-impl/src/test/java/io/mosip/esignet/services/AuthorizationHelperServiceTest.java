@@ -192,6 +192,23 @@ public class AuthorizationHelperServiceTest {
         Assertions.assertEquals(oidcTransaction.getRedirectUri(), ((ResponseWrapper<LinkAuthCodeResponse>) deferredResult.getResult()).getResponse().getRedirectUri());
     }
 
+    @Test
+    public void consumeLinkAuthCodeStatus_withMultipleWaiters_thenSameAuthCode() {
+        String linkTransactionId = "link-transaction-id-2";
+        DeferredResult<ResponseWrapper<LinkAuthCodeResponse>> first = new DeferredResult<>();
+        DeferredResult<ResponseWrapper<LinkAuthCodeResponse>> second = new DeferredResult<>();
+        authorizationHelperService.addEntryInLinkAuthCodeStatusDeferredResultMap(linkTransactionId, first);
+        authorizationHelperService.addEntryInLinkAuthCodeStatusDeferredResultMap(linkTransactionId, second);
+        Mockito.when(cacheUtilService.getConsentedTransaction(linkTransactionId)).thenReturn(new OIDCTransaction());
+
+        authorizationHelperService.consumeLinkAuthCodeStatus(linkTransactionId);
+        Assertions.assertTrue(first.hasResult());
+        Assertions.assertTrue(second.hasResult());
+        Assertions.assertEquals(((ResponseWrapper<LinkAuthCodeResponse>) first.getResult()).getResponse().getCode(),
+                ((ResponseWrapper<LinkAuthCodeResponse>) second.getResult()).getResponse().getCode());
+        Mockito.verify(cacheUtilService, Mockito.times(1)).setAuthCodeGeneratedTransaction(Mockito.any(), Mockito.any());
+    }
+
     @Test
     public void consumeLinkAuthCodeStatus_withInvalidLinkTransactionId_thenFail() {
         String linkTransactionId = "link-transaction-id";
@@ -5,10 +5,11 @@
  */
 package io.mosip.esignet.services;
 
-import io.mosip.esignet.core.dto.ApiRateLimit;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -21,8 +22,13 @@ import org.springframework.cache.CacheManager;
 import io.mosip.esignet.core.constants.Constants;
 import io.mosip.esignet.core.dto.LinkTransactionMetadata;
 import io.mosip.esignet.core.dto.OIDCTransaction;
+import io.mosip.esignet.core.dto.TransactionHeader;
 import io.mosip.esignet.core.exception.DuplicateLinkCodeException;
 
+import java.time.Duration;
+import java.util.Date;
+import java.util.Map;
+
 @ExtendWith(MockitoExtension.class)
 public class CacheUtilServiceTest {
 
@@ -35,6 +41,122 @@ public class CacheUtilServiceTest {
     @Mock
     private CacheManager cacheManager;
 
+    @Mock
+    private TransactionStateStore transactionStateStore;
+
+    @Mock
+    private ApiRateLimiter apiRateLimiter;
+
+    @Mock
+    private BlockedIndividualIdFilter blockedIndividualIdFilter;
+
+    @Test
+    public void checkAndMarkJti_withExpirationTime_thenPass() {
+        Date expirationTime = new Date(System.currentTimeMillis() + 60000);
+        ArgumentCaptor<Duration> ttlCaptor = ArgumentCaptor.forClass(Duration.class);
+        Mockito.when(transactionStateStore.putIfAbsent(Mockito.eq(Constants.JTI_CACHE), Mockito.eq("jti-1"),
+                Mockito.eq(true), ttlCaptor.capture())).thenReturn(true, false);
+
+        Assertions.assertFalse(cacheUtilService.checkAndMarkJti("jti-1", expirationTime, 10));
+        Assertions.assertTrue(cacheUtilService.checkAndMarkJti("jti-1", expirationTime, 10));
+        Assertions.assertTrue(ttlCaptor.getValue().getSeconds() > 60 && ttlCaptor.getValue().getSeconds() <= 70);
+    }
+
+    @Test
+    public void checkAndMarkJti_withoutExpirationTime_thenCacheTTLUsed() {
+        Mockito.when(transactionStateStore.putIfAbsent(Constants.JTI_CACHE, "jti-1", true, null)).thenReturn(true);
+        Assertions.assertFalse(cacheUtilService.checkAndMarkJti("jti-1", null, 10));
+    }
+
+    @Test
+    public void checkAndRecordApiInvocation_thenSingleRateLimiterCall() {
+        Mockito.when(apiRateLimiter.tryAcquire("send-otp:transaction:txn-1", 3, 1, null))
+                .thenReturn(ApiRateLimiter.Result.TOO_EARLY);
+        Assertions.assertEquals(ApiRateLimiter.Result.TOO_EARLY,
+                cacheUtilService.checkAndRecordApiInvocation("send-otp:transaction:txn-1", 3, 1, null));
+        Mockito.verifyNoInteractions(cacheManager);
+    }
+
+    @Test
+    public void blockIndividualId_thenAddedToFilter() {
+        Mockito.when(cacheManager.getCache(Constants.BLOCKED_CACHE)).thenReturn(cache);
+        Assertions.assertEquals("id-hash", cacheUtilService.blockIndividualId("id-hash"));
+        InOrder inOrder = Mockito.inOrder(cache, blockedIndividualIdFilter);
+        inOrder.verify(cache).putIfAbsent("id-hash", "id-hash");
+        inOrder.verify(blockedIndividualIdFilter).add("id-hash");
+    }
+
+    @Test
+    public void isIndividualIdBlocked_withNegativeFilterLookup_thenCacheNotChecked() {
+        Mockito.when(blockedIndividualIdFilter.mightBeBlocked("id-hash")).thenReturn(false);
+        Assertions.assertFalse(cacheUtilService.isIndividualIdBlocked("id-hash"));
+        Mockito.verifyNoInteractions(cacheManager);
+    }
+
+    @Test
+    public void isIndividualIdBlocked_withPositiveFilterLookup_thenCacheChecked() {
+        Mockito.when(blockedIndividualIdFilter.mightBeBlocked(Mockito.anyString())).thenReturn(true);
+        Mockito.when(cacheManager.getCache(Constants.BLOCKED_CACHE)).thenReturn(cache);
+        Mockito.when(cache.get("id-hash", String.class)).thenReturn("id-hash");
+
+        Assertions.assertTrue(cacheUtilService.isIndividualIdBlocked("id-hash"));
+        Assertions.assertFalse(cacheUtilService.isIndividualIdBlocked("false-positive-hash"));
+    }
+
+    @Test
+    public void saveDpopServerNonce_thenTransactionNotRewritten() {
+        ArgumentCaptor<Object> expireAtCaptor = ArgumentCaptor.forClass(Object.class);
+        cacheUtilService.saveDpopServerNonce(Constants.USERINFO_CACHE, "at-hash", "nonce-1", Duration.ofSeconds(15));
+
+        Mockito.verify(transactionStateStore).putIfAbsent(Mockito.eq(Constants.DPOP_NONCE_CACHE),
+                Mockito.eq("userinfo:at-hash:nonce-1"), expireAtCaptor.capture(), Mockito.eq(Duration.ofSeconds(15)));
+        long expireAt = (Long) expireAtCaptor.getValue();
+        Assertions.assertTrue(expireAt > System.currentTimeMillis() && expireAt <= System.currentTimeMillis() + 15000);
+        Mockito.verifyNoInteractions(cacheManager);
+    }
+
+    @Test
+    public void isValidDpopServerNonce_thenPass() {
+        Mockito.when(cacheManager.getCache(Constants.DPOP_NONCE_CACHE)).thenReturn(cache);
+        Mockito.when(cache.get("userinfo:at-hash:nonce-1", Long.class)).thenReturn(System.currentTimeMillis() + 15000);
+        Mockito.when(cache.get("userinfo:at-hash:nonce-2", Long.class)).thenReturn(System.currentTimeMillis() - 1000);
+
+        Assertions.assertTrue(cacheUtilService.isValidDpopServerNonce(Constants.USERINFO_CACHE, "at-hash", "nonce-1"));
+        Assertions.assertFalse(cacheUtilService.isValidDpopServerNonce(Constants.USERINFO_CACHE, "at-hash", "nonce-2"));
+        Assertions.assertFalse(cacheUtilService.isValidDpopServerNonce(Constants.USERINFO_CACHE, "at-hash", "nonce-3"));
+        Assertions.assertFalse(cacheUtilService.isValidDpopServerNonce(Constants.AUTH_CODE_GENERATED_CACHE, "at-hash", "nonce-1"));
+    }
+
+    @Test
+    public void setTransaction_thenTransactionHeaderMovedWithTransaction() {
+        OIDCTransaction transaction = new OIDCTransaction();
+        transaction.setOauthDetailsHash("oauth-details-hash");
+        transaction.setIndividualIdHash("individual-id-hash");
+        transaction.setClientId("client-id");
+        transaction.setCodeHash("code-hash");
+
+        cacheUtilService.setAuthenticatedTransaction("txn-1", transaction);
+        Mockito.verify(transactionStateStore).moveTransaction(Constants.AUTHENTICATED_CACHE, "txn-1", transaction,
+                Map.of(Constants.PRE_AUTH_SESSION_CACHE, "txn-1", Constants.HALTED_CACHE, "txn-1"),
+                Constants.TRANSACTION_HEADER_CACHE, new TransactionHeader("oauth-details-hash", "individual-id-hash",
+                        Constants.AUTHENTICATED_CACHE, "client-id"));
+
+        cacheUtilService.setAuthCodeGeneratedTransaction("txn-1", transaction);
+        Mockito.verify(transactionStateStore).moveTransaction(Constants.AUTH_CODE_GENERATED_CACHE, "code-hash", transaction,
+                Map.of(Constants.AUTHENTICATED_CACHE, "txn-1", Constants.TRANSACTION_HEADER_CACHE, "txn-1"));
+        Mockito.verifyNoInteractions(cacheManager);
+    }
+
+    @Test
+    public void getTransactionHeader_thenPass() {
+        TransactionHeader transactionHeader = new TransactionHeader("oauth-details-hash", null, Constants.PRE_AUTH_SESSION_CACHE, null);
+        Mockito.when(cacheManager.getCache(Constants.TRANSACTION_HEADER_CACHE)).thenReturn(cache);
+        Mockito.when(cache.get("txn-1", TransactionHeader.class)).thenReturn(transactionHeader);
+
+        Assertions.assertEquals(transactionHeader, cacheUtilService.getTransactionHeader("txn-1"));
+        Assertions.assertNull(cacheUtilService.getTransactionHeader(null));
+    }
+
     @Test
     public void test_OIDCTransaction_cache() {
         OIDCTransaction transaction = new OIDCTransaction();
@@ -44,13 +166,15 @@ public class CacheUtilServiceTest {
         transaction.setIndividualId("4258935620");
 
         Mockito.when(cache.get("123456789", OIDCTransaction.class)).thenReturn(transaction);
-        Mockito.when(cache.get("123456789", ApiRateLimit.class)).thenReturn(new ApiRateLimit());
         Mockito.when(cacheManager.getCache(Mockito.anyString())).thenReturn(cache);
 
         Assertions.assertEquals(cacheUtilService.setTransaction("123456789", transaction), transaction);
         Assertions.assertEquals(cacheUtilService.setAuthenticatedTransaction("123456789", transaction), transaction);
         Assertions.assertEquals(cacheUtilService.setAuthCodeGeneratedTransaction("123456789", transaction), transaction);
         Assertions.assertEquals(cacheUtilService.setUserInfoTransaction("123456789", transaction), transaction);
+        Mockito.verify(transactionStateStore).moveTransaction(Constants.AUTHENTICATED_CACHE, "123456789", transaction,
+                Map.of(Constants.PRE_AUTH_SESSION_CACHE, "123456789", Constants.HALTED_CACHE, "123456789"),
+                Constants.TRANSACTION_HEADER_CACHE, new TransactionHeader(null, null, Constants.AUTHENTICATED_CACHE, null));
 
         Assertions.assertNotNull(cacheUtilService.getPreAuthTransaction("123456789"));
         Assertions.assertEquals(cacheUtilService.getPreAuthTransaction("123456789").getIndividualId(), "4258935620");
@@ -72,12 +196,10 @@ public class CacheUtilServiceTest {
         Assertions.assertNotNull(cacheUtilService.setHaltedTransaction("123456789", transaction));
         cacheUtilService.removeHaltedTransaction("123456789");
 
-        Assertions.assertNotNull(cacheUtilService.saveApiRateLimit("api-rate-limit-id", new ApiRateLimit()));
         Assertions.assertNotNull(cacheUtilService.blockIndividualId("individualIdHash"));
 
         Assertions.assertNotNull(cacheUtilService.updateIndividualIdHashInPreAuthCache("123456789", "individualIdHash"));
         Assertions.assertNotNull(cacheUtilService.getHaltedTransaction("123456789"));
-        Assertions.assertNotNull(cacheUtilService.getApiRateLimitTransaction("123456789"));
         Assertions.assertFalse(cacheUtilService.isIndividualIdBlocked("individualIdHash"));
     }
 
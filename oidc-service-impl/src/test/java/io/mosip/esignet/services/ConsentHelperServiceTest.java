@@ -6,6 +6,7 @@
 package io.mosip.esignet.services;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
 import com.nimbusds.jose.*;
 import com.nimbusds.jose.crypto.RSASSASigner;
 import com.nimbusds.jose.jwk.JWK;
@@ -16,6 +17,7 @@ import io.mosip.esignet.api.spi.AuditPlugin;
 import io.mosip.esignet.api.util.ConsentAction;
 import io.mosip.esignet.core.constants.ErrorConstants;
 import io.mosip.esignet.core.dto.ConsentDetail;
+import io.mosip.esignet.core.dto.KeyBindingUpdatedEvent;
 import io.mosip.esignet.core.dto.OIDCTransaction;
 import io.mosip.esignet.core.dto.PublicKeyRegistry;
 import io.mosip.esignet.core.dto.UserConsent;
@@ -25,17 +27,22 @@ import io.mosip.esignet.core.spi.PublicKeyRegistryService;
 import io.mosip.esignet.core.util.IdentityProviderUtil;
 import lombok.extern.slf4j.Slf4j;
 import net.minidev.json.JSONObject;
+import org.bouncycastle.x509.X509V3CertificateGenerator;
 import org.jose4j.keys.X509Util;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import javax.security.auth.x500.X500Principal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
 import java.security.*;
 import java.security.cert.Certificate;
 import java.security.cert.X509Certificate;
@@ -43,7 +50,11 @@ import java.security.interfaces.RSAPrivateKey;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -116,6 +127,9 @@ public class ConsentHelperServiceTest {
     @BeforeEach
     public void setup() {
         ReflectionTestUtils.setField(consentHelperService, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(consentHelperService, "verifierCacheMaxSize", 10);
+        ReflectionTestUtils.setField(consentHelperService, "verifierCacheExpireSeconds", 60L);
+        consentHelperService.init();
     }
 
     @Test
@@ -612,6 +626,159 @@ public class ConsentHelperServiceTest {
     }
 
 
+
+    @Test
+    public void verifyConsentSignature_withCachedVerifier_thenVerifierReused() throws Exception {
+        ConsentDetail consentDetail = new ConsentDetail();
+        consentDetail.setAcceptedClaims(new ArrayList<>(List.of("name", "email")));
+        consentDetail.setPermittedScopes(new ArrayList<>(List.of("openid")));
+        Map<String, Object> payLoadMap = new TreeMap<>();
+        payLoadMap.put("accepted_claims", List.of("email", "name"));
+        payLoadMap.put("permitted_authorized_scopes", List.of("openid"));
+        consentDetail.setSignature(generateSignature(payLoadMap));
+
+        OIDCTransaction oidcTransaction = new OIDCTransaction();
+        PublicKeyRegistry publicKeyRegistry = new PublicKeyRegistry();
+        publicKeyRegistry.setPsuToken("psutoken");
+        publicKeyRegistry.setCertificate(getPEMCertificate());
+        Mockito.when(authorizationHelperService.getIndividualId(oidcTransaction)).thenReturn("individualId");
+        Mockito.when(publicKeyRegistryService.findFirstByIdHashAndThumbprintAndExpiredtimes(Mockito.any(), Mockito.any()))
+                .thenReturn(Optional.of(publicKeyRegistry));
+
+        Assertions.assertTrue(consentHelperService.verifyConsentSignature(consentDetail, oidcTransaction));
+        Object cachedVerifier = getCachedVerifier();
+        Assertions.assertTrue(consentHelperService.verifyConsentSignature(consentDetail, oidcTransaction));
+        Assertions.assertSame(cachedVerifier, getCachedVerifier());
+
+        //binding of the same psu token with another individual id
+        consentHelperService.onKeyBindingUpdated(new KeyBindingUpdatedEvent("other-id-hash", "psutoken", "WLA"));
+        Assertions.assertTrue(consentHelperService.verifyConsentSignature(consentDetail, oidcTransaction));
+        Assertions.assertNotSame(cachedVerifier, getCachedVerifier());
+    }
+
+    @Test
+    public void verifyConsentSignature_withCachedVerifierAndKeyUnbound_thenFail() throws Exception {
+        ConsentDetail consentDetail = new ConsentDetail();
+        consentDetail.setAcceptedClaims(new ArrayList<>(List.of("name", "email")));
+        consentDetail.setPermittedScopes(new ArrayList<>(List.of("openid")));
+        Map<String, Object> payLoadMap = new TreeMap<>();
+        payLoadMap.put("accepted_claims", List.of("email", "name"));
+        payLoadMap.put("permitted_authorized_scopes", List.of("openid"));
+        consentDetail.setSignature(generateSignature(payLoadMap));
+
+        OIDCTransaction oidcTransaction = new OIDCTransaction();
+        PublicKeyRegistry publicKeyRegistry = new PublicKeyRegistry();
+        publicKeyRegistry.setPsuToken("psutoken");
+        publicKeyRegistry.setCertificate(getPEMCertificate());
+        Mockito.when(authorizationHelperService.getIndividualId(oidcTransaction)).thenReturn("individualId");
+        //key unbound on another node, no key binding event is received on this node
+        Mockito.when(publicKeyRegistryService.findFirstByIdHashAndThumbprintAndExpiredtimes(Mockito.any(), Mockito.any()))
+                .thenReturn(Optional.of(publicKeyRegistry), Optional.empty());
+
+        Assertions.assertTrue(consentHelperService.verifyConsentSignature(consentDetail, oidcTransaction));
+        Assertions.assertFalse(consentHelperService.verifyConsentSignature(consentDetail, oidcTransaction));
+        Assertions.assertNull(getCachedVerifier());
+    }
+
+    private Object getCachedVerifier() {
+        Cache<String, ?> verifierCache = (Cache<String, ?>) ReflectionTestUtils.getField(consentHelperService, "verifierCache");
+        return verifierCache.asMap().values().stream().findFirst().orElse(null);
+    }
+
+    @Test
+    public void updateUserConsent_withConsentHashInTransaction_thenHashReused() {
+        OIDCTransaction oidcTransaction = new OIDCTransaction();
+        oidcTransaction.setAcceptedClaims(List.of("name"));
+        oidcTransaction.setConsentAction(ConsentAction.CAPTURE);
+        Claims claims = new Claims();
+        claims.setUserinfo(Map.of("name", List.of()));
+        claims.setId_token(Map.of());
+        oidcTransaction.setResolvedClaims(claims);
+        oidcTransaction.setConsentHash("consent-hash");
+
+        consentHelperService.updateUserConsent(oidcTransaction, "");
+        ArgumentCaptor<UserConsent> userConsentCaptor = ArgumentCaptor.forClass(UserConsent.class);
+        Mockito.verify(consentService).saveUserConsent(userConsentCaptor.capture());
+        Assertions.assertEquals("consent-hash", userConsentCaptor.getValue().getHash());
+    }
+
+    @Test
+    public void hashUserConsent_withVerifiedClaims_thenSameAsSortedJsonHash() throws Exception {
+        Map<String, Object> claims = getVerifiedClaims();
+        Map<String, Boolean> authorizeScopes = Map.of("Resident-service", false, "add_identity", false);
+        Assertions.assertEquals(hashSortedJson(claims, authorizeScopes), consentHelperService.hashUserConsent(claims, authorizeScopes));
+    }
+
+    private Map<String, Object> getVerifiedClaims() {
+        Map<String, Object> trustFramework = new HashMap<>();
+        trustFramework.put("value", "income-tax");
+        Map<String, Object> evidence = new HashMap<>();
+        evidence.put("type", Map.of("value", "document"));
+        evidence.put("Method", Map.of("values", List.of("pipp", "Sripp", "eid")));
+        evidence.put("time", null);
+        Map<String, Object> verification = new HashMap<>();
+        verification.put("trust_framework", trustFramework);
+        verification.put("time", null);
+        verification.put("evidence", List.of(evidence));
+        verification.put("assurance_level", Map.of("essential", true, "purpose", "KYC"));
+        Map<String, Object> verifiedClaims = new HashMap<>();
+        verifiedClaims.put("given_name", null);
+        verifiedClaims.put("Family_name", Map.of("essential", true));
+        verifiedClaims.put("birthdate", Map.of("max_age", 3600));
+        verifiedClaims.put("address", null);
+        Map<String, Object> verifiedClaimsRequest = new HashMap<>();
+        verifiedClaimsRequest.put("verification", verification);
+        verifiedClaimsRequest.put("claims", verifiedClaims);
+
+        Map<String, Object> nameClaim = new HashMap<>();
+        nameClaim.put("essential", true);
+        nameClaim.put("values", new String[]{"value1b", "value1a"});
+        Map<String, Object> userinfo = new HashMap<>();
+        userinfo.put("name", List.of(nameClaim));
+        userinfo.put("email", List.of());
+        userinfo.put("Email", List.of(Map.of("essential", false)));
+        userinfo.put("phone_number", List.of(Map.of("essential", true), Map.of("purpose", "Contact")));
+        userinfo.put("verified_claims", List.of(verifiedClaimsRequest, Map.of("verification",
+                Map.of("trust_framework", Map.of("values", List.of("uk_tfida", "de_aml"))))));
+        userinfo.put("acr_values", List.of("mosip:idp:acr:generated-code", "mosip:idp:acr:Biometrics"));
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("userinfo", userinfo);
+        claims.put("id_token", Map.of("acr", Map.of("essential", true, "values", List.of("b", "A", "c"))));
+        return claims;
+    }
+
+    private String hashSortedJson(Map<String, Object> claims, Map<String, Boolean> authorizeScopes) throws Exception {
+        Map<String, Object> claimsAndAuthorizeScopes = new LinkedHashMap<>();
+        claimsAndAuthorizeScopes.put("claims", claims);
+        claimsAndAuthorizeScopes.put("authorizeScopes", authorizeScopes);
+        return IdentityProviderUtil.generateB64EncodedHash(IdentityProviderUtil.ALGO_SHA3_256,
+                new ObjectMapper().writeValueAsString(sortObject(claimsAndAuthorizeScopes)));
+    }
+
+    private Object sortObject(Object object) {
+        if(object instanceof Map<?, ?> map) {
+            Map<String, Object> sortedMap = new TreeMap<>(String::compareToIgnoreCase);
+            map.forEach((key, value) -> sortedMap.put((String) key, sortObject(value)));
+            return sortedMap;
+        }
+        else if(object instanceof List<?> list) {
+            List<Object> newList = new ArrayList<>(list);
+            if (!newList.isEmpty() && newList.getFirst() instanceof String) {
+                newList.sort((a, b) -> {
+                    String strA = a != null ? a.toString() : "";
+                    String strB = b != null ? b.toString() : "";
+                    return strA.compareToIgnoreCase(strB);
+                });
+            }
+            for (int i = 0; i < newList.size(); i++) {
+                newList.set(i, sortObject(newList.get(i)));
+            }
+            return newList;
+        }
+        return object;
+    }
+
+
     private String generateSignature(Map<String, Object> payloadMap) throws Exception {
 
         // Define the header and payload
@@ -630,6 +797,23 @@ public class ConsentHelperServiceTest {
         return parts[0] + "." + parts[2];
     }
 
+    private String getPEMCertificate() throws Exception {
+        JWK jwk = JWKSet.parse(jwksString).getKeys().getFirst();
+        X509V3CertificateGenerator generator = new X509V3CertificateGenerator();
+        X500Principal dnName = new X500Principal("CN=Test");
+        generator.setSubjectDN(dnName);
+        generator.setIssuerDN(dnName);
+        generator.setNotBefore(new Date(System.currentTimeMillis() - 24 * 60 * 60 * 1000));
+        generator.setNotAfter(new Date(System.currentTimeMillis() + 24 * 60 * 60 * 1000));
+        generator.setPublicKey(jwk.toRSAKey().toPublicKey());
+        generator.setSignatureAlgorithm("SHA256WITHRSA");
+        generator.setSerialNumber(new BigInteger(String.valueOf(System.currentTimeMillis())));
+        byte[] encoded = generator.generate(jwk.toRSAKey().toPrivateKey()).getEncoded();
+        return "-----BEGIN CERTIFICATE-----\n" +
+                new String(Base64.getMimeEncoder(64, "\n".getBytes(StandardCharsets.UTF_8)).encode(encoded), StandardCharsets.UTF_8) +
+                "\n-----END CERTIFICATE-----";
+    }
+
     public static String generateThumbprintByCertificate(String cerifacate)
     {
         X509Certificate certificate = (X509Certificate) IdentityProviderUtil.convertToCertificate(cerifacate);// convertToCertificate(cerifacate);
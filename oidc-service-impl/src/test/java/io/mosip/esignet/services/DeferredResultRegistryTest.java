@@ -0,0 +1,74 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.services;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+import java.util.List;
+
+public class DeferredResultRegistryTest {
+
+    @Test
+    public void removeAll_withMultipleWaiters_thenAllReturned() {
+        DeferredResultRegistry registry = new DeferredResultRegistry("test");
+        DeferredResult first = new DeferredResult<>();
+        DeferredResult second = new DeferredResult<>();
+        registry.register("key-1", first, Duration.ofSeconds(25));
+        registry.register("key-1", second, Duration.ofSeconds(25));
+        registry.register("key-2", new DeferredResult<>(), Duration.ofSeconds(25));
+        Assertions.assertEquals(3, registry.getParkedCount());
+
+        List<DeferredResult> deferredResults = registry.removeAll("key-1");
+        Assertions.assertEquals(2, deferredResults.size());
+        Assertions.assertTrue(deferredResults.contains(first) && deferredResults.contains(second));
+        Assertions.assertEquals(1, registry.getParkedCount());
+        Assertions.assertTrue(registry.removeAll("key-1").isEmpty());
+    }
+
+    @Test
+    public void removeAll_withCompletedWaiter_thenNotReturned() {
+        DeferredResultRegistry registry = new DeferredResultRegistry("test");
+        DeferredResult completed = new DeferredResult<>();
+        registry.register("key-1", completed, Duration.ofSeconds(25));
+        registry.register("key-1", new DeferredResult<>(), Duration.ofSeconds(25));
+        completed.setResult("result");
+
+        Assertions.assertEquals(1, registry.removeAll("key-1").size());
+        Assertions.assertEquals(0, registry.getParkedCount());
+    }
+
+    @Test
+    public void register_withCompletedWaiters_thenSwept() {
+        DeferredResultRegistry registry = new DeferredResultRegistry("test");
+        DeferredResult completed = new DeferredResult<>();
+        registry.register("key-1", completed, Duration.ofSeconds(25));
+        completed.setResult("result");
+
+        ReflectionTestUtils.setField(registry, "nextSweepAt", 0L);
+        registry.register("key-2", new DeferredResult<>(), Duration.ofSeconds(25));
+        Assertions.assertEquals(1, registry.getParkedCount());
+    }
+
+    @Test
+    public void register_thenParkedGaugePublished() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        Metrics.addRegistry(meterRegistry);
+        try {
+            DeferredResultRegistry registry = new DeferredResultRegistry("gauge-test");
+            registry.register("key-1", new DeferredResult<>(), Duration.ofSeconds(25));
+            Assertions.assertEquals(1.0, meterRegistry.get(DeferredResultRegistry.PARKED_METRIC)
+                    .tag("type", "gauge-test").gauge().value());
+        } finally {
+            Metrics.removeRegistry(meterRegistry);
+        }
+    }
+}
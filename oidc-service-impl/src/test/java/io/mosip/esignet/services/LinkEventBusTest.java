@@ -0,0 +1,113 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.services;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.mosip.esignet.core.util.KafkaHelperService;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.listener.Topic;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+
+public class LinkEventBusTest {
+
+    private AuthorizationHelperService authorizationHelperService;
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setUp() {
+        authorizationHelperService = Mockito.mock(AuthorizationHelperService.class);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    public void inMemoryLinkEventBus_thenDeliveredOnPublish() {
+        InMemoryLinkEventBus linkEventBus = new InMemoryLinkEventBus();
+        ReflectionTestUtils.setField(linkEventBus, "authorizationHelperService", authorizationHelperService);
+        ReflectionTestUtils.setField(linkEventBus, "meterRegistry", meterRegistry);
+        Mockito.doThrow(new RuntimeException("invalid transaction")).when(authorizationHelperService)
+                .consumeLinkAuthCodeStatus("link-transaction-id");
+        Mockito.doThrow(new RuntimeException("invalid link code")).when(authorizationHelperService)
+                .consumeLinkStatus("link-code-hash");
+
+        linkEventBus.publishLinkStatus("link-code-hash");
+        linkEventBus.publishLinkAuthCodeStatus("link-transaction-id");
+
+        Mockito.verify(authorizationHelperService).consumeLinkStatus("link-code-hash");
+        Mockito.verify(authorizationHelperService).consumeLinkAuthCodeStatus("link-transaction-id");
+        Assertions.assertEquals(1, getDeliveryCount("in-memory", LinkEventBus.LINK_STATUS_EVENT));
+        Assertions.assertEquals(1, getDeliveryCount("in-memory", LinkEventBus.LINK_AUTH_CODE_EVENT));
+    }
+
+    @Test
+    public void redisLinkEventBus_thenPublishedAndConsumed() {
+        StringRedisTemplate stringRedisTemplate = Mockito.mock(StringRedisTemplate.class);
+        RedisMessageListenerContainer listenerContainer = Mockito.mock(RedisMessageListenerContainer.class);
+        RedisLinkEventBus linkEventBus = new RedisLinkEventBus();
+        ReflectionTestUtils.setField(linkEventBus, "linkStatusChannel", "esignet:link-status");
+        ReflectionTestUtils.setField(linkEventBus, "linkAuthCodeChannel", "esignet:link-auth-code");
+        ReflectionTestUtils.setField(linkEventBus, "stringRedisTemplate", stringRedisTemplate);
+        ReflectionTestUtils.setField(linkEventBus, "redisMessageListenerContainer", listenerContainer);
+        ReflectionTestUtils.setField(linkEventBus, "authorizationHelperService", authorizationHelperService);
+        ReflectionTestUtils.setField(linkEventBus, "meterRegistry", meterRegistry);
+        linkEventBus.init();
+        Mockito.verify(listenerContainer, Mockito.times(2)).addMessageListener(Mockito.any(MessageListener.class),
+                Mockito.any(Topic.class));
+
+        linkEventBus.publishLinkAuthCodeStatus("link-transaction-id");
+        ArgumentCaptor<String> messageCaptor = ArgumentCaptor.forClass(String.class);
+        Mockito.verify(stringRedisTemplate).convertAndSend(Mockito.eq("esignet:link-auth-code"), messageCaptor.capture());
+        Assertions.assertTrue(messageCaptor.getValue().endsWith("|link-transaction-id"));
+
+        linkEventBus.listener(LinkEventBus.LINK_AUTH_CODE_EVENT).onMessage(toMessage(messageCaptor.getValue()), null);
+        linkEventBus.listener(LinkEventBus.LINK_STATUS_EVENT).onMessage(toMessage(System.currentTimeMillis() + "|link-code-hash"), null);
+        linkEventBus.listener(LinkEventBus.LINK_STATUS_EVENT).onMessage(toMessage("link-code-hash"), null);
+
+        Mockito.verify(authorizationHelperService).consumeLinkAuthCodeStatus("link-transaction-id");
+        Mockito.verify(authorizationHelperService, Mockito.times(1)).consumeLinkStatus("link-code-hash");
+        Assertions.assertEquals(1, getDeliveryCount("redis", LinkEventBus.LINK_AUTH_CODE_EVENT));
+        Assertions.assertEquals(1, getDeliveryCount("redis", LinkEventBus.LINK_STATUS_EVENT));
+    }
+
+    @Test
+    public void kafkaLinkEventBus_thenPublishedAndConsumed() {
+        KafkaHelperService kafkaHelperService = Mockito.mock(KafkaHelperService.class);
+        KafkaLinkEventBus linkEventBus = new KafkaLinkEventBus();
+        ReflectionTestUtils.setField(linkEventBus, "linkedSessionTopicName", "esignet-linked");
+        ReflectionTestUtils.setField(linkEventBus, "linkedAuthCodeTopicName", "esignet-consented");
+        ReflectionTestUtils.setField(linkEventBus, "kafkaHelperService", kafkaHelperService);
+        ReflectionTestUtils.setField(linkEventBus, "authorizationHelperService", authorizationHelperService);
+        ReflectionTestUtils.setField(linkEventBus, "meterRegistry", meterRegistry);
+
+        linkEventBus.publishLinkStatus("link-code-hash");
+        linkEventBus.publishLinkAuthCodeStatus("link-transaction-id");
+        Mockito.verify(kafkaHelperService).publish("esignet-linked", "link-code-hash");
+        Mockito.verify(kafkaHelperService).publish("esignet-consented", "link-transaction-id");
+
+        linkEventBus.consumeLinkStatus(new ConsumerRecord<>("esignet-linked", 0, 0, null, "link-code-hash"));
+        Mockito.verify(authorizationHelperService).consumeLinkStatus("link-code-hash");
+        Assertions.assertEquals(1, getDeliveryCount("kafka", LinkEventBus.LINK_STATUS_EVENT));
+    }
+
+    private DefaultMessage toMessage(String body) {
+        return new DefaultMessage("channel".getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private long getDeliveryCount(String bus, String event) {
+        return meterRegistry.get(LinkEventBus.DELIVERY_LATENCY_METRIC).tag("bus", bus).tag("event", event).timer().count();
+    }
+}
@@ -25,7 +25,6 @@ import io.mosip.esignet.core.exception.InvalidTransactionException;
 import io.mosip.esignet.core.spi.ClientManagementService;
 import io.mosip.esignet.core.util.AuthenticationContextClassRefUtil;
 import io.mosip.esignet.core.util.IdentityProviderUtil;
-import io.mosip.esignet.core.util.KafkaHelperService;
 import io.mosip.esignet.core.util.LinkCodeQueue;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -61,7 +60,7 @@ public class LinkedAuthorizationServiceTest {
     private AuthenticationContextClassRefUtil authenticationContextClassRefUtil;
 
     @Mock
-    private KafkaHelperService kafkaHelperService;
+    private LinkEventBus linkEventBus;
 
     @Mock
     Authenticator authenticationWrapper;
@@ -242,6 +241,7 @@ public class LinkedAuthorizationServiceTest {
         Assertions.assertEquals(clientDetail.getName().get(Constants.NONE_LANG_KEY), linkTransactionResponse.getClientName());
         Assertions.assertEquals(clientDetail.getLogoUri(), linkTransactionResponse.getLogoUrl());
         Assertions.assertNotNull(linkTransactionResponse.getLinkTransactionId());
+        Mockito.verify(linkEventBus).publishLinkStatus(Mockito.anyString());
     }
 
     @Test
@@ -469,6 +469,7 @@ public class LinkedAuthorizationServiceTest {
         LinkedConsentResponse linkedConsentResponse = linkedAuthorizationService.saveConsent(linkedConsentRequest);
         Assertions.assertNotNull(linkedConsentResponse);
         Assertions.assertEquals(linkedConsentRequest.getLinkedTransactionId(), linkedConsentResponse.getLinkedTransactionId());
+        Mockito.verify(linkEventBus).publishLinkAuthCodeStatus("link-transaction-id");
     }
 
     @Test
@@ -577,6 +578,23 @@ public class LinkedAuthorizationServiceTest {
         Assertions.assertNull(deferredResult.getResult());
     }
 
+    @Test
+    public void linkStatus_withLinkedBeforeRegistration_thenPass() {
+        LinkStatusRequest linkStatusRequest = new LinkStatusRequest();
+        linkStatusRequest.setLinkCode("link-code");
+        linkStatusRequest.setTransactionId("transaction-id");
+
+        Mockito.when(cacheUtilService.getLinkCodeGenerated(Mockito.anyString())).thenReturn(new LinkTransactionMetadata("transaction-id", null));
+        Mockito.when(cacheUtilService.getLinkedTransactionMetadata(Mockito.anyString())).thenReturn(new LinkTransactionMetadata("transaction-id", "linked-transaction-id"));
+
+        DeferredResult<ResponseWrapper<LinkStatusResponse>> deferredResult = new DeferredResult(1l * 1000);
+        setTimeoutHandler(deferredResult);
+        setErrorHandler(deferredResult);
+        linkedAuthorizationService.getLinkStatus(deferredResult, linkStatusRequest);
+        Assertions.assertNotNull(deferredResult.getResult());
+        Assertions.assertEquals("LINKED", ((ResponseWrapper<LinkStatusResponse>) deferredResult.getResult()).getResponse().getLinkStatus());
+    }
+
     @Test
     public void getLinkCode_withValidInput_thenPass() {
         LinkAuthCodeRequest linkAuthCodeRequest = new LinkAuthCodeRequest();
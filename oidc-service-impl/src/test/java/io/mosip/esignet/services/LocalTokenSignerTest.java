@@ -0,0 +1,132 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.services;
+
+import com.nimbusds.jose.*;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import io.mosip.esignet.core.constants.Constants;
+import io.mosip.kernel.core.keymanager.spi.KeyStore;
+import io.mosip.kernel.keymanagerservice.constant.KeymanagerConstant;
+import io.mosip.kernel.keymanagerservice.entity.KeyAlias;
+import io.mosip.kernel.keymanagerservice.helper.KeymanagerDBHelper;
+import io.mosip.kernel.signature.dto.JWSSignatureRequestDto;
+import io.mosip.kernel.signature.dto.JWTSignatureResponseDto;
+import io.mosip.kernel.signature.service.SignatureService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.cert.Certificate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+
+@ExtendWith(MockitoExtension.class)
+public class LocalTokenSignerTest {
+
+    @InjectMocks
+    private LocalTokenSigner localTokenSigner;
+
+    @Mock
+    private KeyStore keyStore;
+
+    @Mock
+    private KeymanagerDBHelper dbHelper;
+
+    @Mock
+    private SignatureService signatureService;
+
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    private RSAKey signingKey;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        ReflectionTestUtils.setField(localTokenSigner, "enabled", true);
+        ReflectionTestUtils.setField(localTokenSigner, "refreshIntervalSeconds", 300);
+        signingKey = new RSAKeyGenerator(2048).keyID("kid-1").generate();
+    }
+
+    @Test
+    public void sign_withValidLocalKey_thenPass() throws Exception {
+        mockKeyStore(signingKey);
+        mockKeymanagerSignature(signingKey);
+
+        String jwt = localTokenSigner.sign(Constants.OIDC_SERVICE_APP_ID, "{\"sub\":\"subject\"}");
+        JWSObject jwsObject = JWSObject.parse(jwt);
+        Assertions.assertTrue(jwsObject.verify(new RSASSAVerifier(signingKey.toRSAPublicKey())));
+        Assertions.assertEquals("kid-1", jwsObject.getHeader().getKeyID());
+        Assertions.assertEquals("subject", jwsObject.getPayload().toJSONObject().get("sub"));
+
+        Assertions.assertNotNull(localTokenSigner.sign(Constants.OIDC_SERVICE_APP_ID, "{\"sub\":\"subject\"}"));
+        Mockito.verify(signatureService, Mockito.times(1)).jwsSign(any(JWSSignatureRequestDto.class));
+        Mockito.verify(keyStore, Mockito.times(1)).getAsymmetricKey("key-alias");
+    }
+
+    @Test
+    public void sign_withKeyNotMatchingKeymanagerKey_thenNull() throws Exception {
+        mockKeyStore(signingKey);
+        mockKeymanagerSignature(new RSAKeyGenerator(2048).keyID("kid-2").generate());
+
+        Assertions.assertNull(localTokenSigner.sign(Constants.OIDC_SERVICE_APP_ID, "{\"sub\":\"subject\"}"));
+        //load is not retried till the next refresh
+        Assertions.assertNull(localTokenSigner.sign(Constants.OIDC_SERVICE_APP_ID, "{\"sub\":\"subject\"}"));
+        Mockito.verify(signatureService, Mockito.times(1)).jwsSign(any(JWSSignatureRequestDto.class));
+    }
+
+    @Test
+    public void sign_withOtherApplicationId_thenNull() {
+        Assertions.assertNull(localTokenSigner.sign("OTHER_APP_ID", "{\"sub\":\"subject\"}"));
+        Mockito.verifyNoInteractions(keyStore, dbHelper, signatureService);
+    }
+
+    @Test
+    public void sign_withLocalSignerDisabled_thenNull() {
+        ReflectionTestUtils.setField(localTokenSigner, "enabled", false);
+        Assertions.assertNull(localTokenSigner.sign(Constants.OIDC_SERVICE_APP_ID, "{\"sub\":\"subject\"}"));
+        Mockito.verifyNoInteractions(keyStore, dbHelper, signatureService);
+    }
+
+    private void mockKeyStore(RSAKey rsaKey) throws Exception {
+        KeyAlias keyAlias = Mockito.mock(KeyAlias.class);
+        Mockito.when(keyAlias.getAlias()).thenReturn("key-alias");
+        Mockito.when(keyAlias.getKeyExpiryTime()).thenReturn(LocalDateTime.now(ZoneOffset.UTC).plusDays(1));
+        Mockito.when(dbHelper.getKeyAliases(eq(Constants.OIDC_SERVICE_APP_ID), eq(""), any(LocalDateTime.class)))
+                .thenReturn(Map.of(KeymanagerConstant.CURRENTKEYALIAS, List.of(keyAlias)));
+
+        Certificate certificate = Mockito.mock(Certificate.class);
+        Mockito.when(certificate.getPublicKey()).thenReturn(rsaKey.toRSAPublicKey());
+        java.security.KeyStore.PrivateKeyEntry privateKeyEntry = Mockito.mock(java.security.KeyStore.PrivateKeyEntry.class);
+        Mockito.when(privateKeyEntry.getCertificate()).thenReturn(certificate);
+        Mockito.lenient().when(privateKeyEntry.getPrivateKey()).thenReturn(rsaKey.toRSAPrivateKey());
+        Mockito.when(keyStore.getAsymmetricKey(anyString())).thenReturn(privateKeyEntry);
+    }
+
+    private void mockKeymanagerSignature(RSAKey rsaKey) throws Exception {
+        JWSObject probe = new JWSObject(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(rsaKey.getKeyID()).build(),
+                new Payload("{\"iat\":1}"));
+        probe.sign(new RSASSASigner(rsaKey));
+        JWTSignatureResponseDto responseDto = new JWTSignatureResponseDto();
+        responseDto.setJwtSignedData(probe.serialize());
+        Mockito.when(signatureService.jwsSign(any(JWSSignatureRequestDto.class))).thenReturn(responseDto);
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.services;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import io.mosip.esignet.core.constants.Constants;
+import io.mosip.kernel.keymanagerservice.dto.AllCertificatesDataResponseDto;
+import io.mosip.kernel.keymanagerservice.dto.CertificateDataResponseDto;
+import io.mosip.kernel.keymanagerservice.service.KeymanagerService;
+import org.bouncycastle.x509.X509V3CertificateGenerator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.security.auth.x500.X500Principal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Optional;
+
+@ExtendWith(MockitoExtension.class)
+public class LocalTokenVerifierTest {
+
+    @InjectMocks
+    private LocalTokenVerifier localTokenVerifier;
+
+    @Mock
+    private KeymanagerService keymanagerService;
+
+    private RSAKey signingKey;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        ReflectionTestUtils.setField(localTokenVerifier, "enabled", true);
+        ReflectionTestUtils.setField(localTokenVerifier, "refreshIntervalSeconds", 300);
+        ReflectionTestUtils.setField(localTokenVerifier, "minRefreshIntervalSeconds", 10);
+        signingKey = new RSAKeyGenerator(2048).keyID("key-id-1").generate();
+
+        CertificateDataResponseDto certificateDataResponseDto = new CertificateDataResponseDto();
+        certificateDataResponseDto.setCertificateData(getPEMCertificate(signingKey));
+        certificateDataResponseDto.setKeyId("key-id-1");
+        certificateDataResponseDto.setExpiryAt(LocalDateTime.now(ZoneOffset.UTC).plusDays(1));
+        AllCertificatesDataResponseDto allCertificatesDataResponseDto = new AllCertificatesDataResponseDto();
+        allCertificatesDataResponseDto.setAllCertificates(new CertificateDataResponseDto[]{certificateDataResponseDto});
+        Mockito.lenient().when(keymanagerService.getAllCertificates(Constants.OIDC_SERVICE_APP_ID, Optional.empty()))
+                .thenReturn(allCertificatesDataResponseDto);
+    }
+
+    @Test
+    public void verify_withValidSignature_thenPass() throws Exception {
+        Assertions.assertEquals(Boolean.TRUE, localTokenVerifier.verify(getSignedJWT(signingKey, "key-id-1")));
+        Assertions.assertEquals(Boolean.TRUE, localTokenVerifier.verify(getSignedJWT(signingKey, "key-id-1")));
+        Mockito.verify(keymanagerService, Mockito.times(1)).getAllCertificates(Constants.OIDC_SERVICE_APP_ID, Optional.empty());
+    }
+
+    @Test
+    public void verify_withInvalidSignature_thenFail() throws Exception {
+        RSAKey otherKey = new RSAKeyGenerator(2048).generate();
+        Assertions.assertEquals(Boolean.FALSE, localTokenVerifier.verify(getSignedJWT(otherKey, "key-id-1")));
+    }
+
+    @Test
+    public void verify_withUnknownKeyId_thenNull() throws Exception {
+        Assertions.assertNull(localTokenVerifier.verify(getSignedJWT(signingKey, "key-id-2")));
+        //reload on unknown kid is limited by the minimum refresh interval
+        Assertions.assertNull(localTokenVerifier.verify(getSignedJWT(signingKey, "key-id-2")));
+        Mockito.verify(keymanagerService, Mockito.times(1)).getAllCertificates(Constants.OIDC_SERVICE_APP_ID, Optional.empty());
+    }
+
+    @Test
+    public void verify_withInvalidJWT_thenNull() {
+        Assertions.assertNull(localTokenVerifier.verify("access-token"));
+    }
+
+    private String getSignedJWT(RSAKey rsaKey, String keyId) throws Exception {
+        SignedJWT signedJWT = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(keyId).build(),
+                new JWTClaimsSet.Builder().subject("subject").build());
+        signedJWT.sign(new RSASSASigner(rsaKey));
+        return signedJWT.serialize();
+    }
+
+    private String getPEMCertificate(RSAKey rsaKey) throws Exception {
+        X509V3CertificateGenerator generator = new X509V3CertificateGenerator();
+        X500Principal dnName = new X500Principal("CN=Test");
+        generator.setSubjectDN(dnName);
+        generator.setIssuerDN(dnName);
+        generator.setNotBefore(new Date(System.currentTimeMillis() - 24 * 60 * 60 * 1000));
+        generator.setNotAfter(new Date(System.currentTimeMillis() + 24 * 60 * 60 * 1000));
+        generator.setPublicKey(rsaKey.toPublicKey());
+        generator.setSignatureAlgorithm("SHA256WITHRSA");
+        generator.setSerialNumber(new BigInteger(String.valueOf(System.currentTimeMillis())));
+        byte[] encoded = generator.generate(rsaKey.toPrivateKey()).getEncoded();
+        return "-----BEGIN CERTIFICATE-----\n" +
+                new String(Base64.getMimeEncoder(64, "\n".getBytes(StandardCharsets.UTF_8)).encode(encoded), StandardCharsets.UTF_8) +
+                "\n-----END CERTIFICATE-----";
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.services;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+
+@ExtendWith(MockitoExtension.class)
+public class NonceReplayCheckerTest {
+
+    @InjectMocks
+    private NonceReplayChecker nonceReplayChecker;
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Mock
+    private RedisConnectionMode redisConnectionMode;
+
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(nonceReplayChecker, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(nonceReplayChecker, "nonceValidity", 60);
+        ReflectionTestUtils.setField(nonceReplayChecker, "cacheType", "redis");
+        nonceReplayChecker.init();
+    }
+
+    @Test
+    public void markIfUnused_withFirstUse_thenPass() {
+        Mockito.when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        Mockito.when(valueOperations.setIfAbsent("nonce::nonce1", "1", Duration.ofSeconds(60))).thenReturn(true);
+
+        Assertions.assertTrue(nonceReplayChecker.markIfUnused("nonce1"));
+        Assertions.assertEquals(1, meterRegistry.get("esignet.nonce.check").tag("result", "accepted").counter().count());
+        Assertions.assertEquals(1, meterRegistry.get("esignet.nonce.check.latency").timer().count());
+    }
+
+    @Test
+    public void markIfUnused_withReplayedNonce_thenFail() {
+        Mockito.when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        Mockito.when(valueOperations.setIfAbsent("nonce::nonce1", "1", Duration.ofSeconds(60))).thenReturn(false);
+
+        Assertions.assertFalse(nonceReplayChecker.markIfUnused("nonce1"));
+        Assertions.assertEquals(1, meterRegistry.get("esignet.nonce.check").tag("result", "replayed").counter().count());
+    }
+
+    @Test
+    public void markIfUnused_withSimpleCacheType_thenPass() {
+        ReflectionTestUtils.setField(nonceReplayChecker, "cacheType", "simple");
+        Assertions.assertTrue(nonceReplayChecker.markIfUnused("nonce1"));
+        Assertions.assertEquals(List.of(true, true), nonceReplayChecker.markIfUnused(List.of("nonce1", "nonce2")));
+        Mockito.verifyNoInteractions(stringRedisTemplate);
+    }
+
+    @Test
+    public void markIfUnused_withBatch_thenSingleScriptInvocation() {
+        Mockito.when(stringRedisTemplate.execute(any(RedisScript.class), eq(List.of("nonce::nonce1", "nonce::nonce2")),
+                eq("60"))).thenReturn(List.of(1L, 0L));
+
+        Assertions.assertEquals(List.of(true, false), nonceReplayChecker.markIfUnused(new LinkedHashSet<>(List.of("nonce1", "nonce2"))));
+        Mockito.verify(stringRedisTemplate, Mockito.times(1)).execute(any(RedisScript.class), anyList(), any());
+        Assertions.assertEquals(1, meterRegistry.get("esignet.nonce.check").tag("result", "accepted").counter().count());
+        Assertions.assertEquals(1, meterRegistry.get("esignet.nonce.check").tag("result", "replayed").counter().count());
+        Assertions.assertEquals(1, meterRegistry.get("esignet.nonce.check.latency").timer().count());
+    }
+
+    @Test
+    public void markIfUnused_withEmptyBatch_thenNoRedisCall() {
+        Assertions.assertEquals(List.of(), nonceReplayChecker.markIfUnused(List.of()));
+        Mockito.verifyNoInteractions(stringRedisTemplate);
+    }
+
+    @Test
+    public void markIfUnused_withBatchOnClusterConnection_thenSetIfAbsentForEachNonce() {
+        Mockito.when(redisConnectionMode.isCluster()).thenReturn(true);
+        Mockito.when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        Mockito.when(valueOperations.setIfAbsent("nonce::nonce1", "1", Duration.ofSeconds(60))).thenReturn(false);
+        Mockito.when(valueOperations.setIfAbsent("nonce::nonce2", "1", Duration.ofSeconds(60))).thenReturn(true);
+
+        Assertions.assertEquals(List.of(false, true), nonceReplayChecker.markIfUnused(List.of("nonce1", "nonce2")));
+        Mockito.verify(stringRedisTemplate, Mockito.never()).execute(any(RedisScript.class), anyList(), any());
+    }
+}
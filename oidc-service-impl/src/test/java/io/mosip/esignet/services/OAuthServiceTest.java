@@ -830,8 +830,6 @@ public class OAuthServiceTest {
         oidcTransaction.setIndividualId("individual-id");
         oidcTransaction.setDpopJkt(thumbprint);
         oidcTransaction.setDpopBoundAccessToken(true);
-        oidcTransaction.setDpopServerNonce(testNonce);
-        oidcTransaction.setDpopServerNonceTTL(System.currentTimeMillis() + 60000L);
 
         ClientDetail clientDetail = new ClientDetail();
         clientDetail.setRedirectUris(Arrays.asList("https://test-redirect-uri/**"));
@@ -849,11 +847,14 @@ public class OAuthServiceTest {
         Mockito.when(securityHelperService.computeJwkThumbprint(any())).thenReturn(thumbprint);
         Mockito.when(tokenService.getAccessToken(Mockito.any(), Mockito.any())).thenReturn("test-access-token");
         Mockito.when(tokenService.getIDToken(Mockito.any())).thenReturn("test-id-token");
+        Mockito.when(tokenService.isValidDpopServerNonce(anyString(), Mockito.eq("code-hash"),
+                Mockito.eq(Constants.AUTH_CODE_GENERATED_CACHE))).thenReturn(true);
 
         TokenResponse tokenResponse = oAuthService.getTokens(tokenRequest, dpopJwt.serialize(), false);
 
         Assertions.assertNotNull(tokenResponse);
         Assertions.assertEquals(Constants.DPOP, tokenResponse.getToken_type());
+        Mockito.verify(tokenService, Mockito.never()).generateAndStoreNewNonce(anyString(), anyString());
     }
 
     @Test
@@ -893,7 +894,7 @@ public class OAuthServiceTest {
         Mockito.when(authorizationHelperService.getKeyHash(Mockito.anyString())).thenReturn("code-hash");
         Mockito.when(cacheUtilService.getAuthCodeTransaction(Mockito.anyString())).thenReturn(oidcTransaction);
         Mockito.when(securityHelperService.computeJwkThumbprint(any())).thenReturn(thumbprint);
-        Mockito.when(tokenService.isValidDpopServerNonce(anyString(), any())).thenReturn(false);
+        Mockito.when(tokenService.isValidDpopServerNonce(anyString(), anyString(), anyString())).thenReturn(false);
         Mockito.doThrow(new DpopNonceMissingException("")).when(tokenService).generateAndStoreNewNonce(anyString(), anyString());
 
         try {
@@ -933,8 +934,6 @@ public class OAuthServiceTest {
         oidcTransaction.setIndividualId("individual-id");
         oidcTransaction.setDpopJkt(thumbprint);
         oidcTransaction.setDpopBoundAccessToken(true);
-        oidcTransaction.setDpopServerNonce(expiredNonce);
-        oidcTransaction.setDpopServerNonceTTL(System.currentTimeMillis() - 1000L);
 
         ClientDetail clientDetail = new ClientDetail();
         clientDetail.setRedirectUris(Arrays.asList("https://test-redirect-uri/**"));
@@ -943,7 +942,7 @@ public class OAuthServiceTest {
         Mockito.when(authorizationHelperService.getKeyHash(Mockito.anyString())).thenReturn("code-hash");
         Mockito.when(cacheUtilService.getAuthCodeTransaction(Mockito.anyString())).thenReturn(oidcTransaction);
         Mockito.when(securityHelperService.computeJwkThumbprint(any())).thenReturn(thumbprint);
-        Mockito.when(tokenService.isValidDpopServerNonce(anyString(), any())).thenReturn(false);
+        Mockito.when(tokenService.isValidDpopServerNonce(anyString(), anyString(), anyString())).thenReturn(false);
         Mockito.doThrow(new DpopNonceMissingException("")).when(tokenService).generateAndStoreNewNonce(anyString(), anyString());
 
         try {
@@ -985,9 +984,6 @@ public class OAuthServiceTest {
         oidcTransaction.setIndividualId("individual-id");
         oidcTransaction.setDpopJkt(thumbprint);
         oidcTransaction.setDpopBoundAccessToken(true);
-        String storedNonce = "server-nonce";
-        oidcTransaction.setDpopServerNonce(storedNonce);
-        oidcTransaction.setDpopServerNonceTTL(System.currentTimeMillis() + 60000L);
 
         ClientDetail clientDetail = new ClientDetail();
         clientDetail.setRedirectUris(Arrays.asList("https://test-redirect-uri/**"));
@@ -997,7 +993,7 @@ public class OAuthServiceTest {
         Mockito.when(cacheUtilService.getAuthCodeTransaction(Mockito.anyString())).thenReturn(oidcTransaction);
         Mockito.when(securityHelperService.computeJwkThumbprint(any())).thenReturn(thumbprint);
 
-        Mockito.when(tokenService.isValidDpopServerNonce(anyString(), any())).thenReturn(false);
+        Mockito.when(tokenService.isValidDpopServerNonce(anyString(), anyString(), anyString())).thenReturn(false);
         Mockito.doThrow(new DpopNonceMissingException("")).when(tokenService).generateAndStoreNewNonce(anyString(), anyString());
 
 
@@ -1041,8 +1037,6 @@ public class OAuthServiceTest {
         oidcTransaction.setRedirectUri("https://test-redirect-uri/test-page");
         oidcTransaction.setDpopJkt(differentThumbprint);
         oidcTransaction.setDpopBoundAccessToken(true);
-        oidcTransaction.setDpopServerNonce(testNonce);
-        oidcTransaction.setDpopServerNonceTTL(System.currentTimeMillis() + 60000L);
 
         ClientDetail clientDetail = new ClientDetail();
         clientDetail.setRedirectUris(Arrays.asList("https://test-redirect-uri/**"));
@@ -1,8 +1,12 @@
 package io.mosip.esignet.services;
 
 
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
 import io.mosip.esignet.api.spi.AuditPlugin;
+import io.mosip.esignet.core.constants.Constants;
 import io.mosip.esignet.core.dto.OIDCTransaction;
+import io.mosip.esignet.core.dto.ParsedCredentialContext;
 import io.mosip.esignet.core.exception.DpopNonceMissingException;
 import io.mosip.esignet.core.exception.EsignetException;
 import io.mosip.esignet.core.exception.NotAuthenticatedException;
@@ -19,7 +23,10 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 @ExtendWith(MockitoExtension.class)
 public class OpenIdConnectServiceTest {
@@ -95,7 +102,8 @@ public class OpenIdConnectServiceTest {
         oidcTransaction.setDpopBoundAccessToken(true);
         String dpopHeader = "dpop header";
         Mockito.when(cacheUtilService.getUserInfoTransaction(Mockito.anyString())).thenReturn(oidcTransaction);
-        Mockito.when(tokenService.isValidDpopServerNonce(dpopHeader, oidcTransaction)).thenReturn(true);
+        Mockito.when(tokenService.isValidDpopServerNonce(Mockito.eq(dpopHeader), Mockito.anyString(),
+                Mockito.eq(Constants.USERINFO_CACHE))).thenReturn(true);
         Mockito.when(userInfoResponseHelper.processUserInfoResponse(Mockito.any(OIDCTransaction.class)))
                 .thenReturn("processed-kyc");
         String kyc = openIdConnectService.getUserInfo("DPoP access-token", dpopHeader);
@@ -103,6 +111,39 @@ public class OpenIdConnectServiceTest {
         Assertions.assertEquals("processed-kyc", kyc);
     }
 
+    @Test
+    public void getUserInfo_withParsedCredentialContext_thenParsedTokensReused() throws Exception {
+        OIDCTransaction oidcTransaction = new OIDCTransaction();
+        oidcTransaction.setClientId("client-id");
+        oidcTransaction.setPartnerSpecificUserToken("p-s-u-t");
+        oidcTransaction.setDpopBoundAccessToken(true);
+
+        SignedJWT accessTokenJwt = Mockito.mock(SignedJWT.class);
+        JWTClaimsSet dpopClaims = new JWTClaimsSet.Builder().claim("nonce", "server-nonce").build();
+        ParsedCredentialContext credentialContext = new ParsedCredentialContext();
+        credentialContext.setAccessToken("access-token");
+        credentialContext.setAccessTokenAtHash("at-hash");
+        credentialContext.setAccessTokenJwt(accessTokenJwt);
+        credentialContext.setDpopClaims(dpopClaims);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute(Constants.PARSED_CREDENTIAL_CONTEXT, credentialContext);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        try {
+            Mockito.when(cacheUtilService.getUserInfoTransaction("at-hash")).thenReturn(oidcTransaction);
+            Mockito.when(tokenService.isValidDpopServerNonce(dpopClaims, "at-hash", Constants.USERINFO_CACHE)).thenReturn(true);
+            Mockito.when(userInfoResponseHelper.processUserInfoResponse(oidcTransaction)).thenReturn("processed-kyc");
+
+            Assertions.assertEquals("processed-kyc", openIdConnectService.getUserInfo("DPoP access-token", "dpop-header"));
+            Mockito.verify(tokenService).verifyAccessToken("client-id", "p-s-u-t", accessTokenJwt);
+            Mockito.verify(tokenService, Mockito.never()).verifyAccessToken(Mockito.anyString(), Mockito.anyString(), Mockito.anyString());
+            Mockito.verify(tokenService, Mockito.never()).isValidDpopServerNonce(Mockito.anyString(), Mockito.anyString(),
+                    Mockito.anyString());
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
     @Test
     public void getUserInfo_withDpopWithoutNonce_thenFail() throws Exception {
         OIDCTransaction oidcTransaction = new OIDCTransaction();
@@ -111,7 +152,7 @@ public class OpenIdConnectServiceTest {
         oidcTransaction.setEncryptedKyc("encrypted-kyc");
         oidcTransaction.setDpopBoundAccessToken(true);
         Mockito.when(cacheUtilService.getUserInfoTransaction(Mockito.anyString())).thenReturn(oidcTransaction);
-        Mockito.when(tokenService.isValidDpopServerNonce(Mockito.anyString(), Mockito.any())).thenReturn(false);
+        Mockito.when(tokenService.isValidDpopServerNonce(Mockito.anyString(), Mockito.anyString(), Mockito.anyString())).thenReturn(false);
         String nonce = "valid-nonce";
         Mockito.doThrow(new DpopNonceMissingException(nonce)).when(tokenService).generateAndStoreNewNonce(Mockito.anyString(), Mockito.anyString());
         try {
@@ -0,0 +1,114 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.services;
+
+import io.mosip.esignet.core.constants.Constants;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+
+public class RedisApiRateLimiterTest {
+
+    private RedisApiRateLimiter apiRateLimiter;
+    private StringRedisTemplate stringRedisTemplate;
+    private RedisConnectionMode redisConnectionMode;
+
+    @BeforeEach
+    public void setUp() {
+        CacheManager cacheManager = Mockito.mock(CacheManager.class);
+        RedisCache redisCache = Mockito.mock(RedisCache.class);
+        Mockito.when(redisCache.getCacheConfiguration()).thenReturn(RedisCacheConfiguration.defaultCacheConfig()
+                .prefixCacheNameWith("esignet:")
+                .entryTtl(Duration.ofSeconds(180)));
+        Mockito.when(cacheManager.getCache(Constants.RATE_LIMIT_CACHE)).thenReturn(redisCache);
+
+        stringRedisTemplate = Mockito.mock(StringRedisTemplate.class);
+        apiRateLimiter = new RedisApiRateLimiter();
+        ReflectionTestUtils.setField(apiRateLimiter, "cacheManager", cacheManager);
+        ReflectionTestUtils.setField(apiRateLimiter, "stringRedisTemplate", stringRedisTemplate);
+        redisConnectionMode = Mockito.mock(RedisConnectionMode.class);
+        ReflectionTestUtils.setField(apiRateLimiter, "redisConnectionMode", redisConnectionMode);
+    }
+
+    @Test
+    public void tryAcquire_withoutWindow_thenSingleScriptInvocationWithCacheTTL() {
+        Mockito.when(stringRedisTemplate.execute(any(RedisScript.class), eq(List.of("esignet:apiratelimit::send-otp:transaction:txn-1")),
+                eq("180000"), eq("3"), eq("1000"), any())).thenReturn(0L, 1L, 2L);
+
+        Assertions.assertEquals(ApiRateLimiter.Result.ALLOWED, apiRateLimiter.tryAcquire("send-otp:transaction:txn-1", 3, 1, null));
+        Assertions.assertEquals(ApiRateLimiter.Result.LIMIT_EXCEEDED, apiRateLimiter.tryAcquire("send-otp:transaction:txn-1", 3, 1, null));
+        Assertions.assertEquals(ApiRateLimiter.Result.TOO_EARLY, apiRateLimiter.tryAcquire("send-otp:transaction:txn-1", 3, 1, null));
+        Mockito.verify(stringRedisTemplate, Mockito.times(3)).execute(any(RedisScript.class), anyList(), any(), any(), any(), any());
+    }
+
+    @Test
+    public void tryAcquire_withWindow_thenUniqueInvocationMembers() {
+        ArgumentCaptor<String> memberCaptor = ArgumentCaptor.forClass(String.class);
+        Mockito.when(stringRedisTemplate.execute(any(RedisScript.class), anyList(), eq("600000"), eq("5"), eq("0"),
+                memberCaptor.capture())).thenReturn(0L);
+
+        apiRateLimiter.tryAcquire("authenticate:individual:hash", 5, 0, Duration.ofSeconds(600));
+        apiRateLimiter.tryAcquire("authenticate:individual:hash", 5, -1, Duration.ofSeconds(600));
+        Assertions.assertNotEquals(memberCaptor.getAllValues().get(0), memberCaptor.getAllValues().get(1));
+    }
+
+    @Test
+    public void tryAcquire_withMultipleLimits_thenSingleScriptInvocation() {
+        Mockito.when(stringRedisTemplate.execute(any(RedisScript.class),
+                eq(List.of("esignet:apiratelimit::send-otp:transaction:txn-1", "esignet:apiratelimit::send-otp:client:client-1")),
+                eq("180000"), eq("3"), eq("1000"), eq("60000"), eq("100"), eq("0"), any())).thenReturn(0L, 3L, 4L);
+
+        List<ApiRateLimiter.Limit> limits = List.of(new ApiRateLimiter.Limit("send-otp:transaction:txn-1", 3, 1, null),
+                new ApiRateLimiter.Limit("send-otp:client:client-1", 100, 0, Duration.ofSeconds(60)));
+        Assertions.assertEquals(new ApiRateLimiter.Decision(ApiRateLimiter.Result.ALLOWED, -1), apiRateLimiter.tryAcquire(limits));
+        Assertions.assertEquals(new ApiRateLimiter.Decision(ApiRateLimiter.Result.LIMIT_EXCEEDED, 1), apiRateLimiter.tryAcquire(limits));
+        Assertions.assertEquals(new ApiRateLimiter.Decision(ApiRateLimiter.Result.TOO_EARLY, 1), apiRateLimiter.tryAcquire(limits));
+        Mockito.verify(stringRedisTemplate, Mockito.times(3)).execute(any(RedisScript.class), anyList(), any(), any(), any(),
+                any(), any(), any(), any());
+    }
+
+    @Test
+    public void tryAcquire_withRedisServerTime_thenNodeClockNotPassed() {
+        Assertions.assertTrue(((RedisScript<?>) ReflectionTestUtils.getField(RedisApiRateLimiter.class, "RATE_LIMIT_SCRIPT"))
+                .getScriptAsString().contains("redis.call(\"TIME\")"));
+    }
+
+    @Test
+    public void tryAcquire_withClusterConnection_thenScriptPerKeyAndRecordedKeysRolledBack() {
+        Mockito.when(redisConnectionMode.isCluster()).thenReturn(true);
+        ZSetOperations<String, String> zSetOperations = Mockito.mock(ZSetOperations.class);
+        Mockito.when(stringRedisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        ArgumentCaptor<String> memberCaptor = ArgumentCaptor.forClass(String.class);
+        Mockito.when(stringRedisTemplate.execute(any(RedisScript.class), eq(List.of("esignet:apiratelimit::send-otp:transaction:txn-1")),
+                eq("180000"), eq("3"), eq("1000"), memberCaptor.capture())).thenReturn(0L);
+        Mockito.when(stringRedisTemplate.execute(any(RedisScript.class), eq(List.of("esignet:apiratelimit::send-otp:client:client-1")),
+                eq("60000"), eq("100"), eq("0"), any())).thenReturn(0L, 1L);
+
+        List<ApiRateLimiter.Limit> limits = List.of(new ApiRateLimiter.Limit("send-otp:transaction:txn-1", 3, 1, null),
+                new ApiRateLimiter.Limit("send-otp:client:client-1", 100, 0, Duration.ofSeconds(60)));
+        Assertions.assertEquals(new ApiRateLimiter.Decision(ApiRateLimiter.Result.ALLOWED, -1), apiRateLimiter.tryAcquire(limits));
+        Mockito.verify(zSetOperations, Mockito.never()).remove(any(), any());
+
+        Assertions.assertEquals(new ApiRateLimiter.Decision(ApiRateLimiter.Result.LIMIT_EXCEEDED, 1), apiRateLimiter.tryAcquire(limits));
+        Mockito.verify(zSetOperations).remove("esignet:apiratelimit::send-otp:transaction:txn-1", memberCaptor.getValue());
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.services;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+
+public class RedisBlockedIndividualIdFilterTest {
+
+    private RedisBlockedIndividualIdFilter blockedIndividualIdFilter;
+    private StringRedisTemplate stringRedisTemplate;
+    private ZSetOperations<String, String> zSetOperations;
+
+    @BeforeEach
+    public void setUp() {
+        stringRedisTemplate = Mockito.mock(StringRedisTemplate.class);
+        zSetOperations = Mockito.mock(ZSetOperations.class);
+        Mockito.when(stringRedisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        blockedIndividualIdFilter = new RedisBlockedIndividualIdFilter();
+        ReflectionTestUtils.setField(blockedIndividualIdFilter, "stringRedisTemplate", stringRedisTemplate);
+        ReflectionTestUtils.setField(blockedIndividualIdFilter, "setKey", "esignet:blocked-individual-id-set");
+        ReflectionTestUtils.setField(blockedIndividualIdFilter, "cacheExpireInSeconds", Map.of("blocked", 600));
+        ReflectionTestUtils.setField(blockedIndividualIdFilter, "expectedInsertions", 1000);
+        ReflectionTestUtils.setField(blockedIndividualIdFilter, "falsePositiveProbability", 0.001);
+        ReflectionTestUtils.setField(blockedIndividualIdFilter, "refreshIntervalSecs", 300L);
+        ReflectionTestUtils.setField(blockedIndividualIdFilter, "channel", "esignet:blocked-individual-ids");
+    }
+
+    @Test
+    public void mightBeBlocked_beforeFirstBuild_thenTrue() {
+        ReflectionTestUtils.setField(blockedIndividualIdFilter, "nextRefreshAt", Long.MAX_VALUE);
+        Assertions.assertTrue(blockedIndividualIdFilter.mightBeBlocked("id-hash"));
+    }
+
+    @Test
+    public void mightBeBlocked_withRebuiltFilter_thenPass() {
+        mockScan(List.of("id-hash-1", "id-hash-2"));
+        blockedIndividualIdFilter.rebuild();
+
+        Assertions.assertTrue(blockedIndividualIdFilter.mightBeBlocked("id-hash-1"));
+        Assertions.assertTrue(blockedIndividualIdFilter.mightBeBlocked("id-hash-2"));
+        Assertions.assertFalse(blockedIndividualIdFilter.mightBeBlocked("id-hash-3"));
+    }
+
+    @Test
+    public void add_thenPublishedAndAddedLocally() {
+        mockScan(List.of());
+        blockedIndividualIdFilter.rebuild();
+
+        blockedIndividualIdFilter.add("id-hash-1");
+        Assertions.assertTrue(blockedIndividualIdFilter.mightBeBlocked("id-hash-1"));
+        Mockito.verify(zSetOperations).add(eq("esignet:blocked-individual-id-set"), eq("id-hash-1"), anyDouble());
+        Mockito.verify(stringRedisTemplate).convertAndSend("esignet:blocked-individual-ids", "id-hash-1");
+
+        blockedIndividualIdFilter.onMessage(new DefaultMessage("esignet:blocked-individual-ids".getBytes(StandardCharsets.UTF_8),
+                "id-hash-2".getBytes(StandardCharsets.UTF_8)), null);
+        Assertions.assertTrue(blockedIndividualIdFilter.mightBeBlocked("id-hash-2"));
+    }
+
+    @Test
+    public void rebuild_withScanFailure_thenPreviousFilterRetained() {
+        mockScan(List.of("id-hash-1"));
+        blockedIndividualIdFilter.rebuild();
+        Mockito.when(zSetOperations.scan(eq("esignet:blocked-individual-id-set"), any(ScanOptions.class)))
+                .thenThrow(new RuntimeException("connection failure"));
+        blockedIndividualIdFilter.rebuild();
+
+        Assertions.assertTrue(blockedIndividualIdFilter.mightBeBlocked("id-hash-1"));
+    }
+
+    @Test
+    public void onChannelUnsubscribed_thenFilterDropped() {
+        mockScan(List.of("id-hash-1"));
+        blockedIndividualIdFilter.rebuild();
+        Assertions.assertFalse(blockedIndividualIdFilter.mightBeBlocked("id-hash-2"));
+
+        blockedIndividualIdFilter.onChannelUnsubscribed("esignet:blocked-individual-ids".getBytes(StandardCharsets.UTF_8), 0);
+        Assertions.assertTrue(blockedIndividualIdFilter.mightBeBlocked("id-hash-2"));
+    }
+
+    @Test
+    public void rebuild_withSubscriptionChangeDuringRebuild_thenFilterDiscarded() {
+        Cursor<ZSetOperations.TypedTuple<String>> cursor = Mockito.mock(Cursor.class);
+        Mockito.when(zSetOperations.scan(eq("esignet:blocked-individual-id-set"), any(ScanOptions.class))).thenAnswer(invocation -> {
+            blockedIndividualIdFilter.onChannelUnsubscribed("esignet:blocked-individual-ids".getBytes(StandardCharsets.UTF_8), 0);
+            return cursor;
+        });
+        blockedIndividualIdFilter.rebuild();
+
+        Assertions.assertNull(ReflectionTestUtils.getField(blockedIndividualIdFilter, "filter"));
+        Assertions.assertEquals(0L, ReflectionTestUtils.getField(blockedIndividualIdFilter, "nextRefreshAt"));
+    }
+
+    @Test
+    public void add_withPublishFailure_thenRebuildForced() {
+        mockScan(List.of());
+        blockedIndividualIdFilter.rebuild();
+        ((AtomicBoolean) ReflectionTestUtils.getField(blockedIndividualIdFilter, "rebuilding")).set(true);
+        Mockito.when(stringRedisTemplate.convertAndSend("esignet:blocked-individual-ids", "id-hash-1"))
+                .thenThrow(new RuntimeException("connection failure"));
+
+        blockedIndividualIdFilter.add("id-hash-1");
+        Assertions.assertTrue(blockedIndividualIdFilter.mightBeBlocked("id-hash-1"));
+        Assertions.assertEquals(0L, ReflectionTestUtils.getField(blockedIndividualIdFilter, "nextRefreshAt"));
+    }
+
+    @Test
+    public void rebuild_withIdAddedDuringRebuild_thenIdInRebuiltFilter() {
+        mockScan(List.of());
+        blockedIndividualIdFilter.rebuild();
+        Cursor<ZSetOperations.TypedTuple<String>> cursor = Mockito.mock(Cursor.class);
+        Mockito.when(zSetOperations.scan(eq("esignet:blocked-individual-id-set"), any(ScanOptions.class))).thenAnswer(invocation -> {
+            blockedIndividualIdFilter.onMessage(new DefaultMessage("esignet:blocked-individual-ids".getBytes(StandardCharsets.UTF_8),
+                    "id-hash-1".getBytes(StandardCharsets.UTF_8)), null);
+            return cursor;
+        });
+        blockedIndividualIdFilter.rebuild();
+
+        Assertions.assertTrue(blockedIndividualIdFilter.mightBeBlocked("id-hash-1"));
+        Assertions.assertNull(ReflectionTestUtils.getField(blockedIndividualIdFilter, "nextFilter"));
+    }
+
+    @Test
+    public void rebuild_thenExpiredIdsRemovedBeforeScan() {
+        mockScan(List.of("id-hash-1"));
+        blockedIndividualIdFilter.rebuild();
+
+        Mockito.verify(zSetOperations).removeRangeByScore(eq("esignet:blocked-individual-id-set"), eq(0d), anyDouble());
+        Mockito.verify(stringRedisTemplate, Mockito.never()).scan(any(ScanOptions.class));
+    }
+
+    private void mockScan(List<String> ids) {
+        Iterator<String> iterator = ids.iterator();
+        Cursor<ZSetOperations.TypedTuple<String>> cursor = Mockito.mock(Cursor.class);
+        Mockito.when(cursor.hasNext()).thenAnswer(invocation -> iterator.hasNext());
+        Mockito.when(cursor.next()).thenAnswer(invocation -> new DefaultTypedTuple<>(iterator.next(), 0d));
+        Mockito.when(zSetOperations.scan(eq("esignet:blocked-individual-id-set"), any(ScanOptions.class))).thenReturn(cursor);
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.services;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class RedisConnectionModeTest {
+
+    @Test
+    public void isCluster_withClusterConnection_thenResolvedOnce() {
+        RedisConnectionFactory redisConnectionFactory = Mockito.mock(RedisConnectionFactory.class);
+        RedisClusterConnection connection = Mockito.mock(RedisClusterConnection.class);
+        Mockito.when(redisConnectionFactory.getConnection()).thenReturn(connection);
+        RedisConnectionMode redisConnectionMode = new RedisConnectionMode();
+        ReflectionTestUtils.setField(redisConnectionMode, "redisConnectionFactory", redisConnectionFactory);
+
+        Assertions.assertTrue(redisConnectionMode.isCluster());
+        Assertions.assertTrue(redisConnectionMode.isCluster());
+        Mockito.verify(redisConnectionFactory, Mockito.times(1)).getConnection();
+        Mockito.verify(connection).close();
+    }
+
+    @Test
+    public void isCluster_withStandaloneConnection_thenFalse() {
+        RedisConnectionFactory redisConnectionFactory = Mockito.mock(RedisConnectionFactory.class);
+        Mockito.when(redisConnectionFactory.getConnection()).thenReturn(Mockito.mock(RedisConnection.class));
+        RedisConnectionMode redisConnectionMode = new RedisConnectionMode();
+        ReflectionTestUtils.setField(redisConnectionMode, "redisConnectionFactory", redisConnectionFactory);
+
+        Assertions.assertFalse(redisConnectionMode.isCluster());
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.services;
+
+import io.mosip.esignet.core.constants.Constants;
+import io.mosip.esignet.core.dto.OIDCTransaction;
+import io.mosip.esignet.core.dto.TransactionHeader;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+
+public class RedisTransactionStateStoreTest {
+
+    private RedisTransactionStateStore transactionStateStore;
+    private RedisTemplate<String, byte[]> redisTemplate;
+    private CacheManager cacheManager;
+    private RedisConnectionMode redisConnectionMode;
+
+    @BeforeEach
+    public void setUp() {
+        cacheManager = Mockito.mock(CacheManager.class);
+        mockRedisCache(cacheManager, Constants.PRE_AUTH_SESSION_CACHE, 300);
+        mockRedisCache(cacheManager, Constants.HALTED_CACHE, 1800);
+        mockRedisCache(cacheManager, Constants.AUTHENTICATED_CACHE, 120);
+        mockRedisCache(cacheManager, Constants.JTI_CACHE, 86400);
+
+        redisTemplate = Mockito.mock(RedisTemplate.class);
+        transactionStateStore = new RedisTransactionStateStore(Mockito.mock(RedisConnectionFactory.class));
+        ReflectionTestUtils.setField(transactionStateStore, "cacheManager", cacheManager);
+        ReflectionTestUtils.setField(transactionStateStore, "redisTemplate", redisTemplate);
+        redisConnectionMode = Mockito.mock(RedisConnectionMode.class);
+        ReflectionTestUtils.setField(transactionStateStore, "redisConnectionMode", redisConnectionMode);
+    }
+
+    @Test
+    public void moveTransaction_thenSingleScriptInvocation() {
+        OIDCTransaction transaction = new OIDCTransaction();
+        transaction.setTransactionId("txn-id");
+        Map<String, String> evictions = new HashMap<>();
+        evictions.put(Constants.PRE_AUTH_SESSION_CACHE, "txn-id");
+        evictions.put(Constants.HALTED_CACHE, null);
+
+        transactionStateStore.moveTransaction(Constants.AUTHENTICATED_CACHE, "txn-id", transaction, evictions);
+
+        ArgumentCaptor<List<String>> keysCaptor = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<Object> argsCaptor = ArgumentCaptor.forClass(Object.class);
+        Mockito.verify(redisTemplate, Mockito.times(1)).execute(any(RedisScript.class), keysCaptor.capture(),
+                argsCaptor.capture(), argsCaptor.capture());
+        Assertions.assertEquals(List.of("esignet:authenticated::txn-id", "esignet:preauth::txn-id"), keysCaptor.getValue());
+        Assertions.assertEquals("120000", new String((byte[]) argsCaptor.getAllValues().get(1), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void moveTransaction_withCompanionValue_thenWrittenInSameScriptInvocation() {
+        mockRedisCache(cacheManager, Constants.TRANSACTION_HEADER_CACHE, 1800);
+        OIDCTransaction transaction = new OIDCTransaction();
+        transaction.setTransactionId("txn-id");
+
+        transactionStateStore.moveTransaction(Constants.AUTHENTICATED_CACHE, "txn-id", transaction,
+                Map.of(Constants.PRE_AUTH_SESSION_CACHE, "txn-id"), Constants.TRANSACTION_HEADER_CACHE,
+                new TransactionHeader("hash", null, Constants.AUTHENTICATED_CACHE, "client-id"));
+
+        ArgumentCaptor<List<String>> keysCaptor = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<Object> argsCaptor = ArgumentCaptor.forClass(Object.class);
+        Mockito.verify(redisTemplate, Mockito.times(1)).execute(any(RedisScript.class), keysCaptor.capture(),
+                argsCaptor.capture(), argsCaptor.capture(), argsCaptor.capture());
+        Assertions.assertEquals(List.of("esignet:authenticated::txn-id", "esignet:txnheader::txn-id",
+                "esignet:preauth::txn-id"), keysCaptor.getValue());
+        //header expires with the TTL of the cache the transaction is moved into, not the txnheader cache TTL
+        Assertions.assertEquals("120000", new String((byte[]) argsCaptor.getAllValues().get(1), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void moveTransaction_withClusterConnection_thenSetAndDeleteWithoutScript() {
+        mockRedisCache(cacheManager, Constants.TRANSACTION_HEADER_CACHE, 1800);
+        Mockito.when(redisConnectionMode.isCluster()).thenReturn(true);
+        ValueOperations<String, byte[]> valueOperations = Mockito.mock(ValueOperations.class);
+        Mockito.when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        OIDCTransaction transaction = new OIDCTransaction();
+        transaction.setTransactionId("txn-id");
+
+        transactionStateStore.moveTransaction(Constants.AUTHENTICATED_CACHE, "txn-id", transaction,
+                Map.of(Constants.PRE_AUTH_SESSION_CACHE, "txn-id"), Constants.TRANSACTION_HEADER_CACHE,
+                new TransactionHeader("hash", null, Constants.AUTHENTICATED_CACHE, "client-id"));
+        transactionStateStore.moveTransaction(Constants.HALTED_CACHE, "txn-id", transaction,
+                Map.of(Constants.AUTHENTICATED_CACHE, "txn-id"));
+
+        InOrder inOrder = Mockito.inOrder(valueOperations, redisTemplate);
+        inOrder.verify(valueOperations).set(Mockito.eq("esignet:authenticated::txn-id"), any(byte[].class),
+                Mockito.eq(Duration.ofSeconds(120)));
+        inOrder.verify(valueOperations).set(Mockito.eq("esignet:txnheader::txn-id"), any(byte[].class),
+                Mockito.eq(Duration.ofSeconds(120)));
+        inOrder.verify(redisTemplate).delete("esignet:preauth::txn-id");
+        inOrder.verify(valueOperations).set(Mockito.eq("esignet:halted::txn-id"), any(byte[].class),
+                Mockito.eq(Duration.ofSeconds(1800)));
+        inOrder.verify(redisTemplate).delete("esignet:authenticated::txn-id");
+        Assertions.assertTrue(Mockito.mockingDetails(redisTemplate).getInvocations().stream()
+                .noneMatch(invocation -> invocation.getMethod().getName().equals("execute")));
+    }
+
+    @Test
+    public void putIfAbsent_withTTL_thenSingleSetIfAbsent() {
+        ValueOperations<String, byte[]> valueOperations = Mockito.mock(ValueOperations.class);
+        Mockito.when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        Mockito.when(valueOperations.setIfAbsent(Mockito.eq("esignet:jti::jti-1"), any(byte[].class),
+                Mockito.eq(Duration.ofSeconds(70)))).thenReturn(true, false);
+
+        Assertions.assertTrue(transactionStateStore.putIfAbsent(Constants.JTI_CACHE, "jti-1", true, Duration.ofSeconds(70)));
+        Assertions.assertFalse(transactionStateStore.putIfAbsent(Constants.JTI_CACHE, "jti-1", true, Duration.ofSeconds(70)));
+    }
+
+    @Test
+    public void putIfAbsent_withoutTTL_thenCacheTTLUsed() {
+        ValueOperations<String, byte[]> valueOperations = Mockito.mock(ValueOperations.class);
+        Mockito.when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        Mockito.when(valueOperations.setIfAbsent(Mockito.eq("esignet:jti::jti-1"), any(byte[].class),
+                Mockito.eq(Duration.ofSeconds(86400)))).thenReturn(true);
+
+        Assertions.assertTrue(transactionStateStore.putIfAbsent(Constants.JTI_CACHE, "jti-1", true, null));
+    }
+
+    private void mockRedisCache(CacheManager cacheManager, String cacheName, int ttl) {
+        RedisCache redisCache = Mockito.mock(RedisCache.class);
+        Mockito.when(redisCache.getCacheConfiguration()).thenReturn(RedisCacheConfiguration.defaultCacheConfig()
+                .prefixCacheNameWith("esignet:")
+                .entryTtl(Duration.ofSeconds(ttl)));
+        Mockito.when(cacheManager.getCache(cacheName)).thenReturn(redisCache);
+    }
+}
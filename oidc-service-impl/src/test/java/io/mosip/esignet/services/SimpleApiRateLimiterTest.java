@@ -0,0 +1,92 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.services;
+
+import io.mosip.esignet.core.constants.Constants;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class SimpleApiRateLimiterTest {
+
+    private SimpleApiRateLimiter apiRateLimiter;
+
+    @BeforeEach
+    public void setUp() {
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(Constants.RATE_LIMIT_CACHE);
+        cacheManager.setStoreByValue(true);
+        apiRateLimiter = new SimpleApiRateLimiter();
+        ReflectionTestUtils.setField(apiRateLimiter, "cacheManager", cacheManager);
+        ReflectionTestUtils.setField(apiRateLimiter, "cacheExpireInSeconds", Map.of(Constants.RATE_LIMIT_CACHE, 180));
+    }
+
+    @Test
+    public void tryAcquire_withAttemptsLimit_thenPass() {
+        Assertions.assertEquals(ApiRateLimiter.Result.ALLOWED, apiRateLimiter.tryAcquire("send-otp:transaction:txn-1", 2, 0, null));
+        Assertions.assertEquals(ApiRateLimiter.Result.ALLOWED, apiRateLimiter.tryAcquire("send-otp:transaction:txn-1", 2, 0, null));
+        Assertions.assertEquals(ApiRateLimiter.Result.LIMIT_EXCEEDED, apiRateLimiter.tryAcquire("send-otp:transaction:txn-1", 2, 0, null));
+        Assertions.assertEquals(ApiRateLimiter.Result.ALLOWED, apiRateLimiter.tryAcquire("send-otp:transaction:txn-2", 2, 0, null));
+    }
+
+    @Test
+    public void tryAcquire_withInvocationGap_thenFail() {
+        Assertions.assertEquals(ApiRateLimiter.Result.ALLOWED, apiRateLimiter.tryAcquire("authenticate:transaction:txn-1", 3, 60, null));
+        Assertions.assertEquals(ApiRateLimiter.Result.TOO_EARLY, apiRateLimiter.tryAcquire("authenticate:transaction:txn-1", 3, 60, null));
+        //rejected invocations are not counted
+        Assertions.assertEquals(ApiRateLimiter.Result.ALLOWED, apiRateLimiter.tryAcquire("authenticate:transaction:txn-1", 2, 0, null));
+        Assertions.assertEquals(ApiRateLimiter.Result.LIMIT_EXCEEDED, apiRateLimiter.tryAcquire("authenticate:transaction:txn-1", 2, 0, null));
+    }
+
+    @Test
+    public void tryAcquire_withMultipleLimits_thenRecordedOnlyIfAllPass() {
+        ApiRateLimiter.Limit transactionLimit = new ApiRateLimiter.Limit("send-otp:transaction:txn-1", 3, 0, null);
+        ApiRateLimiter.Limit clientLimit = new ApiRateLimiter.Limit("send-otp:client:client-1", 1, 0, Duration.ofSeconds(60));
+        Assertions.assertEquals(new ApiRateLimiter.Decision(ApiRateLimiter.Result.ALLOWED, -1),
+                apiRateLimiter.tryAcquire(List.of(transactionLimit, clientLimit)));
+        Assertions.assertEquals(new ApiRateLimiter.Decision(ApiRateLimiter.Result.LIMIT_EXCEEDED, 1),
+                apiRateLimiter.tryAcquire(List.of(transactionLimit, clientLimit)));
+        //invocation rejected by the client limit is not counted against the transaction
+        Assertions.assertEquals(ApiRateLimiter.Result.ALLOWED, apiRateLimiter.tryAcquire("send-otp:transaction:txn-1", 2, 0, null));
+        Assertions.assertEquals(ApiRateLimiter.Result.LIMIT_EXCEEDED, apiRateLimiter.tryAcquire("send-otp:transaction:txn-1", 2, 0, null));
+    }
+
+    @Test
+    public void tryAcquire_withElapsedWindow_thenPass() throws Exception {
+        Assertions.assertEquals(ApiRateLimiter.Result.ALLOWED, apiRateLimiter.tryAcquire("send-otp:individual:hash", 1, 0, Duration.ofMillis(50)));
+        Assertions.assertEquals(ApiRateLimiter.Result.LIMIT_EXCEEDED, apiRateLimiter.tryAcquire("send-otp:individual:hash", 1, 0, Duration.ofMillis(50)));
+        Thread.sleep(100);
+        Assertions.assertEquals(ApiRateLimiter.Result.ALLOWED, apiRateLimiter.tryAcquire("send-otp:individual:hash", 1, 0, Duration.ofMillis(50)));
+    }
+
+    @Test
+    public void tryAcquire_withConcurrentInvocations_thenNoLostUpdates() throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<ApiRateLimiter.Result>> invocations = new ArrayList<>();
+            for(int i=0; i<50; i++) {
+                invocations.add(() -> apiRateLimiter.tryAcquire("send-otp:transaction:txn-1", 10, 0, null));
+            }
+            long allowed = 0;
+            for(Future<ApiRateLimiter.Result> result : executorService.invokeAll(invocations)) {
+                if(result.get() == ApiRateLimiter.Result.ALLOWED) allowed++;
+            }
+            Assertions.assertEquals(10, allowed);
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package io.mosip.esignet.services;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
 import com.nimbusds.jose.*;
 import com.nimbusds.jose.crypto.ECDSASigner;
 import com.nimbusds.jose.crypto.RSASSASigner;
@@ -9,10 +10,15 @@ import com.nimbusds.jose.jwk.ECKey;
 import com.nimbusds.jose.jwk.RSAKey;
 import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
 import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.proc.SecurityContext;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
+import com.nimbusds.jwt.proc.DefaultJWTClaimsVerifier;
+import io.mosip.esignet.core.constants.Constants;
 import io.mosip.esignet.core.constants.ErrorConstants;
+import io.mosip.esignet.core.dto.ClientDetailEvictedEvent;
 import io.mosip.esignet.core.dto.OIDCTransaction;
+import io.mosip.esignet.core.exception.DpopNonceMissingException;
 import io.mosip.esignet.core.exception.EsignetException;
 import io.mosip.esignet.core.exception.NotAuthenticatedException;
 import io.mosip.esignet.core.util.AuthenticationContextClassRefUtil;
@@ -33,6 +39,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
 
@@ -51,6 +58,12 @@ public class TokenServiceTest {
     @Mock
     private CacheUtilService cacheUtilService;
 
+    @Mock
+    private LocalTokenSigner localTokenSigner;
+
+    @Mock
+    private LocalTokenVerifier localTokenVerifier;
+
     private static final RSAKey RSA_JWK;
 
     static {
@@ -72,6 +85,7 @@ public class TokenServiceTest {
         ReflectionTestUtils.setField(tokenService, "maxClockSkew", 5);
         ReflectionTestUtils.setField(tokenService, "discoveryMap", mockDiscoveryMap);
         ReflectionTestUtils.setField(tokenService, "uniqueJtiRequired", true);
+        tokenService.init();
     }
 
     @Test
@@ -222,6 +236,35 @@ public class TokenServiceTest {
         tokenService.verifyClientAssertionToken("client-id", RSA_JWK.toPublicJWK().toJSONString(), jwt.serialize(),List.of("audience"));
     }
 
+    @Test
+    public void verifyClientAssertionToken_withSameClientKey_thenDecoderReused() throws JOSEException {
+        long now = System.currentTimeMillis();
+        JWSSigner signer = new RSASSASigner(RSA_JWK.toRSAPrivateKey());
+        JWTClaimsSet claimsSet = new JWTClaimsSet.Builder()
+                .subject("client-id")
+                .audience("audience")
+                .issueTime(new Date(now))
+                .expirationTime(new Date(now + 60000))
+                .issuer("client-id")
+                .jwtID(IdentityProviderUtil.createTransactionId(null))
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader(JWSAlgorithm.RS256), claimsSet);
+        jwt.sign(signer);
+        String jwk = RSA_JWK.toPublicJWK().toJSONString();
+        Cache<String, ?> decoders = (Cache<String, ?>) ReflectionTestUtils.getField(tokenService, "clientAssertionDecoders");
+
+        tokenService.verifyClientAssertionToken("client-id", jwk, jwt.serialize(), List.of("audience", "issuer"));
+        Object decoder = decoders.asMap().values().iterator().next();
+        tokenService.verifyClientAssertionToken("client-id", jwk, jwt.serialize(), List.of("issuer", "audience"));
+        Assertions.assertEquals(1, decoders.size());
+        Assertions.assertSame(decoder, decoders.asMap().values().iterator().next());
+
+        tokenService.onClientDetailEvicted(new ClientDetailEvictedEvent("other-client-id"));
+        Assertions.assertEquals(1, decoders.size());
+        tokenService.onClientDetailEvicted(new ClientDetailEvictedEvent("client-id"));
+        Assertions.assertEquals(0, decoders.size());
+    }
+
     @Test
     public void verifyClientAssertionToken_withExactAudienceMatch_thenPass() throws JOSEException {
         long now = System.currentTimeMillis();
@@ -316,7 +359,7 @@ public class TokenServiceTest {
 
         SignedJWT signedJWT = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.PS256).keyID(rsaKey.getKeyID()).build(), claimsSet);
         signedJWT.sign(signer);
-        Mockito.when(cacheUtilService.checkAndMarkJti(Mockito.anyString())).thenReturn(true);
+        Mockito.when(cacheUtilService.checkAndMarkJti(Mockito.anyString(), Mockito.any(), Mockito.anyInt())).thenReturn(true);
         EsignetException ex = Assertions.assertThrows(EsignetException.class, () -> tokenService.verifyClientAssertionToken("client-id", rsaKey.toJSONString(), signedJWT.serialize(), List.of("audience")));
         Assertions.assertEquals(ErrorConstants.INVALID_CLIENT, ex.getErrorCode());
     }
@@ -415,6 +458,25 @@ public class TokenServiceTest {
         tokenService.verifyAccessToken("audience", "alice", jwt.serialize());
     }
 
+    @Test
+    public void verifyAccessToken_withParsedValidToken_thenPass() throws Exception {
+        JWSSigner signer = new RSASSASigner(RSA_JWK.toRSAPrivateKey());
+        JWTClaimsSet claimsSet = new JWTClaimsSet.Builder()
+                .subject("alice")
+                .audience("audience")
+                .issueTime(new Date(123000L))
+                .expirationTime(new Date(System.currentTimeMillis()))
+                .issuer("test-issuer")
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader(JWSAlgorithm.RS256), claimsSet);
+        jwt.sign(signer);
+        SignedJWT parsedJwt = SignedJWT.parse(jwt.serialize());
+        tokenService.verifyAccessToken("audience", "alice", parsedJwt);
+        Mockito.verify(localTokenVerifier).verify(parsedJwt);
+
+        assertThrows(NotAuthenticatedException.class, () -> tokenService.verifyAccessToken("audience", "bob", parsedJwt));
+    }
+
     @Test
     public void verifyAccessToken_withInvalidDataToken_thenFail() {
         assertThrows(NotAuthenticatedException.class, () ->
@@ -467,47 +529,96 @@ public class TokenServiceTest {
 
     @Test
     public void isValidDpopServerNonce_withValidNonce_thenReturnTrue() throws Exception {
-        OIDCTransaction transaction = new OIDCTransaction();
         String nonce = "validNonce";
-        transaction.setDpopServerNonce(nonce);
-        transaction.setDpopServerNonceTTL(System.currentTimeMillis() + 15 * 10000);
+        Mockito.when(cacheUtilService.isValidDpopServerNonce(Constants.USERINFO_CACHE, "at-hash", nonce)).thenReturn(true);
         String dpopHeader = createDpopHeader(nonce);
-        Assertions.assertTrue(tokenService.isValidDpopServerNonce(dpopHeader, transaction));
+        Assertions.assertTrue(tokenService.isValidDpopServerNonce(dpopHeader, "at-hash", Constants.USERINFO_CACHE));
     }
 
     @Test
     public void isValidDpopServerNonce_withExpiredNonce_thenReturnFalse() throws Exception {
-        OIDCTransaction transaction = new OIDCTransaction();
         String nonce = "validNonce";
-        transaction.setDpopServerNonce(nonce);
-        transaction.setDpopServerNonceTTL(System.currentTimeMillis() - 15 * 10000);
+        Mockito.when(cacheUtilService.isValidDpopServerNonce(Constants.USERINFO_CACHE, "at-hash", nonce)).thenReturn(false);
         String dpopHeader = createDpopHeader(nonce);
-        Assertions.assertFalse(tokenService.isValidDpopServerNonce(dpopHeader, transaction));
+        Assertions.assertFalse(tokenService.isValidDpopServerNonce(dpopHeader, "at-hash", Constants.USERINFO_CACHE));
     }
 
     @Test
     public void isValidDpopServerNonce_withInvalidNonce_thenReturnFalse() throws Exception {
-        OIDCTransaction transaction = new OIDCTransaction();
-        transaction.setDpopServerNonce("validNonce");
-        transaction.setDpopServerNonceTTL(System.currentTimeMillis() + 15 * 10000);
         String dpopHeader = createDpopHeader("invalidNonce");
-        Assertions.assertFalse(tokenService.isValidDpopServerNonce(dpopHeader, transaction));
+        Assertions.assertFalse(tokenService.isValidDpopServerNonce(dpopHeader, "at-hash", Constants.USERINFO_CACHE));
     }
 
     @Test
     public void isValidDpopServerNonce_withMissingNonceInPayload_thenReturnFalse() throws Exception {
-        OIDCTransaction transaction = new OIDCTransaction();
-        transaction.setDpopServerNonce("validNonce");
-        transaction.setDpopServerNonceTTL(System.currentTimeMillis() + 15 * 10000);
         String dpopHeader = createDpopHeader(null);
-        Assertions.assertFalse(tokenService.isValidDpopServerNonce(dpopHeader, transaction));
+        Assertions.assertFalse(tokenService.isValidDpopServerNonce(dpopHeader, "at-hash", Constants.USERINFO_CACHE));
+        Mockito.verifyNoInteractions(cacheUtilService);
+    }
+
+    @Test
+    public void generateAndStoreNewNonce_thenNonceStoredSeparately() {
+        ReflectionTestUtils.setField(tokenService, "dpopNonceExpirySeconds", 15L);
+        DpopNonceMissingException exception = assertThrows(DpopNonceMissingException.class,
+                () -> tokenService.generateAndStoreNewNonce("code-hash", Constants.AUTH_CODE_GENERATED_CACHE));
+        Mockito.verify(cacheUtilService).saveDpopServerNonce(Constants.AUTH_CODE_GENERATED_CACHE, "code-hash",
+                exception.getDpopNonceHeaderValue(), Duration.ofSeconds(15));
+    }
+
+    @Test
+    public void verifyAccessToken_withPrecompiledClaimsVerifier_thenVerifierReused() throws Exception {
+        DefaultJWTClaimsVerifier<SecurityContext> tokenClaimsVerifier = Mockito.spy((DefaultJWTClaimsVerifier<SecurityContext>)
+                ReflectionTestUtils.getField(tokenService, "tokenClaimsVerifier"));
+        ReflectionTestUtils.setField(tokenService, "tokenClaimsVerifier", tokenClaimsVerifier);
+        JWTClaimsSet claimsSet = new JWTClaimsSet.Builder()
+                .subject("alice")
+                .audience("audience")
+                .issueTime(new Date(123000L))
+                .expirationTime(new Date(System.currentTimeMillis() + 60000))
+                .issuer("test-issuer")
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader(JWSAlgorithm.RS256), claimsSet);
+        jwt.sign(new RSASSASigner(RSA_JWK.toRSAPrivateKey()));
+        Mockito.when(localTokenVerifier.verify(Mockito.any(SignedJWT.class))).thenReturn(true);
+
+        tokenService.verifyAccessToken("audience", "alice", SignedJWT.parse(jwt.serialize()));
+        tokenService.verifyAccessToken("audience", "alice", SignedJWT.parse(jwt.serialize()));
+        Assertions.assertSame(tokenClaimsVerifier, ReflectionTestUtils.getField(tokenService, "tokenClaimsVerifier"));
+        Mockito.verify(tokenClaimsVerifier, Mockito.times(2)).verify(Mockito.any(JWTClaimsSet.class), Mockito.isNull());
+    }
+
+    @Test
+    public void verifyIdToken_withInvalidAudience_thenFail() throws Exception {
+        JWTClaimsSet claimsSet = new JWTClaimsSet.Builder()
+                .subject("alice")
+                .audience(List.of("audience", "other-audience"))
+                .issueTime(new Date(123000L))
+                .expirationTime(new Date(System.currentTimeMillis() + 60000))
+                .issuer("test-issuer")
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader(JWSAlgorithm.RS256), claimsSet);
+        jwt.sign(new RSASSASigner(RSA_JWK.toRSAPrivateKey()));
+        Mockito.when(localTokenVerifier.verify(Mockito.anyString())).thenReturn(true);
+
+        assertThrows(NotAuthenticatedException.class, () -> tokenService.verifyIdToken(jwt.serialize(), "audience"));
+        assertThrows(NotAuthenticatedException.class, () -> tokenService.verifyIdToken(jwt.serialize(), "client-id"));
+    }
+
+    @Test
+    public void isValidDpopServerNonce_withParsedClaims_thenPass() {
+        Mockito.when(cacheUtilService.isValidDpopServerNonce(Constants.USERINFO_CACHE, "at-hash", "validNonce")).thenReturn(true);
+        Assertions.assertTrue(tokenService.isValidDpopServerNonce(new JWTClaimsSet.Builder().claim("nonce", "validNonce").build(),
+                "at-hash", Constants.USERINFO_CACHE));
+        Assertions.assertFalse(tokenService.isValidDpopServerNonce(new JWTClaimsSet.Builder().claim("nonce", "invalidNonce").build(),
+                "at-hash", Constants.USERINFO_CACHE));
+        Assertions.assertFalse(tokenService.isValidDpopServerNonce(new JWTClaimsSet.Builder().build(), "at-hash",
+                Constants.USERINFO_CACHE));
     }
 
     @Test
     public void isValidDpopServerNonce_withMissingNonceInPayloadAndTransaction_thenReturnFalse() throws Exception {
-        OIDCTransaction transaction = new OIDCTransaction();
         String dpopHeader = createDpopHeader(null);
-        Assertions.assertFalse(tokenService.isValidDpopServerNonce(dpopHeader, transaction));
+        Assertions.assertFalse(tokenService.isValidDpopServerNonce(dpopHeader, "code-hash", Constants.AUTH_CODE_GENERATED_CACHE));
     }
 
     private String createDpopHeader(String nonce) throws Exception {